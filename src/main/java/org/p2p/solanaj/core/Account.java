@@ -10,9 +10,13 @@ import org.p2p.solanaj.utils.Base58;
 import org.p2p.solanaj.utils.TweetNaclFast;
 import org.p2p.solanaj.utils.bip32.wallet.SolanaBip44;
 import org.p2p.solanaj.utils.bip32.wallet.DerivableType;
+import org.p2p.solanaj.utils.signer.Signer;
+import org.p2p.solanaj.utils.signer.Signers;
 
 public class Account {
     private final TweetNaclFast.Signature.KeyPair keyPair;
+    // Created on first use with the default signer
+    private volatile Signer.SigningKey signingKey;
 
     public Account() {
         this.keyPair = TweetNaclFast.Signature.keyPair();
@@ -96,6 +100,44 @@ public class Account {
         return keyPair.getSecretKey();
     }
 
+    /**
+     * Sets the signer this account signs with, instead of {@link Signers#getDefault()}.
+     * @param signer the signer
+     */
+    public void setSigner(Signer signer) {
+        this.signingKey = signer.createSigningKey(getSecretKey());
+    }
+
+    /**
+     * Signs a message with this account's secret key.
+     * @param message the message
+     * @return the 64-byte signature
+     */
+    public byte[] sign(byte[] message) {
+        return signingKey().sign(message);
+    }
+
+    /**
+     * Signs part of an array and writes the signature into another, or the same, array.
+     * @param message the array holding the message
+     * @param offset the offset of the message
+     * @param length the length of the message
+     * @param signature the array to write the 64-byte signature to
+     * @param signatureOffset the offset of the signature
+     */
+    public void sign(byte[] message, int offset, int length, byte[] signature, int signatureOffset) {
+        signingKey().sign(message, offset, length, signature, signatureOffset);
+    }
+
+    private Signer.SigningKey signingKey() {
+        Signer.SigningKey key = signingKey;
+        if (key == null) {
+            key = Signers.getDefault().createSigningKey(getSecretKey());
+            signingKey = key;
+        }
+        return key;
+    }
+
     /**
      * Convert's a Sollet-exported JSON string into a byte array usable for {@link Account} instantiation
      * @param characters Sollet-exported JSON string
@@ -3,18 +3,22 @@ package org.p2p.solanaj.core;
 import java.util.*;
 
 public class AccountKeysList {
-    private final Map<String, AccountMeta> accounts;
+    // Keyed by the raw key bytes; PublicKey hashes and compares them without Base58 encoding
+    private final Map<PublicKey, AccountMeta> accounts;
 
     public AccountKeysList() {
         accounts = new LinkedHashMap<>();
     }
 
     public void add(AccountMeta accountMeta) {
-        String key = accountMeta.getPublicKey().toString();
-        accounts.merge(key, accountMeta, (existing, newMeta) ->
-                new AccountMeta(existing.getPublicKey(),
-                        existing.isSigner() || newMeta.isSigner(),
-                        existing.isWritable() || newMeta.isWritable()));
+        accounts.merge(accountMeta.getPublicKey(), accountMeta, (existing, newMeta) -> {
+            boolean signer = existing.isSigner() || newMeta.isSigner();
+            boolean writable = existing.isWritable() || newMeta.isWritable();
+            if (signer == existing.isSigner() && writable == existing.isWritable()) {
+                return existing;
+            }
+            return new AccountMeta(existing.getPublicKey(), signer, writable);
+        });
     }
 
     public void addAll(AccountKeysList metas) {
@@ -25,14 +29,27 @@ public class AccountKeysList {
         metas.forEach(this::add);
     }
 
-    /** Retrieve account list sorted by signer/writable attributes. */
+    /**
+     * Retrieve account list ordered by signer/writable attributes: signer-writable, signer-readonly,
+     * writable, then readonly accounts, each group in insertion order.
+     */
     public ArrayList<AccountMeta> getList() {
-        ArrayList<AccountMeta> accountKeysList = new ArrayList<>(accounts.values());
-        accountKeysList.sort(metaComparator);
+        ArrayList<AccountMeta> accountKeysList = new ArrayList<>(accounts.size());
+        List<AccountMeta> signerReadonly = new ArrayList<>();
+        List<AccountMeta> writable = new ArrayList<>();
+        List<AccountMeta> readonly = new ArrayList<>();
+
+        for (AccountMeta meta : accounts.values()) {
+            if (meta.isSigner()) {
+                (meta.isWritable() ? accountKeysList : signerReadonly).add(meta);
+            } else {
+                (meta.isWritable() ? writable : readonly).add(meta);
+            }
+        }
+
+        accountKeysList.addAll(signerReadonly);
+        accountKeysList.addAll(writable);
+        accountKeysList.addAll(readonly);
         return accountKeysList;
     }
-
-    private static final Comparator<AccountMeta> metaComparator = Comparator
-        .comparing(AccountMeta::isSigner)
-        .thenComparing(AccountMeta::isWritable).reversed();
 }
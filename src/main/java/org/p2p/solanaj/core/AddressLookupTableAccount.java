@@ -0,0 +1,85 @@
+package org.p2p.solanaj.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An address lookup table as stored on chain, used to compress the account keys of a {@link MessageV0}.
+ */
+public class AddressLookupTableAccount {
+
+    /** Size of the table metadata that precedes the addresses */
+    public static final int LOOKUP_TABLE_META_SIZE = 56;
+
+    private static final int DEACTIVATION_SLOT_OFFSET = 4;
+
+    private final PublicKey key;
+    private final List<PublicKey> addresses;
+    private final long deactivationSlot;
+
+    /**
+     * Constructs an active lookup table from known addresses.
+     *
+     * @param key The address of the lookup table
+     * @param addresses The addresses stored in the table, in table order
+     */
+    public AddressLookupTableAccount(PublicKey key, List<PublicKey> addresses) {
+        this(key, addresses, -1L);
+    }
+
+    private AddressLookupTableAccount(PublicKey key, List<PublicKey> addresses, long deactivationSlot) {
+        this.key = Objects.requireNonNull(key, "Lookup table key cannot be null");
+        this.addresses = Collections.unmodifiableList(new ArrayList<>(addresses));
+        this.deactivationSlot = deactivationSlot;
+    }
+
+    /**
+     * Decodes a lookup table from its account data: the table metadata followed by the 32-byte addresses.
+     *
+     * @param key The address of the lookup table
+     * @param data The account data
+     * @return The lookup table
+     * @throws IllegalArgumentException if the data is not a lookup table
+     */
+    public static AddressLookupTableAccount deserialize(PublicKey key, byte[] data) {
+        if (data.length < LOOKUP_TABLE_META_SIZE || (data.length - LOOKUP_TABLE_META_SIZE) % PublicKey.PUBLIC_KEY_LENGTH != 0) {
+            throw new IllegalArgumentException("Invalid lookup table data length: " + data.length);
+        }
+
+        long deactivationSlot = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getLong(DEACTIVATION_SLOT_OFFSET);
+        int count = (data.length - LOOKUP_TABLE_META_SIZE) / PublicKey.PUBLIC_KEY_LENGTH;
+        List<PublicKey> addresses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            addresses.add(PublicKey.readPubkey(data, LOOKUP_TABLE_META_SIZE + i * PublicKey.PUBLIC_KEY_LENGTH));
+        }
+        return new AddressLookupTableAccount(key, addresses, deactivationSlot);
+    }
+
+    public PublicKey getKey() {
+        return key;
+    }
+
+    public List<PublicKey> getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * @return The slot the table was deactivated at, or -1 (u64 max) while it is active
+     */
+    public long getDeactivationSlot() {
+        return deactivationSlot;
+    }
+
+    public boolean isActive() {
+        return deactivationSlot == -1L;
+    }
+
+    @Override
+    public String toString() {
+        return "AddressLookupTableAccount{key=" + key + ", addresses=" + addresses.size() + '}';
+    }
+}
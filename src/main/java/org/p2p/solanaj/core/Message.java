@@ -5,7 +5,10 @@ import org.p2p.solanaj.utils.ShortvecEncoding;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Message {
     private class MessageHeader {
@@ -33,13 +36,19 @@ public class Message {
         }
     }
 
-    private static final int RECENT_BLOCK_HASH_LENGTH = 32;
+    static final int RECENT_BLOCK_HASH_LENGTH = 32;
 
     private MessageHeader messageHeader;
     private String recentBlockhash;
     private AccountKeysList accountKeys;
     private List<TransactionInstruction> instructions;
-    private Account feePayer;
+    private PublicKey feePayer;
+
+    // Compiled form, kept until an instruction or the fee payer changes
+    private List<AccountMeta> compiledAccountKeys;
+    private byte[] compiledMessage;
+    private int recentBlockhashOffset;
+    private String compiledBlockhash;
 
     public Message() {
         this.accountKeys = new AccountKeysList();
@@ -50,6 +59,7 @@ public class Message {
         accountKeys.addAll(instruction.getKeys());
         accountKeys.add(new AccountMeta(instruction.getProgramId(), false, false));
         instructions.add(instruction);
+        invalidate();
 
         return this;
     }
@@ -58,21 +68,169 @@ public class Message {
         this.recentBlockhash = recentBlockhash;
     }
 
+    /**
+     * Serializes the message. The message is compiled once and the compiled form is reused until an
+     * instruction or the fee payer changes; a new recent blockhash is patched into it in place.
+     *
+     * @return The serialized message
+     */
     public byte[] serialize() {
+        return prepare().clone();
+    }
+
+    /**
+     * Returns the size of the serialized message, compiling it if needed.
+     *
+     * @return The number of bytes {@link #serializeInto} writes
+     */
+    public int serializedLength() {
+        if (instructions.size() == 0 && compiledMessage == null) {
+            throw new IllegalArgumentException("No instructions provided");
+        }
+        if (compiledMessage == null) {
+            compile();
+        }
+        return compiledMessage.length;
+    }
+
+    /**
+     * Writes the serialized message at the buffer's position and advances past it, so callers can serialize
+     * into pooled or direct buffers without an intermediate array.
+     *
+     * @param out The buffer to write to, with at least {@link #serializedLength()} bytes remaining
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void serializeInto(ByteBuffer out) {
+        out.put(prepare());
+    }
 
+    // Compiles the message if needed and patches in the recent blockhash; the result must not be modified
+    private byte[] prepare() {
         if (recentBlockhash == null) {
             throw new IllegalArgumentException("recentBlockhash required");
         }
 
-        if (instructions.size() == 0) {
+        if (instructions.size() == 0 && compiledMessage == null) {
             throw new IllegalArgumentException("No instructions provided");
         }
 
+        if (compiledMessage == null) {
+            compile();
+        }
+
+        if (!recentBlockhash.equals(compiledBlockhash)) {
+            byte[] blockhash = Base58.decode(recentBlockhash);
+            if (blockhash.length != RECENT_BLOCK_HASH_LENGTH) {
+                throw new IllegalArgumentException("Invalid recentBlockhash: " + recentBlockhash);
+            }
+            System.arraycopy(blockhash, 0, compiledMessage, recentBlockhashOffset, RECENT_BLOCK_HASH_LENGTH);
+            compiledBlockhash = recentBlockhash;
+        }
+
+        return compiledMessage;
+    }
+
+    /**
+     * Computes the serialized size of the message without compiling it; a compiled message reports its
+     * actual size. Until a fee payer is set, the first signer of the instructions is assumed to pay, or a
+     * separate fee payer if they have no signer.
+     *
+     * @return The size of the serialized message in bytes
+     * @throws IllegalStateException if a version 0 message with lookup tables has no fee payer yet
+     */
+    public int estimateSize() {
+        if (compiledMessage != null) {
+            return compiledMessage.length;
+        }
+        return estimateUncompiledSize();
+    }
+
+    /**
+     * Computes the size of a legacy message from its accounts and instructions. Subclasses producing another
+     * message format override this.
+     */
+    int estimateUncompiledSize() {
+        int accountKeyCount = estimateAccountKeys().size();
+        if (feePayer == null && getSignerCount() > countSigners(estimateAccountKeys())) {
+            accountKeyCount++;
+        }
+        int size = MessageHeader.HEADER_LENGTH + ShortvecEncoding.encodedLength(accountKeyCount)
+                + accountKeyCount * PublicKey.PUBLIC_KEY_LENGTH + RECENT_BLOCK_HASH_LENGTH
+                + ShortvecEncoding.encodedLength(instructions.size());
+        for (TransactionInstruction instruction : instructions) {
+            int keys = instruction.getKeys().size();
+            int data = instruction.getData().length;
+            size += 1 + ShortvecEncoding.encodedLength(keys) + keys + ShortvecEncoding.encodedLength(data) + data;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of signatures the message requires, counting the fee payer as described for
+     * {@link #estimateSize()}.
+     *
+     * @return The number of required signatures
+     */
+    public int getSignerCount() {
+        return Math.max(1, countSigners(estimateAccountKeys()));
+    }
+
+    private List<AccountMeta> estimateAccountKeys() {
+        return feePayer != null ? getAccountKeys() : accountKeys.getList();
+    }
+
+    private static int countSigners(List<AccountMeta> keys) {
+        int signers = 0;
+        for (AccountMeta accountMeta : keys) {
+            if (accountMeta.isSigner()) {
+                signers++;
+            }
+        }
+        return signers;
+    }
+
+    boolean hasFeePayer() {
+        return feePayer != null;
+    }
+
+    boolean isSigner(PublicKey key) {
+        for (AccountMeta accountMeta : getAccountKeys()) {
+            if (accountMeta.isSigner() && accountMeta.getPublicKey().equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serializes the message for a template, which fills in the blockhash itself: unlike {@link #serialize()}
+     * this does not require a recent blockhash, and leaves it zeroed if none was set.
+     *
+     * @return The serialized message
+     */
+    byte[] serializeTemplate() {
+        if (recentBlockhash != null) {
+            return serialize();
+        }
+        serializedLength();
+        return compiledMessage.clone();
+    }
+
+    /**
+     * Compiles the message with a zeroed blockhash, resolving account indices through a hash map.
+     * Subclasses producing another message format override this and pass the result to {@link #setCompiled}.
+     */
+    void compile() {
         messageHeader = new MessageHeader();
 
         List<AccountMeta> keysList = getAccountKeys();
         int accountKeysSize = keysList.size();
 
+        Map<PublicKey, Integer> accountIndices = new HashMap<>(accountKeysSize * 2);
+        for (int i = 0; i < accountKeysSize; i++) {
+            accountIndices.put(keysList.get(i).getPublicKey(), i);
+        }
+
         byte[] accountAddressesLength = ShortvecEncoding.encodeLength(accountKeysSize);
 
         int compiledInstructionsLength = 0;
@@ -83,11 +241,11 @@ public class Message {
 
             byte[] keyIndices = new byte[keysSize];
             for (int i = 0; i < keysSize; i++) {
-                keyIndices[i] = (byte) findAccountIndex(keysList, instruction.getKeys().get(i).getPublicKey());
+                keyIndices[i] = (byte) findAccountIndex(accountIndices, instruction.getKeys().get(i).getPublicKey());
             }
 
             CompiledInstruction compiledInstruction = new CompiledInstruction();
-            compiledInstruction.programIdIndex = (byte) findAccountIndex(keysList, instruction.getProgramId());
+            compiledInstruction.programIdIndex = (byte) findAccountIndex(accountIndices, instruction.getProgramId());
             compiledInstruction.keyIndicesCount = ShortvecEncoding.encodeLength(keysSize);
             compiledInstruction.keyIndices = keyIndices;
             compiledInstruction.dataLength = ShortvecEncoding.encodeLength(instruction.getData().length);
@@ -106,10 +264,7 @@ public class Message {
 
         ByteBuffer out = ByteBuffer.allocate(bufferSize);
 
-        ByteBuffer accountKeysBuff = ByteBuffer.allocate(accountKeysSize * PublicKey.PUBLIC_KEY_LENGTH);
         for (AccountMeta accountMeta : keysList) {
-            accountKeysBuff.put(accountMeta.getPublicKey().toByteArray());
-
             if (accountMeta.isSigner()) {
                 messageHeader.numRequiredSignatures += 1;
                 if (!accountMeta.isWritable()) {
@@ -125,9 +280,12 @@ public class Message {
         out.put(messageHeader.toByteArray());
 
         out.put(accountAddressesLength);
-        out.put(accountKeysBuff.array());
+        for (AccountMeta accountMeta : keysList) {
+            out.put(accountMeta.getPublicKey().toByteArray());
+        }
 
-        out.put(Base58.decode(recentBlockhash));
+        int blockhashOffset = out.position();
+        out.position(blockhashOffset + RECENT_BLOCK_HASH_LENGTH);
 
         out.put(instructionsLength);
         for (CompiledInstruction compiledInstruction : compiledInstructions) {
@@ -138,27 +296,99 @@ public class Message {
             out.put(compiledInstruction.data);
         }
 
-        return out.array();
+        setCompiled(out.array(), blockhashOffset);
+    }
+
+    /**
+     * Stores a compiled message whose recent blockhash is still to be filled in.
+     *
+     * @param message The compiled message
+     * @param blockhashOffset The offset of the recent blockhash in the message
+     */
+    void setCompiled(byte[] message, int blockhashOffset) {
+        compiledMessage = message;
+        recentBlockhashOffset = blockhashOffset;
+        compiledBlockhash = null;
+    }
+
+    void invalidate() {
+        compiledAccountKeys = null;
+        compiledMessage = null;
+        compiledBlockhash = null;
     }
 
     protected void setFeePayer(Account feePayer) {
-        this.feePayer = feePayer;
+        PublicKey feePayerKey = feePayer != null ? feePayer.getPublicKey() : null;
+        if (this.feePayer == null || feePayerKey == null || !this.feePayer.equals(feePayerKey)) {
+            invalidate();
+        }
+        this.feePayer = feePayerKey;
     }
 
-    public List<AccountMeta> getAccountKeys() {
-        AccountKeysList accounts = new AccountKeysList();
-        accounts.add(new AccountMeta(feePayer.getPublicKey(), true, true));
-        accounts.addAll(accountKeys);
-        return accounts.getList();
+    /**
+     * Restores a message from its wire format. The compiled bytes are kept as they are, so signing the
+     * restored message signs exactly the original bytes.
+     *
+     * @param keys The account keys stored in the message, fee payer first
+     * @param instructions The decoded instructions
+     * @param recentBlockhash The recent blockhash
+     * @param compiled The serialized message
+     * @param blockhashOffset The offset of the recent blockhash in the serialized message
+     */
+    void restore(List<AccountMeta> keys, List<TransactionInstruction> instructions, String recentBlockhash,
+                 byte[] compiled, int blockhashOffset) {
+        accountKeys.addAll(keys);
+        this.instructions.addAll(instructions);
+        feePayer = keys.get(0).getPublicKey();
+        this.recentBlockhash = recentBlockhash;
+        compiledAccountKeys = new ArrayList<>(keys);
+        setCompiled(compiled, blockhashOffset);
+        compiledBlockhash = recentBlockhash;
     }
 
-    private int findAccountIndex(List<AccountMeta> accountMetaList, PublicKey key) {
-        for (int i = 0; i < accountMetaList.size(); i++) {
-            if (accountMetaList.get(i).getPublicKey().equals(key)) {
-                return i;
-            }
+    /**
+     * Copies the message, including its compiled form, so the copy can be changed without affecting this one.
+     *
+     * @return The copy
+     */
+    Message copy() {
+        return copyInto(new Message());
+    }
+
+    <T extends Message> T copyInto(T copy) {
+        Message target = copy;
+        target.accountKeys.addAll(accountKeys);
+        target.instructions.addAll(instructions);
+        target.feePayer = feePayer;
+        target.recentBlockhash = recentBlockhash;
+        if (compiledMessage != null) {
+            target.compiledAccountKeys = compiledAccountKeys;
+            target.compiledMessage = compiledMessage.clone();
+            target.recentBlockhashOffset = recentBlockhashOffset;
+            target.compiledBlockhash = compiledBlockhash;
         }
+        return copy;
+    }
+
+    List<TransactionInstruction> getInstructions() {
+        return Collections.unmodifiableList(instructions);
+    }
+
+    public List<AccountMeta> getAccountKeys() {
+        if (compiledAccountKeys == null) {
+            AccountKeysList accounts = new AccountKeysList();
+            accounts.add(new AccountMeta(feePayer, true, true));
+            accounts.addAll(accountKeys);
+            compiledAccountKeys = accounts.getList();
+        }
+        return new ArrayList<>(compiledAccountKeys);
+    }
 
-        throw new RuntimeException("unable to find account index");
+    private int findAccountIndex(Map<PublicKey, Integer> accountIndices, PublicKey key) {
+        Integer index = accountIndices.get(key);
+        if (index == null) {
+            throw new RuntimeException("unable to find account index");
+        }
+        return index;
     }
 }
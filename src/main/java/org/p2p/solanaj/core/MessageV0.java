@@ -0,0 +1,207 @@
+package org.p2p.solanaj.core;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.p2p.solanaj.utils.ShortvecEncoding;
+
+/**
+ * A version 0 message, which may load accounts from address lookup tables.
+ *
+ * Accounts that are neither signers nor invoked programs are loaded from the first lookup table that holds
+ * them, so the message carries a one-byte table index instead of the 32-byte key. The account indices used
+ * by instructions follow the runtime order: the static keys, then the writable and then the readonly
+ * accounts loaded from the tables.
+ */
+public class MessageV0 extends Message {
+
+    /** Prefix marking a versioned message; the low bits carry the version */
+    public static final int VERSION_PREFIX = 0x80;
+
+    private static final int MAX_ACCOUNT_INDEX = 255;
+
+    private final List<AddressLookupTableAccount> lookupTables = new ArrayList<>();
+    // Set for a deserialized message that loads accounts from tables whose contents are unknown
+    private boolean unresolvedLookups;
+
+    /**
+     * Adds a lookup table the message may load accounts from. Tables are searched in the order they are added.
+     *
+     * @param lookupTable The resolved lookup table
+     * @return This message for method chaining
+     */
+    public MessageV0 addLookupTable(AddressLookupTableAccount lookupTable) {
+        lookupTables.add(Objects.requireNonNull(lookupTable, "Lookup table cannot be null"));
+        invalidate();
+        return this;
+    }
+
+    public List<AddressLookupTableAccount> getLookupTables() {
+        return Collections.unmodifiableList(lookupTables);
+    }
+
+    /**
+     * A lookup table together with the accounts this message loads from it.
+     */
+    private static class TableLookup {
+        final AddressLookupTableAccount table;
+        final ByteArrayOutputStream writableIndexes = new ByteArrayOutputStream();
+        final ByteArrayOutputStream readonlyIndexes = new ByteArrayOutputStream();
+
+        TableLookup(AddressLookupTableAccount table) {
+            this.table = table;
+        }
+    }
+
+    void markUnresolvedLookups() {
+        unresolvedLookups = true;
+    }
+
+    @Override
+    MessageV0 copy() {
+        MessageV0 copy = new MessageV0();
+        copy.lookupTables.addAll(lookupTables);
+        copy.unresolvedLookups = unresolvedLookups;
+        return copyInto(copy);
+    }
+
+    // Accounts loaded from lookup tables are only known once the message is compiled
+    @Override
+    int estimateUncompiledSize() {
+        if (lookupTables.isEmpty()) {
+            // The version prefix and an empty lookup vector
+            return super.estimateUncompiledSize() + 2;
+        }
+        if (!hasFeePayer()) {
+            throw new IllegalStateException("Fee payer required to estimate a message with lookup tables");
+        }
+        compile();
+        return super.estimateSize();
+    }
+
+    @Override
+    void compile() {
+        if (unresolvedLookups) {
+            throw new IllegalStateException("A deserialized message with lookup tables cannot be recompiled");
+        }
+        List<AccountMeta> keysList = getAccountKeys();
+        List<TransactionInstruction> instructions = getInstructions();
+
+        Set<PublicKey> programIds = new HashSet<>();
+        for (TransactionInstruction instruction : instructions) {
+            programIds.add(instruction.getProgramId());
+        }
+
+        Map<PublicKey, AccountMeta> loadable = new LinkedHashMap<>();
+        for (AccountMeta accountMeta : keysList) {
+            if (!accountMeta.isSigner() && !programIds.contains(accountMeta.getPublicKey())) {
+                loadable.put(accountMeta.getPublicKey(), accountMeta);
+            }
+        }
+
+        List<TableLookup> tableLookups = new ArrayList<>();
+        List<PublicKey> loadedWritable = new ArrayList<>();
+        List<PublicKey> loadedReadonly = new ArrayList<>();
+        for (AddressLookupTableAccount table : lookupTables) {
+            TableLookup lookup = new TableLookup(table);
+            List<PublicKey> addresses = table.getAddresses();
+            for (int i = 0; i < addresses.size() && !loadable.isEmpty(); i++) {
+                AccountMeta accountMeta = loadable.remove(addresses.get(i));
+                if (accountMeta == null) {
+                    continue;
+                }
+                if (accountMeta.isWritable()) {
+                    lookup.writableIndexes.write(i);
+                    loadedWritable.add(accountMeta.getPublicKey());
+                } else {
+                    lookup.readonlyIndexes.write(i);
+                    loadedReadonly.add(accountMeta.getPublicKey());
+                }
+            }
+            if (lookup.writableIndexes.size() + lookup.readonlyIndexes.size() > 0) {
+                tableLookups.add(lookup);
+            }
+        }
+
+        Set<PublicKey> loaded = new HashSet<>(loadedWritable);
+        loaded.addAll(loadedReadonly);
+        List<AccountMeta> staticKeys = new ArrayList<>();
+        for (AccountMeta accountMeta : keysList) {
+            if (!loaded.contains(accountMeta.getPublicKey())) {
+                staticKeys.add(accountMeta);
+            }
+        }
+
+        Map<PublicKey, Integer> accountIndices = new HashMap<>(keysList.size() * 2);
+        for (AccountMeta accountMeta : staticKeys) {
+            accountIndices.put(accountMeta.getPublicKey(), accountIndices.size());
+        }
+        for (PublicKey key : loadedWritable) {
+            accountIndices.put(key, accountIndices.size());
+        }
+        for (PublicKey key : loadedReadonly) {
+            accountIndices.put(key, accountIndices.size());
+        }
+        if (accountIndices.size() > MAX_ACCOUNT_INDEX + 1) {
+            throw new IllegalArgumentException("Too many accounts: " + accountIndices.size());
+        }
+
+        int numRequiredSignatures = 0;
+        int numReadonlySignedAccounts = 0;
+        int numReadonlyUnsignedAccounts = 0;
+        for (AccountMeta accountMeta : staticKeys) {
+            if (accountMeta.isSigner()) {
+                numRequiredSignatures++;
+                if (!accountMeta.isWritable()) {
+                    numReadonlySignedAccounts++;
+                }
+            } else if (!accountMeta.isWritable()) {
+                numReadonlyUnsignedAccounts++;
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(VERSION_PREFIX);
+        out.write(numRequiredSignatures);
+        out.write(numReadonlySignedAccounts);
+        out.write(numReadonlyUnsignedAccounts);
+
+        out.writeBytes(ShortvecEncoding.encodeLength(staticKeys.size()));
+        for (AccountMeta accountMeta : staticKeys) {
+            out.writeBytes(accountMeta.getPublicKey().toByteArray());
+        }
+
+        int blockhashOffset = out.size();
+        out.writeBytes(new byte[RECENT_BLOCK_HASH_LENGTH]);
+
+        out.writeBytes(ShortvecEncoding.encodeLength(instructions.size()));
+        for (TransactionInstruction instruction : instructions) {
+            out.write(accountIndices.get(instruction.getProgramId()));
+            out.writeBytes(ShortvecEncoding.encodeLength(instruction.getKeys().size()));
+            for (AccountMeta accountMeta : instruction.getKeys()) {
+                out.write(accountIndices.get(accountMeta.getPublicKey()));
+            }
+            out.writeBytes(ShortvecEncoding.encodeLength(instruction.getData().length));
+            out.writeBytes(instruction.getData());
+        }
+
+        out.writeBytes(ShortvecEncoding.encodeLength(tableLookups.size()));
+        for (TableLookup lookup : tableLookups) {
+            out.writeBytes(lookup.table.getKey().toByteArray());
+            out.writeBytes(ShortvecEncoding.encodeLength(lookup.writableIndexes.size()));
+            out.writeBytes(lookup.writableIndexes.toByteArray());
+            out.writeBytes(ShortvecEncoding.encodeLength(lookup.readonlyIndexes.size()));
+            out.writeBytes(lookup.readonlyIndexes.toByteArray());
+        }
+
+        setCompiled(out.toByteArray(), blockhashOffset);
+    }
+}
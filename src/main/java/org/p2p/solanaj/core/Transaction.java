@@ -1,10 +1,14 @@
 package org.p2p.solanaj.core;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.p2p.solanaj.utils.Base58;
 import org.p2p.solanaj.utils.ShortvecEncoding;
@@ -18,16 +22,29 @@ public class Transaction {
 
     public static final int SIGNATURE_LENGTH = 64;
 
+    /** Maximum size of a serialized transaction, the packet payload size the network accepts */
+    public static final int PACKET_DATA_SIZE = 1232;
+
     private final Message message;
-    private final List<String> signatures;
+    // Indexed by signer position in the message; null until that signer has signed
+    private byte[][] signatures = new byte[0][];
+    private String signature;
     private byte[] serializedMessage;
 
     /**
      * Constructs a new Transaction instance.
      */
     public Transaction() {
-        this.message = new Message();
-        this.signatures = new ArrayList<>(); // Use diamond operator
+        this(new Message());
+    }
+
+    /**
+     * Constructs a transaction around a message of another format.
+     *
+     * @param message The message to sign and serialize
+     */
+    protected Transaction(Message message) {
+        this.message = Objects.requireNonNull(message, "Message cannot be null");
     }
 
     /**
@@ -65,54 +82,339 @@ public class Transaction {
     }
 
     /**
-     * Signs the transaction with multiple signers.
+     * Signs the transaction with multiple signers. Signing again replaces the previous signatures. With more
+     * than one signer the signatures are computed in parallel on the common fork-join pool.
+     *
+     * The first signer becomes the fee payer, unless the transaction already has one and the first signer is
+     * another of its required signers. Then only the given signers' slots are filled and the message is left
+     * unchanged, which is how a {@link #deserialize deserialized} transaction is co-signed.
      *
-     * @param signers The list of accounts to sign the transaction
-     * @throws IllegalArgumentException if no signers are provided
+     * @param signers The list of accounts to sign the transaction, the fee payer first
+     * @throws IllegalArgumentException if no signers are provided or a signer is not a required signer
      */
     public void sign(List<Account> signers) {
+        sign(signers, signers != null && signers.size() > 1, false);
+    }
+
+    /**
+     * @param requiredOnly Whether signers the message does not require are skipped rather than rejected
+     * @return Which of the signers signed
+     */
+    private boolean[] sign(List<Account> signers, boolean parallel, boolean requiredOnly) {
         if (signers == null || signers.isEmpty()) {
             throw new IllegalArgumentException("No signers provided");
         }
 
         Account feePayer = signers.get(0);
-        message.setFeePayer(feePayer);
+        if (!message.hasFeePayer() || !message.isSigner(feePayer.getPublicKey())) {
+            message.setFeePayer(feePayer);
+        }
 
+        byte[] previousMessage = serializedMessage;
         serializedMessage = message.serialize();
 
-        for (Account signer : signers) {
-            try {
-                TweetNaclFast.Signature signatureProvider = new TweetNaclFast.Signature(new byte[0], signer.getSecretKey());
-                byte[] signature = signatureProvider.detached(serializedMessage);
-                signatures.add(Base58.encode(signature));
-            } catch (Exception e) {
-                throw new RuntimeException("Error signing transaction", e); // Improve exception handling
+        List<PublicKey> signerKeys = new ArrayList<>();
+        for (AccountMeta accountMeta : message.getAccountKeys()) {
+            if (!accountMeta.isSigner()) {
+                break;
             }
+            signerKeys.add(accountMeta.getPublicKey());
+        }
+        // Signatures of other signers stay valid as long as the message is unchanged
+        if (!Arrays.equals(previousMessage, serializedMessage) || signatures.length != signerKeys.size()) {
+            signatures = new byte[signerKeys.size()][];
         }
+        signature = null;
+
+        int[] positions = new int[signers.size()];
+        boolean[] signed = new boolean[signers.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = signerKeys.indexOf(signers.get(i).getPublicKey());
+            if (positions[i] < 0 && !requiredOnly) {
+                throw new IllegalArgumentException("Not a required signer: " + signers.get(i).getPublicKey());
+            }
+            signed[i] = positions[i] >= 0;
+        }
+
+        byte[] messageToSign = serializedMessage;
+        IntStream range = IntStream.range(0, positions.length).filter(i -> signed[i]);
+        (parallel ? range.parallel() : range).forEach(i ->
+                signatures[positions[i]] = signers.get(i).sign(messageToSign));
+        return signed;
     }
 
     /**
-     * Serializes the transaction into a byte array.
+     * Signs prepared transactions in bulk on the common fork-join pool.
      *
-     * @return The serialized transaction as a byte array
+     * @param transactions The transactions to sign
+     * @param signers The accounts signing the transactions, the fee payer first
+     * @throws IllegalArgumentException if a signer is not a required signer of any transaction
+     * @see #signAll(List, List, ForkJoinPool)
      */
-    public byte[] serialize() {
-        int signaturesSize = signatures.size();
-        byte[] signaturesLength = ShortvecEncoding.encodeLength(signaturesSize);
+    public static void signAll(List<? extends Transaction> transactions, List<Account> signers) {
+        signAll(transactions, signers, ForkJoinPool.commonPool());
+    }
 
-        // Calculate total size before allocating ByteBuffer
-        int totalSize = signaturesLength.length + signaturesSize * SIGNATURE_LENGTH + serializedMessage.length;
-        ByteBuffer out = ByteBuffer.allocate(totalSize);
+    /**
+     * Signs prepared transactions in bulk, one transaction per task. Each transaction is signed as by
+     * {@link #sign(List)}, except that its signers are handled sequentially since the transactions already
+     * keep the pool busy, and that each transaction is signed only by the signers its message requires.
+     * Transactions that need different co-signers, such as those from a {@link TransactionPacker}, can so be
+     * signed with one list.
+     *
+     * @param transactions The transactions to sign; each must be signed by no other thread meanwhile
+     * @param signers The accounts signing the transactions, the fee payer first
+     * @param pool The pool to sign on
+     * @throws IllegalArgumentException if a signer is not a required signer of any transaction
+     */
+    public static void signAll(List<? extends Transaction> transactions, List<Account> signers, ForkJoinPool pool) {
+        Objects.requireNonNull(transactions, "Transactions cannot be null");
+        Objects.requireNonNull(pool, "Pool cannot be null");
+        if (signers == null || signers.isEmpty()) {
+            throw new IllegalArgumentException("No signers provided");
+        }
+        boolean[] signed;
+        try {
+            signed = pool.submit(() -> transactions.parallelStream()
+                    .map((Transaction transaction) -> transaction.sign(signers, false, true))
+                    .reduce(new boolean[signers.size()], Transaction::union))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while signing transactions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error signing transactions", e.getCause());
+        }
+        for (int i = 0; i < signed.length && !transactions.isEmpty(); i++) {
+            if (!signed[i]) {
+                throw new IllegalArgumentException("Not a required signer of any transaction: "
+                        + signers.get(i).getPublicKey());
+            }
+        }
+    }
 
-        out.put(signaturesLength);
+    private static boolean[] union(boolean[] a, boolean[] b) {
+        boolean[] union = new boolean[a.length];
+        for (int i = 0; i < union.length; i++) {
+            union[i] = a[i] || b[i];
+        }
+        return union;
+    }
 
-        for (String signature : signatures) {
-            byte[] rawSignature = Base58.decode(signature);
-            out.put(rawSignature);
+    /**
+     * Checks every signature against the key of its signer and the message as it will be serialized.
+     *
+     * @return true if every required signer has signed and all signatures are valid
+     */
+    public boolean verifySignatures() {
+        if (serializedMessage == null || signatures.length == 0) {
+            return false;
+        }
+        ByteBuffer in = ByteBuffer.wrap(serializedMessage);
+        if ((in.get(0) & MessageV0.VERSION_PREFIX) != 0) {
+            in.get();
+        }
+        int numRequiredSignatures = in.get() & 0xff;
+        in.position(in.position() + 2);
+        int accountKeyCount = ShortvecEncoding.decodeLength(in);
+        if (numRequiredSignatures != signatures.length || accountKeyCount < numRequiredSignatures) {
+            return false;
+        }
+        for (int i = 0; i < numRequiredSignatures; i++) {
+            if (signatures[i] == null) {
+                return false;
+            }
+            byte[] signerKey = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+            in.get(signerKey);
+            if (!new TweetNaclFast.Signature(signerKey, new byte[0]).detached_verify(serializedMessage, signatures[i])) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        out.put(serializedMessage);
+    Message getMessage() {
+        return message;
+    }
 
+    /**
+     * Returns the transaction signature, which is the fee payer's signature and identifies the transaction.
+     *
+     * @return The Base58-encoded signature, or null if the transaction is not signed
+     */
+    public String getSignature() {
+        if (signature == null && signatures.length > 0 && signatures[0] != null) {
+            signature = Base58.encode(signatures[0]);
+        }
+        return signature;
+    }
+
+    /**
+     * Deserializes a transaction from its wire format, legacy or version 0.
+     *
+     * The message keeps its original bytes, so the transaction can be re-signed, or given a new blockhash,
+     * without changing anything else. A version 0 message that loads accounts from lookup tables cannot be
+     * recompiled, because the table contents are not part of the transaction; use {@link TransactionView}
+     * to inspect such a message.
+     *
+     * @param transaction The serialized transaction
+     * @return A {@link Transaction}, or a {@link VersionedTransaction} for a version 0 message
+     * @throws IllegalArgumentException if the bytes are not a transaction
+     */
+    public static Transaction deserialize(byte[] transaction) {
+        return deserialize(ByteBuffer.wrap(transaction));
+    }
+
+    /**
+     * Deserializes a transaction from the remaining bytes of a buffer.
+     *
+     * @param transaction The buffer holding the serialized transaction
+     * @return A {@link Transaction}, or a {@link VersionedTransaction} for a version 0 message
+     * @throws IllegalArgumentException if the bytes are not a transaction
+     * @see #deserialize(byte[])
+     */
+    public static Transaction deserialize(ByteBuffer transaction) {
+        TransactionView view = TransactionView.wrap(transaction);
+
+        int keyCount = view.getAccountKeyCount();
+        if (keyCount == 0) {
+            throw new IllegalArgumentException("Transaction without fee payer");
+        }
+        if (view.getNumRequiredSignatures() > keyCount) {
+            throw new IllegalArgumentException("More required signatures than account keys: "
+                    + view.getNumRequiredSignatures());
+        }
+        if (view.getSignatureCount() != view.getNumRequiredSignatures()) {
+            throw new IllegalArgumentException("Transaction has " + view.getSignatureCount()
+                    + " signatures but requires " + view.getNumRequiredSignatures());
+        }
+        List<AccountMeta> keys = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            keys.add(new AccountMeta(view.getAccountKey(i), view.isSigner(i), view.isWritable(i)));
+        }
+
+        boolean resolved = view.getLookupCount() == 0;
+        List<TransactionInstruction> instructions = new ArrayList<>();
+        for (int i = 0; i < view.getInstructionCount() && resolved; i++) {
+            List<AccountMeta> instructionKeys = new ArrayList<>();
+            for (int index : view.getInstructionAccountIndexes(i)) {
+                if (index >= keyCount) {
+                    throw new IllegalArgumentException("Account index out of range: " + index);
+                }
+                instructionKeys.add(keys.get(index));
+            }
+            ByteBuffer data = view.getInstructionData(i);
+            byte[] instructionData = new byte[data.remaining()];
+            data.get(instructionData);
+            int programIdIndex = view.getProgramIdIndex(i);
+            if (programIdIndex >= keyCount) {
+                throw new IllegalArgumentException("Program id index out of range: " + programIdIndex);
+            }
+            instructions.add(new TransactionInstruction(keys.get(programIdIndex).getPublicKey(),
+                    instructionKeys, instructionData));
+        }
+
+        ByteBuffer messageBuffer = view.getMessage();
+        byte[] messageBytes = new byte[messageBuffer.remaining()];
+        messageBuffer.get(messageBytes);
+
+        Transaction result;
+        if (view.isVersioned()) {
+            MessageV0 messageV0 = new MessageV0();
+            if (!resolved) {
+                messageV0.markUnresolvedLookups();
+            }
+            result = new VersionedTransaction(messageV0);
+        } else {
+            result = new Transaction();
+        }
+        result.message.restore(keys, instructions, view.getRecentBlockhash(), messageBytes,
+                view.getRecentBlockhashOffset() - view.getMessageOffset());
+        result.serializedMessage = messageBytes;
+
+        byte[][] signatures = new byte[view.getSignatureCount()][];
+        for (int i = 0; i < signatures.length; i++) {
+            signatures[i] = view.getSignatureBytes(i);
+        }
+        result.signatures = signatures;
+        return result;
+    }
+
+    /**
+     * Computes the serialized size of the transaction without serializing it. Until the transaction is
+     * signed, the fee payer is assumed as described for {@link Message#estimateSize()}.
+     *
+     * @return The size of the serialized transaction in bytes
+     */
+    public int estimateSize() {
+        int signerCount = getSignerCount();
+        return ShortvecEncoding.encodedLength(signerCount) + signerCount * SIGNATURE_LENGTH + message.estimateSize();
+    }
+
+    /**
+     * @return The number of signatures the transaction requires, the fee payer included
+     */
+    public int getSignerCount() {
+        return message.getSignerCount();
+    }
+
+    /**
+     * Serializes the transaction into a byte array. Signers that have not signed get an all-zero signature.
+     *
+     * @return The serialized transaction as a byte array
+     */
+    public byte[] serialize() {
+        ByteBuffer out = ByteBuffer.allocate(serializedLength());
+        serializeInto(out);
         return out.array();
     }
+
+    /**
+     * Returns the size of the serialized transaction.
+     *
+     * @return The number of bytes {@link #serializeInto} writes
+     * @throws IllegalStateException if the transaction has not been signed
+     */
+    public int serializedLength() {
+        checkSigned();
+        return ShortvecEncoding.encodedLength(signatures.length) + signatures.length * SIGNATURE_LENGTH
+                + serializedMessage.length;
+    }
+
+    /**
+     * Writes the serialized transaction at the buffer's position and advances past it, so callers can
+     * serialize into pooled or direct buffers without an intermediate array. Signers that have not signed
+     * get an all-zero signature.
+     *
+     * @param out The buffer to write to, with at least {@link #serializedLength()} bytes remaining
+     * @throws IllegalStateException if the transaction has not been signed
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void serializeInto(ByteBuffer out) {
+        checkSigned();
+        if (out.remaining() < serializedLength()) {
+            throw new BufferOverflowException();
+        }
+        out.put(ShortvecEncoding.encodeLength(signatures.length));
+        for (byte[] rawSignature : signatures) {
+            if (rawSignature != null) {
+                out.put(rawSignature);
+            } else {
+                // The buffer may be reused, so missing signatures are written out
+                for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                    out.put((byte) 0);
+                }
+            }
+        }
+        out.put(serializedMessage);
+    }
+
+    private void checkSigned() {
+        if (serializedMessage == null) {
+            throw new IllegalStateException("Transaction is not signed");
+        }
+    }
 }
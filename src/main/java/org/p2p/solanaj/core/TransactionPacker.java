@@ -0,0 +1,227 @@
+package org.p2p.solanaj.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.p2p.solanaj.programs.ComputeBudgetProgram;
+import org.p2p.solanaj.utils.ShortvecEncoding;
+
+/**
+ * Packs independent instructions into as few legacy transactions as fit the packet size limit.
+ *
+ * Instructions are added in order to the current transaction while it still fits, and a new transaction is
+ * started when the next one would not. The serialized size is tracked incrementally: each instruction adds
+ * the accounts the transaction does not reference yet, a signature for each new signer, its own compiled
+ * bytes and the growth of the shortvec lengths, so nothing is serialized while packing. Instructions
+ * passed as a group always land in the same transaction.
+ *
+ * The packed transactions are unsigned and have no recent blockhash; set one and sign them, for example
+ * with {@link Transaction#signAll}. Each transaction requires only the signers its own instructions name,
+ * and signAll skips the others, so every transaction can be given the packer's full signer list.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * List<Transaction> transactions = new TransactionPacker(payer.getPublicKey(), List.of(coSigner.getPublicKey()))
+ *         .setComputeBudget(200_000, 1_000)
+ *         .pack(transfers);
+ * transactions.forEach(transaction -> transaction.setRecentBlockHash(blockhash));
+ * Transaction.signAll(transactions, List.of(payer, coSigner));
+ * }</pre>
+ */
+public class TransactionPacker {
+
+    private static final int HEADER_LENGTH = 3;
+
+    private final PublicKey feePayer;
+    private final Set<PublicKey> signers;
+    private final List<TransactionInstruction> prefix = new ArrayList<>();
+
+    /**
+     * Constructs a packer whose instructions are signed by the fee payer alone.
+     *
+     * @param feePayer The fee payer of every packed transaction
+     */
+    public TransactionPacker(PublicKey feePayer) {
+        this(feePayer, List.of());
+    }
+
+    /**
+     * Constructs a packer for instructions that may also require other signers.
+     *
+     * @param feePayer The fee payer of every packed transaction
+     * @param signers The other keys instructions may require signatures from
+     */
+    public TransactionPacker(PublicKey feePayer, Collection<PublicKey> signers) {
+        this.feePayer = Objects.requireNonNull(feePayer, "Fee payer cannot be null");
+        this.signers = new HashSet<>(signers);
+        this.signers.add(feePayer);
+    }
+
+    /**
+     * Prepends compute-budget instructions to every packed transaction.
+     *
+     * @param unitLimit The compute unit limit of each transaction
+     * @param microLamports The compute unit price in micro-lamports, or 0 to leave the price unset
+     * @return This packer for method chaining
+     */
+    public TransactionPacker setComputeBudget(int unitLimit, int microLamports) {
+        prefix.clear();
+        prefix.add(ComputeBudgetProgram.setComputeUnitLimit(unitLimit));
+        if (microLamports > 0) {
+            prefix.add(ComputeBudgetProgram.setComputeUnitPrice(microLamports));
+        }
+        return this;
+    }
+
+    /**
+     * Packs instructions that may each go into any transaction.
+     *
+     * @param instructions The instructions, in order
+     * @return The packed transactions
+     * @throws IllegalArgumentException if an instruction does not fit an otherwise empty transaction, or
+     *                                  requires an unknown signer
+     */
+    public List<Transaction> pack(Iterable<TransactionInstruction> instructions) {
+        List<Transaction> transactions = new ArrayList<>();
+        Batch batch = new Batch();
+        for (TransactionInstruction instruction : instructions) {
+            batch = add(batch, List.of(instruction), transactions::add);
+        }
+        batch.emit(transactions::add);
+        return transactions;
+    }
+
+    /**
+     * Packs groups of instructions, keeping the instructions of each group together and in order.
+     *
+     * @param groups The groups, in order
+     * @return The packed transactions
+     * @throws IllegalArgumentException if a group does not fit an otherwise empty transaction, or requires
+     *                                  an unknown signer
+     */
+    public List<Transaction> packGroups(Iterable<? extends List<TransactionInstruction>> groups) {
+        List<Transaction> transactions = new ArrayList<>();
+        packGroups(groups, transactions::add);
+        return transactions;
+    }
+
+    /**
+     * Packs groups of instructions, handing each transaction to the sink as soon as it is full, so a long
+     * stream of instructions can be sent while it is still being packed.
+     *
+     * @param groups The groups, in order
+     * @param sink Receives the packed transactions in order
+     * @throws IllegalArgumentException if a group does not fit an otherwise empty transaction, or requires
+     *                                  an unknown signer
+     */
+    public void packGroups(Iterable<? extends List<TransactionInstruction>> groups, Consumer<? super Transaction> sink) {
+        Batch batch = new Batch();
+        for (List<TransactionInstruction> group : groups) {
+            batch = add(batch, group, sink);
+        }
+        batch.emit(sink);
+    }
+
+    private Batch add(Batch batch, List<TransactionInstruction> group, Consumer<? super Transaction> sink) {
+        if (group.isEmpty() || batch.tryAdd(group)) {
+            return batch;
+        }
+        if (batch.isEmpty()) {
+            throw new IllegalArgumentException("Instructions do not fit in a single transaction: " + group);
+        }
+        batch.emit(sink);
+        Batch next = new Batch();
+        if (!next.tryAdd(group)) {
+            throw new IllegalArgumentException("Instructions do not fit in a single transaction: " + group);
+        }
+        return next;
+    }
+
+    /**
+     * The transaction being filled, with the parts of its serialized size that change as instructions are added.
+     */
+    private class Batch {
+        final Set<PublicKey> accounts = new HashSet<>();
+        final Set<PublicKey> signatures = new HashSet<>();
+        final List<TransactionInstruction> instructions = new ArrayList<>();
+        int instructionBytes;
+
+        Batch() {
+            accounts.add(feePayer);
+            signatures.add(feePayer);
+            for (TransactionInstruction instruction : prefix) {
+                addTo(instruction, accounts, signatures);
+                instructionBytes += instructionLength(instruction);
+                instructions.add(instruction);
+            }
+        }
+
+        boolean isEmpty() {
+            return instructions.size() == prefix.size();
+        }
+
+        boolean tryAdd(List<TransactionInstruction> group) {
+            Set<PublicKey> newAccounts = new HashSet<>();
+            Set<PublicKey> newSignatures = new HashSet<>();
+            int newInstructionBytes = 0;
+            for (TransactionInstruction instruction : group) {
+                for (AccountMeta accountMeta : instruction.getKeys()) {
+                    if (accountMeta.isSigner() && !signers.contains(accountMeta.getPublicKey())) {
+                        throw new IllegalArgumentException("Unknown signer: " + accountMeta.getPublicKey());
+                    }
+                }
+                addTo(instruction, newAccounts, newSignatures);
+                newInstructionBytes += instructionLength(instruction);
+            }
+            newAccounts.removeAll(accounts);
+            newSignatures.removeAll(signatures);
+
+            int size = size(signatures.size() + newSignatures.size(), accounts.size() + newAccounts.size(),
+                    instructions.size() + group.size(), instructionBytes + newInstructionBytes);
+            if (size > Transaction.PACKET_DATA_SIZE) {
+                return false;
+            }
+            accounts.addAll(newAccounts);
+            signatures.addAll(newSignatures);
+            instructions.addAll(group);
+            instructionBytes += newInstructionBytes;
+            return true;
+        }
+
+        void emit(Consumer<? super Transaction> sink) {
+            if (isEmpty()) {
+                return;
+            }
+            Transaction transaction = new Transaction();
+            instructions.forEach(transaction::addInstruction);
+            sink.accept(transaction);
+        }
+    }
+
+    private static void addTo(TransactionInstruction instruction, Set<PublicKey> accounts, Set<PublicKey> signatures) {
+        accounts.add(instruction.getProgramId());
+        for (AccountMeta accountMeta : instruction.getKeys()) {
+            accounts.add(accountMeta.getPublicKey());
+            if (accountMeta.isSigner()) {
+                signatures.add(accountMeta.getPublicKey());
+            }
+        }
+    }
+
+    private static int instructionLength(TransactionInstruction instruction) {
+        int keys = instruction.getKeys().size();
+        int data = instruction.getData().length;
+        return 1 + ShortvecEncoding.encodedLength(keys) + keys + ShortvecEncoding.encodedLength(data) + data;
+    }
+
+    private static int size(int signatureCount, int accountCount, int instructionCount, int instructionBytes) {
+        return ShortvecEncoding.encodedLength(signatureCount) + signatureCount * Transaction.SIGNATURE_LENGTH
+                + HEADER_LENGTH + ShortvecEncoding.encodedLength(accountCount) + accountCount * PublicKey.PUBLIC_KEY_LENGTH
+                + Message.RECENT_BLOCK_HASH_LENGTH + ShortvecEncoding.encodedLength(instructionCount) + instructionBytes;
+    }
+}
@@ -0,0 +1,269 @@
+package org.p2p.solanaj.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.p2p.solanaj.utils.Base58;
+import org.p2p.solanaj.utils.ShortvecEncoding;
+
+/**
+ * A transaction compiled once and then sent many times with small changes.
+ *
+ * The template keeps the serialized transaction in a buffer and exposes the fields that can change without
+ * recompiling: the recent blockhash, the static account keys that are not signers, and bytes inside
+ * instruction data. The accounts that can be replaced are those that neither sign nor are invoked as programs.
+ * Patching writes straight into the buffer, and {@link #sign(List)} signs the message in
+ * place, so a steady-state send allocates only the returned payload. Changing an instruction's shape, such
+ * as its accounts or data length, needs a new template.
+ *
+ * A template is not thread-safe; use one per sending thread.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * TransactionTemplate template = new TransactionTemplate(new Transaction()
+ *         .addInstruction(SystemProgram.transfer(payer.getPublicKey(), recipient, 0)), payer);
+ * for (long amount : amounts) {
+ *     template.setRecentBlockhash(blockhash);
+ *     template.putLong(0, 4, amount);
+ *     String encoded = Base64.getEncoder().encodeToString(template.sign(payer));
+ *     rpcClient.getApi().sendRawTransaction(encoded, sendConfig);
+ * }
+ * }</pre>
+ */
+public final class TransactionTemplate {
+
+    private final byte[] transaction;
+    private final int signaturesOffset;
+    private final int signatureCount;
+    private final int messageOffset;
+    private final int recentBlockhashOffset;
+    private final int accountKeyCount;
+    private final int[] accountKeyOffsets;
+    private final boolean[] programAccounts;
+    private final int[] instructionDataOffsets;
+    private final int[] instructionDataLengths;
+
+    /**
+     * Compiles a template from a transaction. The transaction's recent blockhash, if set, becomes the initial
+     * blockhash of the template. The template compiles a copy of the transaction's message, so the transaction
+     * itself is left unchanged and later changes to it do not affect the template.
+     *
+     * @param transaction The transaction whose instructions the template sends
+     * @param feePayer The fee payer, which signs first
+     * @throws IllegalArgumentException if the transaction has no instructions
+     */
+    public TransactionTemplate(Transaction transaction, Account feePayer) {
+        Objects.requireNonNull(transaction, "Transaction cannot be null");
+        Objects.requireNonNull(feePayer, "Fee payer cannot be null");
+        Message message = transaction.getMessage().copy();
+        message.setFeePayer(feePayer);
+        byte[] serializedMessage = message.serializeTemplate();
+
+        int count = 0;
+        for (AccountMeta accountMeta : message.getAccountKeys()) {
+            if (accountMeta.isSigner()) {
+                count++;
+            }
+        }
+        byte[] signaturesLength = ShortvecEncoding.encodeLength(count);
+        this.transaction = new byte[signaturesLength.length + count * Transaction.SIGNATURE_LENGTH + serializedMessage.length];
+        System.arraycopy(signaturesLength, 0, this.transaction, 0, signaturesLength.length);
+        System.arraycopy(serializedMessage, 0, this.transaction, this.transaction.length - serializedMessage.length,
+                serializedMessage.length);
+
+        TransactionView view = TransactionView.wrap(this.transaction);
+        signaturesOffset = signaturesLength.length;
+        signatureCount = view.getSignatureCount();
+        messageOffset = view.getMessageOffset();
+        recentBlockhashOffset = view.getRecentBlockhashOffset();
+        accountKeyCount = view.getAccountKeyCount();
+        accountKeyOffsets = new int[accountKeyCount];
+        for (int i = 0; i < accountKeyCount; i++) {
+            accountKeyOffsets[i] = view.getAccountKeyOffset(i);
+        }
+        int instructionCount = view.getInstructionCount();
+        programAccounts = new boolean[accountKeyCount];
+        instructionDataOffsets = new int[instructionCount];
+        instructionDataLengths = new int[instructionCount];
+        for (int i = 0; i < instructionCount; i++) {
+            programAccounts[view.getProgramIdIndex(i)] = true;
+            instructionDataOffsets[i] = view.getInstructionDataOffset(i);
+            instructionDataLengths[i] = view.getInstructionData(i).remaining();
+        }
+    }
+
+    /**
+     * Sets the recent blockhash.
+     *
+     * @param recentBlockhash The Base58-encoded blockhash
+     */
+    public void setRecentBlockhash(String recentBlockhash) {
+        Objects.requireNonNull(recentBlockhash, "Recent blockhash cannot be null");
+        setRecentBlockhash(Base58.decode(recentBlockhash));
+    }
+
+    /**
+     * Sets the recent blockhash from its raw bytes.
+     *
+     * @param recentBlockhash The 32-byte blockhash
+     */
+    public void setRecentBlockhash(byte[] recentBlockhash) {
+        if (recentBlockhash.length != Message.RECENT_BLOCK_HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid recentBlockhash length: " + recentBlockhash.length);
+        }
+        System.arraycopy(recentBlockhash, 0, transaction, recentBlockhashOffset, Message.RECENT_BLOCK_HASH_LENGTH);
+    }
+
+    /**
+     * @return The number of account keys stored in the message
+     */
+    public int getAccountKeyCount() {
+        return accountKeyCount;
+    }
+
+    /**
+     * Finds the slot of an account key, for use with {@link #setAccount}.
+     *
+     * @param key The account key
+     * @return The index of the key in the message, or -1 if the message does not store it
+     */
+    public int indexOfAccount(PublicKey key) {
+        byte[] bytes = key.toByteArray();
+        for (int i = 0; i < accountKeyCount; i++) {
+            if (Arrays.equals(transaction, accountKeyOffsets[i], accountKeyOffsets[i] + PublicKey.PUBLIC_KEY_LENGTH,
+                    bytes, 0, PublicKey.PUBLIC_KEY_LENGTH)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces the account key in a slot. The new account takes over the slot's role, including its
+     * writability and every instruction position that refers to it.
+     *
+     * @param index The slot, as returned by {@link #indexOfAccount}
+     * @param key The new account key
+     * @throws IllegalArgumentException if the slot belongs to a signer or a program, or the key is already
+     *                                  stored in another slot
+     */
+    public void setAccount(int index, PublicKey key) {
+        Objects.checkIndex(index, accountKeyCount);
+        if (index < signatureCount) {
+            throw new IllegalArgumentException("Cannot replace signer account at index " + index);
+        }
+        if (programAccounts[index]) {
+            throw new IllegalArgumentException("Cannot replace program account at index " + index);
+        }
+        int existing = indexOfAccount(key);
+        if (existing >= 0 && existing != index) {
+            throw new IllegalArgumentException("Account " + key + " already stored at index " + existing);
+        }
+        System.arraycopy(key.toByteArray(), 0, transaction, accountKeyOffsets[index], PublicKey.PUBLIC_KEY_LENGTH);
+    }
+
+    public int getInstructionCount() {
+        return instructionDataOffsets.length;
+    }
+
+    /**
+     * @param instruction The instruction position
+     * @return The length of the instruction data, which patches must stay within
+     */
+    public int getInstructionDataLength(int instruction) {
+        return instructionDataLengths[Objects.checkIndex(instruction, instructionDataOffsets.length)];
+    }
+
+    /**
+     * Writes a little-endian u64 into instruction data, such as a lamport or token amount.
+     *
+     * @param instruction The instruction position
+     * @param offset The offset within the instruction data
+     * @param value The value
+     */
+    public void putLong(int instruction, int offset, long value) {
+        int position = dataPosition(instruction, offset, Long.BYTES);
+        for (int i = 0; i < Long.BYTES; i++) {
+            transaction[position + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    /**
+     * Writes a little-endian u32 into instruction data.
+     *
+     * @param instruction The instruction position
+     * @param offset The offset within the instruction data
+     * @param value The value
+     */
+    public void putInt(int instruction, int offset, int value) {
+        int position = dataPosition(instruction, offset, Integer.BYTES);
+        for (int i = 0; i < Integer.BYTES; i++) {
+            transaction[position + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    /**
+     * Copies bytes into instruction data.
+     *
+     * @param instruction The instruction position
+     * @param offset The offset within the instruction data
+     * @param value The bytes to write
+     */
+    public void putBytes(int instruction, int offset, byte[] value) {
+        System.arraycopy(value, 0, transaction, dataPosition(instruction, offset, value.length), value.length);
+    }
+
+    private int dataPosition(int instruction, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, getInstructionDataLength(instruction));
+        return instructionDataOffsets[instruction] + offset;
+    }
+
+    /**
+     * Signs the current state of the template with a single signer.
+     *
+     * @param signer The fee payer
+     * @return The serialized transaction
+     * @see #sign(List)
+     */
+    public byte[] sign(Account signer) {
+        return sign(List.of(Objects.requireNonNull(signer, "Signer cannot be null")));
+    }
+
+    /**
+     * Signs the current state of the template. Every signature is replaced: required signers missing from
+     * the list get an all-zero signature, as in {@link Transaction#serialize()}.
+     *
+     * @param signers The signing accounts, in any order
+     * @return The serialized transaction
+     * @throws IllegalArgumentException if a signer is not a required signer
+     */
+    public byte[] sign(List<Account> signers) {
+        if (signers == null || signers.isEmpty()) {
+            throw new IllegalArgumentException("No signers provided");
+        }
+        Arrays.fill(transaction, signaturesOffset, messageOffset, (byte) 0);
+        int messageLength = transaction.length - messageOffset;
+        for (Account signer : signers) {
+            byte[] secretKey = signer.getSecretKey();
+            int position = signerPosition(secretKey);
+            if (position < 0) {
+                throw new IllegalArgumentException("Not a required signer: " + signer.getPublicKey());
+            }
+            signer.sign(transaction, messageOffset, messageLength, transaction,
+                    signaturesOffset + position * Transaction.SIGNATURE_LENGTH);
+        }
+        return transaction.clone();
+    }
+
+    // The public key is the second half of a TweetNacl secret key, so no PublicKey is created to find the slot
+    private int signerPosition(byte[] secretKey) {
+        for (int i = 0; i < signatureCount; i++) {
+            if (Arrays.equals(transaction, accountKeyOffsets[i], accountKeyOffsets[i] + PublicKey.PUBLIC_KEY_LENGTH,
+                    secretKey, PublicKey.PUBLIC_KEY_LENGTH, 2 * PublicKey.PUBLIC_KEY_LENGTH)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,343 @@
+package org.p2p.solanaj.core;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import org.p2p.solanaj.utils.Base58;
+import org.p2p.solanaj.utils.ShortvecEncoding;
+
+/**
+ * A read-only view of a transaction in wire format, legacy or version 0.
+ *
+ * Wrapping a transaction records where each section starts, without copying anything. Fields are read from
+ * the underlying buffer when they are asked for: keys, signatures and index arrays are copied out at that
+ * point, while the message and instruction data are returned as read-only slices of the buffer.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * TransactionView view = TransactionView.wrap(Base64.getDecoder().decode(encoded));
+ * PublicKey feePayer = view.getAccountKey(0);
+ * for (int i = 0; i < view.getInstructionCount(); i++) {
+ *     PublicKey programId = view.getAccountKey(view.getProgramIdIndex(i));
+ * }
+ * }</pre>
+ */
+public final class TransactionView {
+
+    private static final int INSTRUCTION_STRIDE = 5;
+    private static final int LOOKUP_STRIDE = 5;
+    // The smallest encodings: a program ID index and two empty vectors; a table key and two empty vectors
+    private static final int MIN_INSTRUCTION_LENGTH = 3;
+    private static final int MIN_LOOKUP_LENGTH = PublicKey.PUBLIC_KEY_LENGTH + 2;
+
+    private final ByteBuffer buffer;
+    private final int signatureCount;
+    private final int signaturesOffset;
+    private final int messageOffset;
+    private final int version;
+    private final int headerOffset;
+    private final int accountKeyCount;
+    private final int accountKeysOffset;
+    private final int recentBlockhashOffset;
+    // Per instruction: program ID index offset, account index offset, account count, data offset, data length
+    private final int[] instructions;
+    // Per lookup: table key offset, writable index offset, writable count, readonly index offset, readonly count
+    private final int[] lookups;
+
+    private TransactionView(ByteBuffer buffer) {
+        this.buffer = buffer;
+        ByteBuffer in = buffer.duplicate();
+
+        signatureCount = ShortvecEncoding.decodeLength(in);
+        signaturesOffset = in.position();
+        skip(in, signatureCount * Transaction.SIGNATURE_LENGTH);
+
+        messageOffset = in.position();
+        int prefix = in.get(messageOffset) & 0xff;
+        if ((prefix & MessageV0.VERSION_PREFIX) != 0) {
+            version = prefix & ~MessageV0.VERSION_PREFIX;
+            if (version != 0) {
+                throw new IllegalArgumentException("Unsupported transaction version: " + version);
+            }
+            in.get();
+        } else {
+            version = -1;
+        }
+
+        headerOffset = in.position();
+        skip(in, 3);
+        accountKeyCount = ShortvecEncoding.decodeLength(in);
+        accountKeysOffset = in.position();
+        skip(in, accountKeyCount * PublicKey.PUBLIC_KEY_LENGTH);
+        recentBlockhashOffset = in.position();
+        skip(in, Message.RECENT_BLOCK_HASH_LENGTH);
+
+        int instructionCount = ShortvecEncoding.decodeLength(in);
+        checkCount(in, instructionCount, MIN_INSTRUCTION_LENGTH);
+        instructions = new int[instructionCount * INSTRUCTION_STRIDE];
+        for (int i = 0; i < instructionCount; i++) {
+            int base = i * INSTRUCTION_STRIDE;
+            instructions[base] = in.position();
+            in.get();
+            instructions[base + 2] = ShortvecEncoding.decodeLength(in);
+            instructions[base + 1] = in.position();
+            skip(in, instructions[base + 2]);
+            instructions[base + 4] = ShortvecEncoding.decodeLength(in);
+            instructions[base + 3] = in.position();
+            skip(in, instructions[base + 4]);
+        }
+
+        if (version >= 0) {
+            int lookupCount = ShortvecEncoding.decodeLength(in);
+            checkCount(in, lookupCount, MIN_LOOKUP_LENGTH);
+            lookups = new int[lookupCount * LOOKUP_STRIDE];
+            for (int i = 0; i < lookupCount; i++) {
+                int base = i * LOOKUP_STRIDE;
+                lookups[base] = in.position();
+                skip(in, PublicKey.PUBLIC_KEY_LENGTH);
+                lookups[base + 2] = ShortvecEncoding.decodeLength(in);
+                lookups[base + 1] = in.position();
+                skip(in, lookups[base + 2]);
+                lookups[base + 4] = ShortvecEncoding.decodeLength(in);
+                lookups[base + 3] = in.position();
+                skip(in, lookups[base + 4]);
+            }
+        } else {
+            lookups = new int[0];
+        }
+
+        if (in.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected " + in.remaining() + " bytes after the transaction");
+        }
+    }
+
+    /**
+     * Wraps a serialized transaction.
+     *
+     * @param transaction The serialized transaction
+     * @return The view
+     * @throws IllegalArgumentException if the bytes are not a transaction
+     */
+    public static TransactionView wrap(byte[] transaction) {
+        return wrap(ByteBuffer.wrap(transaction));
+    }
+
+    /**
+     * Wraps the remaining bytes of a buffer, which must hold exactly one serialized transaction. The buffer's
+     * position is not changed; the view reads the bytes as they are when a field is asked for.
+     *
+     * @param transaction The buffer holding the serialized transaction
+     * @return The view
+     * @throws IllegalArgumentException if the bytes are not a transaction
+     */
+    public static TransactionView wrap(ByteBuffer transaction) {
+        try {
+            return new TransactionView(transaction.slice());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Truncated transaction", ex);
+        }
+    }
+
+    // Rejects a count the remaining bytes cannot hold before anything is allocated for it
+    private static void checkCount(ByteBuffer in, int count, int minLength) {
+        if ((long) count * minLength > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    private static void skip(ByteBuffer in, int length) {
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        in.position(in.position() + length);
+    }
+
+    /**
+     * @return The message version, or -1 for a legacy message
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public boolean isVersioned() {
+        return version >= 0;
+    }
+
+    public int getSignatureCount() {
+        return signatureCount;
+    }
+
+    /**
+     * @param index The signer position
+     * @return A copy of the signature at the position
+     */
+    public byte[] getSignatureBytes(int index) {
+        return copy(signaturesOffset + checkIndex(index, signatureCount) * Transaction.SIGNATURE_LENGTH, Transaction.SIGNATURE_LENGTH);
+    }
+
+    /**
+     * @return The Base58-encoded signature of the fee payer, which identifies the transaction
+     */
+    public String getSignature() {
+        return Base58.encode(getSignatureBytes(0));
+    }
+
+    /**
+     * @return The serialized message, as signed by the signers, as a read-only slice of the buffer
+     */
+    public ByteBuffer getMessage() {
+        return slice(messageOffset, buffer.limit() - messageOffset);
+    }
+
+    int getMessageOffset() {
+        return messageOffset;
+    }
+
+    int getRecentBlockhashOffset() {
+        return recentBlockhashOffset;
+    }
+
+    public int getNumRequiredSignatures() {
+        return buffer.get(headerOffset) & 0xff;
+    }
+
+    public int getNumReadonlySignedAccounts() {
+        return buffer.get(headerOffset + 1) & 0xff;
+    }
+
+    public int getNumReadonlyUnsignedAccounts() {
+        return buffer.get(headerOffset + 2) & 0xff;
+    }
+
+    /**
+     * @return The number of account keys stored in the message, not counting those loaded from lookup tables
+     */
+    public int getAccountKeyCount() {
+        return accountKeyCount;
+    }
+
+    public PublicKey getAccountKey(int index) {
+        return new PublicKey(copy(getAccountKeyOffset(index), PublicKey.PUBLIC_KEY_LENGTH));
+    }
+
+    int getAccountKeyOffset(int index) {
+        return accountKeysOffset + checkIndex(index, accountKeyCount) * PublicKey.PUBLIC_KEY_LENGTH;
+    }
+
+    /**
+     * @param index The index of an account key stored in the message
+     * @return Whether the account must sign
+     */
+    public boolean isSigner(int index) {
+        return checkIndex(index, accountKeyCount) < getNumRequiredSignatures();
+    }
+
+    /**
+     * @param index The index of an account key stored in the message
+     * @return Whether the account is writable
+     */
+    public boolean isWritable(int index) {
+        int numRequiredSignatures = getNumRequiredSignatures();
+        if (checkIndex(index, accountKeyCount) < numRequiredSignatures) {
+            return index < numRequiredSignatures - getNumReadonlySignedAccounts();
+        }
+        return index < accountKeyCount - getNumReadonlyUnsignedAccounts();
+    }
+
+    public String getRecentBlockhash() {
+        return Base58.encode(copy(recentBlockhashOffset, Message.RECENT_BLOCK_HASH_LENGTH));
+    }
+
+    public int getInstructionCount() {
+        return instructions.length / INSTRUCTION_STRIDE;
+    }
+
+    /**
+     * @param instruction The instruction position
+     * @return The account index of the instruction's program
+     */
+    public int getProgramIdIndex(int instruction) {
+        return buffer.get(instructions[instructionBase(instruction)]) & 0xff;
+    }
+
+    /**
+     * @param instruction The instruction position
+     * @return The account indices the instruction passes to its program, in order
+     */
+    public int[] getInstructionAccountIndexes(int instruction) {
+        int base = instructionBase(instruction);
+        return readIndexes(instructions[base + 1], instructions[base + 2]);
+    }
+
+    /**
+     * @param instruction The instruction position
+     * @return The instruction data as a read-only slice of the buffer
+     */
+    public ByteBuffer getInstructionData(int instruction) {
+        int base = instructionBase(instruction);
+        return slice(instructions[base + 3], instructions[base + 4]);
+    }
+
+    int getInstructionDataOffset(int instruction) {
+        return instructions[instructionBase(instruction) + 3];
+    }
+
+    public int getLookupCount() {
+        return lookups.length / LOOKUP_STRIDE;
+    }
+
+    public PublicKey getLookupTableKey(int lookup) {
+        return new PublicKey(copy(lookups[lookupBase(lookup)], PublicKey.PUBLIC_KEY_LENGTH));
+    }
+
+    /**
+     * @param lookup The lookup position
+     * @return The indices of the writable accounts loaded from the table
+     */
+    public int[] getLookupWritableIndexes(int lookup) {
+        int base = lookupBase(lookup);
+        return readIndexes(lookups[base + 1], lookups[base + 2]);
+    }
+
+    /**
+     * @param lookup The lookup position
+     * @return The indices of the readonly accounts loaded from the table
+     */
+    public int[] getLookupReadonlyIndexes(int lookup) {
+        int base = lookupBase(lookup);
+        return readIndexes(lookups[base + 3], lookups[base + 4]);
+    }
+
+    private int instructionBase(int instruction) {
+        return checkIndex(instruction, getInstructionCount()) * INSTRUCTION_STRIDE;
+    }
+
+    private int lookupBase(int lookup) {
+        return checkIndex(lookup, getLookupCount()) * LOOKUP_STRIDE;
+    }
+
+    private static int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return index;
+    }
+
+    private int[] readIndexes(int offset, int count) {
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[i] = buffer.get(offset + i) & 0xff;
+        }
+        return indexes;
+    }
+
+    private byte[] copy(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+
+    private ByteBuffer slice(int offset, int length) {
+        return buffer.slice(offset, length).asReadOnlyBuffer();
+    }
+}
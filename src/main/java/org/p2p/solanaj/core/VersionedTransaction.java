@@ -0,0 +1,48 @@
+package org.p2p.solanaj.core;
+
+/**
+ * A transaction carrying a version 0 message, which loads accounts from address lookup tables.
+ *
+ * It is built, signed and sent like a {@link Transaction}; the RpcApi send methods accept it as is.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * VersionedTransaction transaction = new VersionedTransaction();
+ * transaction.addLookupTable(rpcApi.getAddressLookupTable(lookupTableKey));
+ * transaction.addInstruction(swapInstruction);
+ * String signature = rpcApi.sendTransaction(transaction, List.of(payer), null);
+ * }</pre>
+ */
+public class VersionedTransaction extends Transaction {
+
+    private final MessageV0 message;
+
+    /**
+     * Constructs a new VersionedTransaction instance.
+     */
+    public VersionedTransaction() {
+        this(new MessageV0());
+    }
+
+    VersionedTransaction(MessageV0 message) {
+        super(message);
+        this.message = message;
+    }
+
+    /**
+     * Adds a lookup table the transaction may load accounts from.
+     *
+     * @param lookupTable The resolved lookup table
+     * @return This transaction for method chaining
+     */
+    public VersionedTransaction addLookupTable(AddressLookupTableAccount lookupTable) {
+        message.addLookupTable(lookupTable);
+        return this;
+    }
+
+    @Override
+    public VersionedTransaction addInstruction(TransactionInstruction instruction) {
+        super.addInstruction(instruction);
+        return this;
+    }
+}
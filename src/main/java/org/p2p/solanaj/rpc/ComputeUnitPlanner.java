@@ -0,0 +1,194 @@
+package org.p2p.solanaj.rpc;
+
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.core.TransactionInstruction;
+import org.p2p.solanaj.programs.ComputeBudgetProgram;
+import org.p2p.solanaj.rpc.types.SimulatedTransaction;
+
+/**
+ * Sizes the compute unit limit of transactions from a simulation, so they do not pay priority fees for
+ * units they never use.
+ *
+ * The instructions are simulated under the maximum limit, and the units they consumed plus a safety margin
+ * become the limit. Transactions sent repeatedly with the same shape can share one simulation through a
+ * template key. The planner remembers at most {@link #DEFAULT_MAX_TEMPLATES} templates unless given another
+ * limit, and forgets arbitrary ones beyond it, so keys should name shapes rather than single transactions.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * ComputeUnitPlanner planner = new ComputeUnitPlanner(rpcClient);
+ * Transaction transaction = new Transaction();
+ * transaction.addInstruction(planner.plan("payout", instructions, payer));
+ * instructions.forEach(transaction::addInstruction);
+ * }</pre>
+ */
+public class ComputeUnitPlanner {
+
+    /** The highest compute unit limit a transaction can request */
+    public static final int MAX_COMPUTE_UNITS = 1_400_000;
+
+    /** The default margin added to the simulated units, as a fraction of them */
+    public static final double DEFAULT_MARGIN = 0.1;
+
+    /** The default number of templates whose units are remembered */
+    public static final int DEFAULT_MAX_TEMPLATES = 1024;
+
+    // Simulation replaces the blockhash, so any well-formed one will do
+    private static final String PLACEHOLDER_BLOCKHASH = "11111111111111111111111111111111";
+
+    private final RpcClient client;
+    private final double margin;
+    private final int maxTemplates;
+    // A template's simulation is cached while it runs, so concurrent plans wait for it without holding a map lock
+    private final Map<Object, CompletableFuture<Integer>> templateUnits = new ConcurrentHashMap<>();
+
+    public ComputeUnitPlanner(RpcClient client) {
+        this(client, DEFAULT_MARGIN);
+    }
+
+    /**
+     * @param client The client to simulate with
+     * @param margin The fraction of the simulated units to add as a safety margin
+     */
+    public ComputeUnitPlanner(RpcClient client, double margin) {
+        this(client, margin, DEFAULT_MAX_TEMPLATES);
+    }
+
+    /**
+     * @param client The client to simulate with
+     * @param margin The fraction of the simulated units to add as a safety margin
+     * @param maxTemplates The number of templates whose units are remembered
+     */
+    public ComputeUnitPlanner(RpcClient client, double margin, int maxTemplates) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("Margin cannot be negative: " + margin);
+        }
+        if (maxTemplates < 1) {
+            throw new IllegalArgumentException("Max templates must be positive: " + maxTemplates);
+        }
+        this.client = Objects.requireNonNull(client, "Client cannot be null");
+        this.margin = margin;
+        this.maxTemplates = maxTemplates;
+    }
+
+    /**
+     * Simulates the instructions and returns the compute units to request for them.
+     *
+     * @param instructions The instructions of the transaction, without compute unit limit
+     * @param feePayer The fee payer; other signers need not sign, as the simulation skips signature checks
+     * @return The simulated units plus the margin, at most {@link #MAX_COMPUTE_UNITS}
+     * @throws RpcException if the simulation fails or reports no units
+     */
+    public int estimateUnits(List<TransactionInstruction> instructions, Account feePayer) throws RpcException {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(ComputeBudgetProgram.setComputeUnitLimit(MAX_COMPUTE_UNITS));
+        instructions.forEach(transaction::addInstruction);
+        transaction.setRecentBlockHash(PLACEHOLDER_BLOCKHASH);
+        transaction.sign(feePayer);
+
+        SimulatedTransaction simulated = client.getApi().simulateTransaction(
+                Base64.getEncoder().encodeToString(transaction.serialize()), List.of());
+        SimulatedTransaction.Value value = simulated.getValue();
+        if (value == null || value.getErr() != null) {
+            throw new RpcException("Simulation failed: " + (value != null ? value.getErr() + " " + value.getLogs() : null));
+        }
+        if (value.getUnitsConsumed() == null) {
+            throw new RpcException("Simulation did not report units consumed");
+        }
+        return (int) Math.min(MAX_COMPUTE_UNITS, Math.ceil(value.getUnitsConsumed() * (1 + margin)));
+    }
+
+    /**
+     * Simulates the instructions and returns the compute unit limit instruction to put first in their
+     * transaction.
+     *
+     * @param instructions The instructions of the transaction, without compute unit limit
+     * @param feePayer The fee payer
+     * @return The compute unit limit instruction
+     * @throws RpcException if the simulation fails
+     */
+    public TransactionInstruction plan(List<TransactionInstruction> instructions, Account feePayer) throws RpcException {
+        return ComputeBudgetProgram.setComputeUnitLimit(estimateUnits(instructions, feePayer));
+    }
+
+    /**
+     * Returns the compute unit limit instruction for a template, simulating only the first time the template
+     * is planned. The units are reused for every transaction planned with the same key; threads planning a
+     * template that is being simulated wait for that simulation rather than starting their own.
+     *
+     * @param templateKey Identifies transactions with the same instruction shape
+     * @param instructions The instructions of the transaction, without compute unit limit
+     * @param feePayer The fee payer
+     * @return The compute unit limit instruction
+     * @throws RpcException if the simulation fails
+     */
+    public TransactionInstruction plan(Object templateKey, List<TransactionInstruction> instructions, Account feePayer)
+            throws RpcException {
+        CompletableFuture<Integer> units = templateUnits.get(templateKey);
+        if (units == null) {
+            CompletableFuture<Integer> simulation = new CompletableFuture<>();
+            units = templateUnits.putIfAbsent(templateKey, simulation);
+            if (units == null) {
+                if (templateUnits.size() > maxTemplates) {
+                    trim(templateKey);
+                }
+                try {
+                    simulation.complete(estimateUnits(instructions, feePayer));
+                } catch (RpcException | RuntimeException e) {
+                    // Failures are not cached; the next plan simulates again
+                    templateUnits.remove(templateKey, simulation);
+                    simulation.completeExceptionally(e);
+                    throw e;
+                }
+                units = simulation;
+            }
+        }
+        return ComputeBudgetProgram.setComputeUnitLimit(await(units));
+    }
+
+    private static int await(CompletableFuture<Integer> units) throws RpcException {
+        try {
+            return units.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted while waiting for simulation");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RpcException) {
+                throw (RpcException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        }
+    }
+
+    // Forgets arbitrary templates other than the one just planned until the cache is back within its limit
+    private void trim(Object templateKey) {
+        Iterator<Object> keys = templateUnits.keySet().iterator();
+        while (templateUnits.size() > maxTemplates && keys.hasNext()) {
+            if (!keys.next().equals(templateKey)) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Forgets the units of a template, so it is simulated again the next time it is planned.
+     *
+     * @param templateKey The template key
+     */
+    public void invalidate(Object templateKey) {
+        templateUnits.remove(templateKey);
+    }
+}
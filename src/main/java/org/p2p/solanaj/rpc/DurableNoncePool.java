@@ -0,0 +1,375 @@
+package org.p2p.solanaj.rpc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.core.TransactionInstruction;
+import org.p2p.solanaj.programs.SystemProgram;
+import org.p2p.solanaj.rpc.types.AccountInfo;
+import org.p2p.solanaj.rpc.types.SignatureStatuses;
+import org.p2p.solanaj.rpc.types.config.RpcSendTransactionConfig;
+import org.p2p.solanaj.utils.Base58;
+
+/**
+ * A pool of durable nonce accounts for transactions that are signed ahead of time and sent later.
+ *
+ * A transaction whose first instruction advances a nonce account uses the account's stored nonce instead of
+ * a recent blockhash, so it stays valid until the nonce is advanced. The pool reads the nonces of all its
+ * accounts in one getMultipleAccounts call, hands out each nonce for at most one presigned transaction,
+ * and tracks which nonces have been consumed until a refresh shows their accounts advanced.
+ *
+ * Each nonce account moves through these states: unknown until its nonce is read, available, presigned
+ * while a transaction holds its nonce, and consumed once that transaction was sent. A refresh that finds a
+ * new nonce makes a consumed account available again; it also drops a presigned transaction whose nonce was
+ * advanced by someone else, since that transaction can no longer land. A consumed account keeps its
+ * transaction, which stays valid until it lands, so a transaction the network dropped can be sent again with
+ * {@link #resendUnconfirmed()}.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * DurableNoncePool pool = new DurableNoncePool(rpcClient, authority);
+ * nonceAccounts.forEach(pool::addNonceAccount);
+ * pool.refresh();
+ *
+ * DurableNoncePool.PresignedTransaction presigned = pool.presign(instructions, List.of(payer));
+ * // later, when the trigger fires
+ * String signature = pool.send(presigned);
+ * }</pre>
+ */
+public class DurableNoncePool {
+
+    private static final Logger LOGGER = Logger.getLogger(DurableNoncePool.class.getName());
+
+    /** Size of a nonce account: version, state, authority, nonce and fee calculator */
+    public static final int NONCE_ACCOUNT_LENGTH = 80;
+
+    private static final int STATE_OFFSET = 4;
+    private static final int AUTHORITY_OFFSET = 8;
+    private static final int NONCE_OFFSET = 40;
+    private static final int STATE_INITIALIZED = 1;
+    // RPC nodes reject getMultipleAccounts requests with more keys
+    private static final int MAX_ACCOUNTS_PER_REQUEST = 100;
+    private static final int MAX_SIGNATURES_PER_STATUS_REQUEST = 256;
+
+    private enum State {
+        UNKNOWN, AVAILABLE, PRESIGNED, CONSUMED
+    }
+
+    private static final class Entry {
+        final PublicKey account;
+        State state = State.UNKNOWN;
+        String nonce;
+        PresignedTransaction presigned;
+
+        Entry(PublicKey account) {
+            this.account = account;
+        }
+    }
+
+    /**
+     * A transaction signed against the nonce of one of the pool's accounts.
+     */
+    public static final class PresignedTransaction {
+        private final PublicKey nonceAccount;
+        private final String nonce;
+        private final byte[] transaction;
+        private final String signature;
+
+        PresignedTransaction(PublicKey nonceAccount, String nonce, byte[] transaction, String signature) {
+            this.nonceAccount = nonceAccount;
+            this.nonce = nonce;
+            this.transaction = transaction;
+            this.signature = signature;
+        }
+
+        public PublicKey getNonceAccount() {
+            return nonceAccount;
+        }
+
+        /**
+         * @return The nonce the transaction uses as its recent blockhash
+         */
+        public String getNonce() {
+            return nonce;
+        }
+
+        /**
+         * @return A copy of the serialized transaction
+         */
+        public byte[] getTransaction() {
+            return transaction.clone();
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+    }
+
+    private final RpcClient client;
+    private final Account authority;
+    private final Map<PublicKey, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * @param client The client to read nonces and send transactions with
+     * @param authority The nonce authority of every account in the pool
+     */
+    public DurableNoncePool(RpcClient client, Account authority) {
+        this.client = Objects.requireNonNull(client, "Client cannot be null");
+        this.authority = Objects.requireNonNull(authority, "Authority cannot be null");
+    }
+
+    /**
+     * Builds the instructions that create and initialize a nonce account. The transaction must be signed by
+     * the payer and the new nonce account.
+     *
+     * @param payer The account funding the nonce account
+     * @param nonceAccount The new nonce account
+     * @param authority The nonce authority
+     * @param lamports The rent-exempt balance for {@link #NONCE_ACCOUNT_LENGTH} bytes
+     * @return The create and initialize instructions
+     */
+    public static List<TransactionInstruction> createNonceAccount(PublicKey payer, PublicKey nonceAccount,
+                                                                  PublicKey authority, long lamports) {
+        return List.of(
+                SystemProgram.createAccount(payer, nonceAccount, lamports, NONCE_ACCOUNT_LENGTH, SystemProgram.PROGRAM_ID),
+                SystemProgram.nonceInitialize(nonceAccount, authority));
+    }
+
+    /**
+     * Adds an initialized nonce account to the pool. Its nonce is read by the next {@link #refresh()}.
+     *
+     * @param nonceAccount The nonce account, whose authority must be the pool's authority
+     */
+    public synchronized void addNonceAccount(PublicKey nonceAccount) {
+        Objects.requireNonNull(nonceAccount, "Nonce account cannot be null");
+        entries.putIfAbsent(nonceAccount, new Entry(nonceAccount));
+    }
+
+    /**
+     * Reads the current nonce of every account in the pool in one request.
+     *
+     * @throws RpcException if the accounts cannot be read
+     */
+    public void refresh() throws RpcException {
+        List<PublicKey> accounts;
+        synchronized (this) {
+            accounts = new ArrayList<>(entries.keySet());
+        }
+        if (accounts.isEmpty()) {
+            return;
+        }
+        Map<PublicKey, Optional<AccountInfo.Value>> values = new HashMap<>();
+        for (int from = 0; from < accounts.size(); from += MAX_ACCOUNTS_PER_REQUEST) {
+            values.putAll(client.getApi().getMultipleAccountsMap(
+                    accounts.subList(from, Math.min(from + MAX_ACCOUNTS_PER_REQUEST, accounts.size()))));
+        }
+
+        synchronized (this) {
+            for (PublicKey account : accounts) {
+                Entry entry = entries.get(account);
+                if (entry != null) {
+                    update(entry, readNonce(account, values.getOrDefault(account, Optional.empty())));
+                }
+            }
+        }
+    }
+
+    private String readNonce(PublicKey account, Optional<AccountInfo.Value> value) {
+        if (value.isEmpty() || value.get().getData() == null || value.get().getData().isEmpty()) {
+            LOGGER.warning("Nonce account not found: " + account);
+            return null;
+        }
+        byte[] data = Base64.getDecoder().decode(value.get().getData().get(0));
+        if (!SystemProgram.PROGRAM_ID.toBase58().equals(value.get().getOwner()) || data.length != NONCE_ACCOUNT_LENGTH
+                || data[STATE_OFFSET] != STATE_INITIALIZED) {
+            LOGGER.warning("Not an initialized nonce account: " + account);
+            return null;
+        }
+        if (!Arrays.equals(data, AUTHORITY_OFFSET, NONCE_OFFSET, authority.getPublicKey().toByteArray(), 0,
+                PublicKey.PUBLIC_KEY_LENGTH)) {
+            LOGGER.warning("Nonce account has another authority: " + account);
+            return null;
+        }
+        return Base58.encode(Arrays.copyOfRange(data, NONCE_OFFSET, NONCE_OFFSET + PublicKey.PUBLIC_KEY_LENGTH));
+    }
+
+    private void update(Entry entry, String nonce) {
+        if (nonce == null) {
+            entry.state = State.UNKNOWN;
+            entry.nonce = null;
+            entry.presigned = null;
+            return;
+        }
+        if (nonce.equals(entry.nonce)) {
+            if (entry.state == State.UNKNOWN) {
+                entry.state = State.AVAILABLE;
+            }
+            return;
+        }
+        if (entry.state == State.PRESIGNED) {
+            LOGGER.warning("Nonce advanced under a presigned transaction, dropping it: " + entry.presigned.getSignature());
+        }
+        entry.presigned = null;
+        entry.nonce = nonce;
+        entry.state = State.AVAILABLE;
+    }
+
+    /**
+     * Signs a transaction against an available nonce. The nonce advance instruction is put first and signed
+     * by the pool's authority, which need not be among the signers.
+     *
+     * @param instructions The instructions of the transaction
+     * @param signers The signers of the instructions, the fee payer first
+     * @return The presigned transaction, which holds the nonce until it is sent or released
+     * @throws IllegalStateException if no nonce is available
+     */
+    public synchronized PresignedTransaction presign(List<TransactionInstruction> instructions, List<Account> signers) {
+        if (signers == null || signers.isEmpty()) {
+            throw new IllegalArgumentException("No signers provided");
+        }
+        Entry entry = entries.values().stream()
+                .filter(candidate -> candidate.state == State.AVAILABLE)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No nonce available"));
+
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.nonceAdvance(entry.account, authority.getPublicKey()));
+        instructions.forEach(transaction::addInstruction);
+        transaction.setRecentBlockHash(entry.nonce);
+        List<Account> allSigners = new ArrayList<>(signers);
+        if (signers.stream().noneMatch(signer -> signer.getPublicKey().equals(authority.getPublicKey()))) {
+            allSigners.add(authority);
+        }
+        transaction.sign(allSigners);
+
+        entry.presigned = new PresignedTransaction(entry.account, entry.nonce, transaction.serialize(),
+                transaction.getSignature());
+        entry.state = State.PRESIGNED;
+        return entry.presigned;
+    }
+
+    /**
+     * Sends a presigned transaction and marks its nonce consumed. A consumed transaction can be sent again
+     * until a refresh shows its nonce advanced.
+     *
+     * @param presigned The presigned transaction
+     * @return The transaction signature
+     * @throws RpcException if the transaction cannot be sent; the nonce stays held by the transaction
+     */
+    public String send(PresignedTransaction presigned) throws RpcException {
+        String signature = client.getApi().sendRawTransaction(
+                Base64.getEncoder().encodeToString(presigned.transaction), new RpcSendTransactionConfig());
+        markConsumed(presigned);
+        return signature;
+    }
+
+    /**
+     * Marks the nonce of a presigned transaction consumed, for transactions sent by other means. The account
+     * keeps the transaction and becomes available again once a refresh shows its nonce advanced.
+     *
+     * @param presigned The sent transaction
+     */
+    public synchronized void markConsumed(PresignedTransaction presigned) {
+        Entry entry = entries.get(presigned.getNonceAccount());
+        if (entry != null && entry.presigned == presigned) {
+            entry.state = State.CONSUMED;
+        }
+    }
+
+    /**
+     * @return The sent transactions whose nonce has not been seen advancing yet
+     */
+    public synchronized List<PresignedTransaction> getConsumedTransactions() {
+        List<PresignedTransaction> consumed = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.state == State.CONSUMED) {
+                consumed.add(entry.presigned);
+            }
+        }
+        return consumed;
+    }
+
+    /**
+     * Sends again every consumed transaction the cluster does not know, such as one dropped before it reached
+     * a leader. Its nonce has not advanced, so the transaction is still valid; transactions the cluster has
+     * seen are left for a refresh to settle.
+     *
+     * @return The number of transactions sent again
+     * @throws RpcException if the statuses cannot be read or a transaction cannot be sent
+     */
+    public int resendUnconfirmed() throws RpcException {
+        List<PresignedTransaction> consumed = getConsumedTransactions();
+        int resent = 0;
+        for (int from = 0; from < consumed.size(); from += MAX_SIGNATURES_PER_STATUS_REQUEST) {
+            List<PresignedTransaction> batch = consumed.subList(from,
+                    Math.min(from + MAX_SIGNATURES_PER_STATUS_REQUEST, consumed.size()));
+            List<String> signatures = new ArrayList<>(batch.size());
+            batch.forEach(presigned -> signatures.add(presigned.getSignature()));
+
+            List<SignatureStatuses.Value> statuses = client.getApi().getSignatureStatuses(signatures, true).getValue();
+            for (int i = 0; i < batch.size(); i++) {
+                if (statuses == null || i >= statuses.size() || statuses.get(i) == null) {
+                    client.getApi().sendRawTransaction(Base64.getEncoder().encodeToString(batch.get(i).transaction),
+                            new RpcSendTransactionConfig());
+                    resent++;
+                }
+            }
+        }
+        return resent;
+    }
+
+    /**
+     * Returns the nonce of a presigned transaction that will not be sent, so it can be used again.
+     *
+     * @param presigned The discarded transaction
+     */
+    public synchronized void release(PresignedTransaction presigned) {
+        Entry entry = entries.get(presigned.getNonceAccount());
+        if (entry != null && entry.presigned == presigned) {
+            entry.presigned = null;
+            entry.state = State.AVAILABLE;
+        }
+    }
+
+    /**
+     * @return The number of accounts whose nonce can be presigned against
+     */
+    public synchronized int getAvailableCount() {
+        return count(State.AVAILABLE);
+    }
+
+    /**
+     * @return The number of presigned transactions ready to be sent
+     */
+    public synchronized int getPresignedCount() {
+        return count(State.PRESIGNED);
+    }
+
+    /**
+     * @return The number of sent transactions whose nonce has not been seen advancing yet
+     */
+    public synchronized int getConsumedCount() {
+        return count(State.CONSUMED);
+    }
+
+    private int count(State state) {
+        int count = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.state == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
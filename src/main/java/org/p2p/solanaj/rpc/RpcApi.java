@@ -1,32 +1,81 @@
 package org.p2p.solanaj.rpc;
 
 import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.AddressLookupTableAccount;
 import org.p2p.solanaj.core.PublicKey;
 import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.core.VersionedTransaction;
 import org.p2p.solanaj.rpc.types.*;
 import org.p2p.solanaj.rpc.types.RpcResultTypes.ValueLong;
 import org.p2p.solanaj.rpc.types.TokenResultObjects.TokenAccount;
 import org.p2p.solanaj.rpc.types.TokenResultObjects.TokenAmountInfo;
 import org.p2p.solanaj.rpc.types.config.*;
 import org.p2p.solanaj.rpc.types.config.RpcSendTransactionConfig.Encoding;
-import org.p2p.solanaj.ws.SubscriptionWebSocketClient;
+import org.p2p.solanaj.ws.SignatureConfirmationService;
+import org.p2p.solanaj.ws.SignatureNotification;
 import org.p2p.solanaj.ws.listeners.NotificationEventListener;
 
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
-public class RpcApi {
+public class RpcApi implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(RpcApi.class.getName());
+
     private RpcClient client;
+    private volatile SignatureConfirmationService confirmationService;
 
     public RpcApi(RpcClient client) {
         this.client = client;
     }
 
+    /**
+     * Returns the shared confirmation service used by the sendAndConfirm methods, creating it on first use.
+     * All confirmations of this RpcApi are multiplexed over its WebSocket connection, which stays open
+     * until {@link #close()}.
+     *
+     * @return the shared SignatureConfirmationService
+     */
+    public SignatureConfirmationService getSignatureConfirmationService() {
+        SignatureConfirmationService service = confirmationService;
+        if (service == null) {
+            synchronized (this) {
+                service = confirmationService;
+                if (service == null) {
+                    service = new SignatureConfirmationService(client);
+                    confirmationService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Closes the shared confirmation service, if one was created, cancelling its pending confirmations and
+     * closing its WebSocket connection. A later sendAndConfirm call creates a new service.
+     */
+    @Override
+    public synchronized void close() {
+        if (confirmationService != null) {
+            confirmationService.close();
+            confirmationService = null;
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T callWithGenericType(String method, List<Object> params, Class<?> rawClass) throws RpcException {
         return (T) client.call(method, params, rawClass);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> T callEncodedWithGenericType(byte[] body, Class<?> rawClass) throws RpcException {
+        return (T) client.callEncoded(body, rawClass);
+    }
+
     public LatestBlockhash getLatestBlockhash() throws RpcException {
         return getLatestBlockhash(null);
     }
@@ -84,16 +133,8 @@ public class RpcApi {
         }
         transaction.setRecentBlockHash(recentBlockHash);
         transaction.sign(signers);
-        byte[] serializedTransaction = transaction.serialize();
-
-        String base64Trx = Base64.getEncoder().encodeToString(serializedTransaction);
 
-        List<Object> params = new ArrayList<>();
-
-        params.add(base64Trx);
-        params.add(rpcSendTransactionConfig);
-
-        return client.call("sendTransaction", params, String.class);
+        return sendRawTransaction(transaction.serialize(), rpcSendTransactionConfig);
     }
 
     /**
@@ -130,20 +171,128 @@ public class RpcApi {
         return client.call("sendTransaction", params, String.class);
     }
 
+    /**
+     * Sends a serialized transaction. The bytes are Base64-encoded while the request body is written, without
+     * an intermediate string, so the configuration must use {@link RpcSendTransactionConfig.Encoding#base64}.
+     *
+     * @param serializedTransaction The serialized transaction
+     * @param rpcSendTransactionConfig The configuration object for sending transactions via RPC.
+     * @return The transaction ID as a string.
+     * @throws RpcException If an error occurs during the RPC call.
+     */
+    public String sendRawTransaction(byte[] serializedTransaction, RpcSendTransactionConfig rpcSendTransactionConfig)
+            throws RpcException {
+        return client.callEncoded(client.getRequestEncoder().sendTransaction(serializedTransaction,
+                rpcSendTransactionConfig), String.class);
+    }
+
+    /**
+     * Sends the serialized transaction between the buffer's position and limit, for transactions written with
+     * {@link Transaction#serializeInto}. The buffer's position is not changed.
+     *
+     * @param serializedTransaction The buffer holding the serialized transaction
+     * @param rpcSendTransactionConfig The configuration object for sending transactions via RPC.
+     * @return The transaction ID as a string.
+     * @throws RpcException If an error occurs during the RPC call.
+     * @see #sendRawTransaction(byte[], RpcSendTransactionConfig)
+     */
+    public String sendRawTransaction(ByteBuffer serializedTransaction, RpcSendTransactionConfig rpcSendTransactionConfig)
+            throws RpcException {
+        return client.callEncoded(client.getRequestEncoder().sendTransaction(serializedTransaction,
+                rpcSendTransactionConfig), String.class);
+    }
+
+
+    /**
+     * Sends a transaction and notifies the listener once it is confirmed. A confirmation that fails, for
+     * example because the blockhash expired, is logged.
+     *
+     * @param transaction The transaction to send
+     * @param signers     The list of accounts signing the transaction
+     * @param listener    Receives the {@link SignatureNotification}
+     * @throws RpcException If an error occurs during the RPC call
+     */
     public void sendAndConfirmTransaction(Transaction transaction, List<Account> signers,
                                           NotificationEventListener listener) throws RpcException {
-        String signature = sendTransaction(transaction, signers, null);
+        sendAndConfirmTransaction(transaction, signers, listener, null);
+    }
+
+    /**
+     * Sends a transaction and notifies the listener once it is confirmed, or the failure callback if it is
+     * not, for example because the blockhash expired.
+     *
+     * @param transaction The transaction to send
+     * @param signers     The list of accounts signing the transaction
+     * @param listener    Receives the {@link SignatureNotification}
+     * @param onFailure   Receives the confirmation failure; null to log it
+     * @throws RpcException If an error occurs during the RPC call
+     */
+    public void sendAndConfirmTransaction(Transaction transaction, List<Account> signers,
+                                          NotificationEventListener listener, Consumer<Throwable> onFailure)
+            throws RpcException {
+        notifyListener(sendAndConfirmTransactionAsync(transaction, signers), listener, onFailure);
+    }
+
+    private static void notifyListener(CompletableFuture<SignatureNotification> confirmation, NotificationEventListener listener,
+                               Consumer<Throwable> onFailure) {
+        confirmation.whenComplete((notification, error) -> {
+            if (error == null) {
+                listener.onNotificationEvent(notification);
+            } else if (onFailure != null) {
+                onFailure.accept(error);
+            } else {
+                LOGGER.log(Level.WARNING, "Transaction confirmation failed", error);
+            }
+        });
+    }
 
-        SubscriptionWebSocketClient subClient = SubscriptionWebSocketClient.getInstance(client.getEndpoint());
-        subClient.signatureSubscribe(signature, listener);
+    /**
+     * Sends a transaction with a fresh blockhash and waits for its confirmation on the shared
+     * {@link SignatureConfirmationService}.
+     *
+     * @param transaction The transaction to send
+     * @param signers     The list of accounts signing the transaction
+     * @return A future completing with the signature notification, or exceptionally once the blockhash expired
+     * @throws RpcException If an error occurs during the RPC call
+     */
+    public CompletableFuture<SignatureNotification> sendAndConfirmTransactionAsync(Transaction transaction, List<Account> signers)
+            throws RpcException {
+        LatestBlockhash.Value latestBlockhash = getLatestBlockhash().getValue();
+        String signature = sendTransaction(transaction, signers, latestBlockhash.getBlockhash());
+
+        return getSignatureConfirmationService().confirm(signature, latestBlockhash.getLastValidBlockHeight());
     }
 
+    /**
+     * Sends a serialized transaction and notifies the listener once it is confirmed. A confirmation that
+     * fails is logged.
+     *
+     * @param encodeSerializedTransaction The Base64-encoded transaction
+     * @param rpcSendTransactionConfig    The configuration object for sending transactions via RPC.
+     * @param listener                    Receives the {@link SignatureNotification}
+     * @throws RpcException If an error occurs during the RPC call
+     */
     public void sendAndConfirmRawTransaction(String encodeSerializedTransaction, RpcSendTransactionConfig rpcSendTransactionConfig,
                                              NotificationEventListener listener) throws RpcException {
+        sendAndConfirmRawTransaction(encodeSerializedTransaction, rpcSendTransactionConfig, listener, null);
+    }
+
+    /**
+     * Sends a serialized transaction and notifies the listener once it is confirmed, or the failure callback
+     * if it is not.
+     *
+     * @param encodeSerializedTransaction The Base64-encoded transaction
+     * @param rpcSendTransactionConfig    The configuration object for sending transactions via RPC.
+     * @param listener                    Receives the {@link SignatureNotification}
+     * @param onFailure                   Receives the confirmation failure; null to log it
+     * @throws RpcException If an error occurs during the RPC call
+     */
+    public void sendAndConfirmRawTransaction(String encodeSerializedTransaction, RpcSendTransactionConfig rpcSendTransactionConfig,
+                                             NotificationEventListener listener, Consumer<Throwable> onFailure)
+            throws RpcException {
         String signature = sendRawTransaction(encodeSerializedTransaction, rpcSendTransactionConfig);
 
-        SubscriptionWebSocketClient subClient = SubscriptionWebSocketClient.getInstance(client.getEndpoint());
-        subClient.signatureSubscribe(signature, listener);
+        notifyListener(getSignatureConfirmationService().confirm(signature), listener, onFailure);
     }
 
     public long getBalance(PublicKey account) throws RpcException {
@@ -358,6 +507,12 @@ public class RpcApi {
     }
 
     public AccountInfo getAccountInfo(PublicKey account, Map<String, Object> additionalParams) throws RpcException {
+        if (!additionalParams.containsKey("dataSlice") && !additionalParams.containsKey("minContextSlot")) {
+            return client.callEncoded(client.getRequestEncoder().getAccountInfo(account,
+                    (String) additionalParams.getOrDefault("encoding", "base64"),
+                    (Commitment) additionalParams.get("commitment")), AccountInfo.class);
+        }
+
         List<Object> params = new ArrayList<>();
 
         Map<String, Object> parameterMap = new HashMap<>();
@@ -1092,11 +1247,8 @@ public class RpcApi {
 
     public SignatureStatuses getSignatureStatuses(List<String> signatures, boolean searchTransactionHistory)
             throws RpcException {
-        List<Object> params = new ArrayList<>();
-        params.add(signatures);
-        params.add(new SignatureStatusConfig(searchTransactionHistory));
-
-        return client.call("getSignatureStatuses", params, SignatureStatuses.class);
+        return client.callEncoded(client.getRequestEncoder().getSignatureStatuses(signatures, searchTransactionHistory),
+                SignatureStatuses.class);
     }
 
     public List<PerformanceSample> getRecentPerformanceSamples() throws RpcException {
@@ -1198,24 +1350,29 @@ public class RpcApi {
     }
 
     public List<AccountInfo.Value> getMultipleAccounts(List<PublicKey> publicKeys, Map<String, Object> additionalParams) throws RpcException {
-        List<Object> params = new ArrayList<>();
-        params.add(publicKeys.stream().map(PublicKey::toBase58).collect(Collectors.toList()));
+        Map<String, Object> rawResult;
+        if (!additionalParams.containsKey("dataSlice")) {
+            rawResult = callEncodedWithGenericType(client.getRequestEncoder().getMultipleAccounts(publicKeys,
+                    (String) additionalParams.getOrDefault("encoding", "base64"),
+                    (Commitment) additionalParams.get("commitment")), Map.class);
+        } else {
+            List<Object> params = new ArrayList<>();
+            params.add(publicKeys.stream().map(PublicKey::toBase58).collect(Collectors.toList()));
 
-        Map<String, Object> parameterMap = new HashMap<>();
+            Map<String, Object> parameterMap = new HashMap<>();
 
-        parameterMap.put("encoding", additionalParams.getOrDefault("encoding", "base64"));
+            parameterMap.put("encoding", additionalParams.getOrDefault("encoding", "base64"));
 
-        if (additionalParams.containsKey("commitment")) {
-            Commitment commitment = (Commitment) additionalParams.get("commitment");
-            parameterMap.put("commitment", commitment.getValue());
-        }
-        if (additionalParams.containsKey("dataSlice")) {
+            if (additionalParams.containsKey("commitment")) {
+                Commitment commitment = (Commitment) additionalParams.get("commitment");
+                parameterMap.put("commitment", commitment.getValue());
+            }
             parameterMap.put("dataSlice", additionalParams.get("dataSlice"));
-        }
 
-        params.add(parameterMap);
+            params.add(parameterMap);
 
-        Map<String, Object> rawResult = callWithGenericType("getMultipleAccounts", params, Map.class);
+            rawResult = callWithGenericType("getMultipleAccounts", params, Map.class);
+        }
         List<AccountInfo.Value> result = new ArrayList<>();
 
         @SuppressWarnings("unchecked")
@@ -1230,15 +1387,9 @@ public class RpcApi {
     }
 
     public Map<PublicKey, Optional<AccountInfo.Value>> getMultipleAccountsMap(List<PublicKey> publicKeys) throws RpcException {
-        List<Object> params = new ArrayList<>();
         Map<PublicKey, Optional<AccountInfo.Value>> result = new HashMap<>();
-        params.add(publicKeys.stream().map(PublicKey::toBase58).collect(Collectors.toList()));
-
-        Map<String, Object> parameterMap = new HashMap<>();
-        parameterMap.put("encoding", "base64");
-        params.add(parameterMap);
-
-        Map<String, Object> rawResult = callWithGenericType("getMultipleAccounts", params, Map.class);
+        Map<String, Object> rawResult = callEncodedWithGenericType(
+                client.getRequestEncoder().getMultipleAccounts(publicKeys, "base64", null), Map.class);
 
         @SuppressWarnings("unchecked")
         List<AbstractMap<String, Object>> resultList = (List<AbstractMap<String, Object>>) rawResult.get("value");
@@ -1253,6 +1404,56 @@ public class RpcApi {
         return result;
     }
 
+    /**
+     * Fetches multiple accounts along with the context slot the values were read at.
+     * Unlike {@link #getMultipleAccounts(List, Map)}, missing accounts are returned as null entries,
+     * so the result list is index-aligned with the requested keys.
+     *
+     * @param publicKeys The accounts to fetch
+     * @param additionalParams Optional parameters: encoding, commitment, dataSlice, minContextSlot
+     * @return The accounts and the context slot
+     * @throws RpcException If an error occurs during the RPC call
+     */
+    public MultipleAccounts getMultipleAccountsInfo(List<PublicKey> publicKeys, Map<String, Object> additionalParams)
+            throws RpcException {
+        List<Object> params = new ArrayList<>();
+        params.add(publicKeys.stream().map(PublicKey::toBase58).collect(Collectors.toList()));
+
+        Map<String, Object> parameterMap = new HashMap<>();
+
+        parameterMap.put("encoding", additionalParams.getOrDefault("encoding", "base64"));
+
+        if (additionalParams.containsKey("commitment")) {
+            Commitment commitment = (Commitment) additionalParams.get("commitment");
+            parameterMap.put("commitment", commitment.getValue());
+        }
+        if (additionalParams.containsKey("dataSlice")) {
+            parameterMap.put("dataSlice", additionalParams.get("dataSlice"));
+        }
+        if (additionalParams.containsKey("minContextSlot")) {
+            parameterMap.put("minContextSlot", additionalParams.get("minContextSlot"));
+        }
+
+        params.add(parameterMap);
+
+        return client.call("getMultipleAccounts", params, MultipleAccounts.class);
+    }
+
+    /**
+     * Fetches an address lookup table for use in a {@link VersionedTransaction}.
+     *
+     * @param lookupTable The address of the lookup table
+     * @return The lookup table with its addresses
+     * @throws RpcException If an error occurs during the RPC call or the account does not exist
+     */
+    public AddressLookupTableAccount getAddressLookupTable(PublicKey lookupTable) throws RpcException {
+        AccountInfo accountInfo = getAccountInfo(lookupTable);
+        if (accountInfo == null || accountInfo.getValue() == null) {
+            throw new RpcException("Lookup table not found: " + lookupTable);
+        }
+        return AddressLookupTableAccount.deserialize(lookupTable, accountInfo.getDecodedData());
+    }
+
     public boolean isBlockhashValid(String blockHash) throws RpcException {
         return isBlockhashValid(blockHash, null, null);
     }
@@ -17,7 +17,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import java.util.zip.GZIPInputStream;
 import java.io.ByteArrayInputStream;
 
-import org.p2p.solanaj.rpc.types.RpcRequest;
 import org.p2p.solanaj.rpc.types.RpcResponse;
 import org.p2p.solanaj.rpc.types.WeightedEndpoint;
 
@@ -31,13 +30,14 @@ import java.util.Arrays;
 /**
  * RpcClient is responsible for making RPC calls to a Solana cluster.
  */
-public class RpcClient {
+public class RpcClient implements AutoCloseable {
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
     private String endpoint;
     private OkHttpClient httpClient;
     private RpcApi rpcApi;
     private WeightedCluster cluster;
     private final ObjectMapper objectMapper; // Reuse ObjectMapper instance
+    private final RpcRequestEncoder requestEncoder;
 
 
     /**
@@ -64,6 +64,7 @@ public class RpcClient {
         this.objectMapper = new ObjectMapper()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
                 .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true); // Initialize ObjectMapper
+        this.requestEncoder = new RpcRequestEncoder(objectMapper);
     }
 
     /**
@@ -132,6 +133,7 @@ public class RpcClient {
         this.objectMapper = new ObjectMapper()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
                 .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true); // Initialize ObjectMapper
+        this.requestEncoder = new RpcRequestEncoder(objectMapper);
     }
 
     /**
@@ -147,6 +149,7 @@ public class RpcClient {
         this.objectMapper = new ObjectMapper()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
                 .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true); // Initialize ObjectMapper
+        this.requestEncoder = new RpcRequestEncoder(objectMapper);
     }
 
     /**
@@ -166,6 +169,7 @@ public class RpcClient {
         this.objectMapper = new ObjectMapper()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
                 .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true); // Initialize ObjectMapper
+        this.requestEncoder = new RpcRequestEncoder(objectMapper);
     }
 
     /**
@@ -178,12 +182,22 @@ public class RpcClient {
      * @throws RpcException if an error occurs during the RPC call
      */
     public <T> T call(String method, List<Object> params, Class<T> clazz) throws RpcException {
-        RpcRequest rpcRequest = new RpcRequest(method, params);
+        return callEncoded(requestEncoder.encode(method, params), clazz);
+    }
 
+    /**
+     * Sends a request body built by the {@link #getRequestEncoder() request encoder}.
+     *
+     * @param body  the encoded JSON-RPC request
+     * @param clazz the class type of the expected result
+     * @return the result of the RPC call
+     * @throws RpcException if an error occurs during the RPC call
+     */
+    public <T> T callEncoded(byte[] body, Class<T> clazz) throws RpcException {
         try {
             Request request = new Request.Builder().url(getEndpoint())
                     .header("Accept-Encoding", "gzip, deflate")
-                    .post(RequestBody.create(objectMapper.writeValueAsString(rpcRequest), JSON)).build();
+                    .post(RequestBody.create(body, JSON)).build();
             Response response = httpClient.newCall(request).execute();
             
             // Handle gzip decompression manually if needed
@@ -217,6 +231,15 @@ public class RpcClient {
         }
     }
 
+    /**
+     * Returns the encoder that builds request bodies for this client.
+     *
+     * @return the request encoder
+     */
+    public RpcRequestEncoder getRequestEncoder() {
+        return requestEncoder;
+    }
+
     /**
      * Returns the RpcApi instance associated with this client.
      *
@@ -226,6 +249,15 @@ public class RpcClient {
         return rpcApi;
     }
 
+    /**
+     * Releases the WebSocket connection and threads the API opened for transaction confirmations.
+     * The client can still make RPC calls afterwards.
+     */
+    @Override
+    public void close() {
+        rpcApi.close();
+    }
+
     /**
      * Returns the current RPC endpoint.
      *
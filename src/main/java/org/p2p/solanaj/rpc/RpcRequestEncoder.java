@@ -0,0 +1,229 @@
+package org.p2p.solanaj.rpc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.types.RpcRequest;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.rpc.types.config.RpcSendTransactionConfig;
+
+/**
+ * Encodes JSON-RPC request envelopes.
+ *
+ * Each thread keeps one {@link JsonGenerator} writing into one growable buffer, both reused across
+ * requests, so encoding a request allocates only the returned body. The most frequent methods have writers
+ * that emit their parameters field by field; other methods go through {@link #encode(String, List)}, which
+ * serializes the parameters with the object mapper. Request ids come from {@link RpcRequest#nextId()}.
+ */
+public final class RpcRequestEncoder {
+
+    /**
+     * A buffer whose array is reused after {@link #reset()}; the generator writes through it.
+     */
+    private static final class Output extends ByteArrayOutputStream {
+        final JsonGenerator generator;
+
+        Output(ObjectMapper objectMapper) throws IOException {
+            super(512);
+            generator = objectMapper.getFactory().createGenerator(this);
+            // Requests are written one after the other as root values; nothing may separate them
+            generator.setRootValueSeparator(null);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ThreadLocal<Output> outputs;
+
+    /**
+     * @param objectMapper The mapper for parameters without a dedicated writer
+     */
+    public RpcRequestEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.outputs = ThreadLocal.withInitial(() -> {
+            try {
+                return new Output(this.objectMapper);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ParamsWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Encodes a request with arbitrary parameters.
+     *
+     * @param method The RPC method
+     * @param params The parameters, serialized by the object mapper; null for none
+     * @return The request body
+     */
+    public byte[] encode(String method, List<Object> params) {
+        return write(method, generator -> {
+            if (params == null) {
+                generator.writeNull();
+            } else {
+                generator.writeObject(params);
+            }
+        });
+    }
+
+    /**
+     * Encodes a sendTransaction request, writing the transaction as Base64 straight from the array.
+     *
+     * @param transaction The serialized transaction
+     * @param config The send configuration, which must use base64 encoding
+     * @return The request body
+     */
+    public byte[] sendTransaction(byte[] transaction, RpcSendTransactionConfig config) {
+        checkBase64(config);
+        return write("sendTransaction", generator -> {
+            generator.writeStartArray();
+            generator.writeBinary(transaction);
+            writeSendConfig(generator, config);
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Encodes a sendTransaction request for the bytes between the buffer's position and limit, without
+     * changing the position.
+     *
+     * @param transaction The buffer holding the serialized transaction
+     * @param config The send configuration, which must use base64 encoding
+     * @return The request body
+     */
+    public byte[] sendTransaction(ByteBuffer transaction, RpcSendTransactionConfig config) {
+        checkBase64(config);
+        ByteBuffer bytes = transaction.duplicate();
+        return write("sendTransaction", generator -> {
+            generator.writeStartArray();
+            if (bytes.hasArray()) {
+                generator.writeBinary(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            } else {
+                generator.writeBinary(new ByteBufferBackedInputStream(bytes), bytes.remaining());
+            }
+            writeSendConfig(generator, config);
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Encodes a getAccountInfo request.
+     *
+     * @param account The account
+     * @param encoding The data encoding
+     * @param commitment The commitment, or null for the node's default
+     * @return The request body
+     */
+    public byte[] getAccountInfo(PublicKey account, String encoding, Commitment commitment) {
+        return write("getAccountInfo", generator -> {
+            generator.writeStartArray();
+            generator.writeString(account.toBase58());
+            writeAccountConfig(generator, encoding, commitment);
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Encodes a getMultipleAccounts request.
+     *
+     * @param accounts The accounts
+     * @param encoding The data encoding
+     * @param commitment The commitment, or null for the node's default
+     * @return The request body
+     */
+    public byte[] getMultipleAccounts(List<PublicKey> accounts, String encoding, Commitment commitment) {
+        return write("getMultipleAccounts", generator -> {
+            generator.writeStartArray();
+            generator.writeStartArray();
+            for (PublicKey account : accounts) {
+                generator.writeString(account.toBase58());
+            }
+            generator.writeEndArray();
+            writeAccountConfig(generator, encoding, commitment);
+            generator.writeEndArray();
+        });
+    }
+
+    /**
+     * Encodes a getSignatureStatuses request.
+     *
+     * @param signatures The Base58-encoded signatures
+     * @param searchTransactionHistory Whether to search beyond the recent status cache
+     * @return The request body
+     */
+    public byte[] getSignatureStatuses(List<String> signatures, boolean searchTransactionHistory) {
+        return write("getSignatureStatuses", generator -> {
+            generator.writeStartArray();
+            generator.writeStartArray();
+            for (String signature : signatures) {
+                generator.writeString(signature);
+            }
+            generator.writeEndArray();
+            generator.writeStartObject();
+            generator.writeBooleanField("searchTransactionHistory", searchTransactionHistory);
+            generator.writeEndObject();
+            generator.writeEndArray();
+        });
+    }
+
+    private byte[] write(String method, ParamsWriter params) {
+        Output output = outputs.get();
+        JsonGenerator generator = output.generator;
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("jsonrpc", "2.0");
+            generator.writeStringField("method", method);
+            generator.writeFieldName("params");
+            params.write(generator);
+            generator.writeNumberField("id", RpcRequest.nextId());
+            generator.writeEndObject();
+            generator.flush();
+            return output.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            // The generator may be left inside an unfinished request
+            outputs.remove();
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            }
+            throw (RuntimeException) e;
+        } finally {
+            output.reset();
+        }
+    }
+
+    private static void checkBase64(RpcSendTransactionConfig config) {
+        if (config.getEncoding() != RpcSendTransactionConfig.Encoding.base64) {
+            throw new IllegalArgumentException("Serialized transactions are sent as base64");
+        }
+    }
+
+    private static void writeSendConfig(JsonGenerator generator, RpcSendTransactionConfig config) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("encoding", config.getEncoding().getEncoding());
+        generator.writeBooleanField("skipPreflight", config.isSkipPreflight());
+        generator.writeNumberField("maxRetries", config.getMaxRetries());
+        generator.writeEndObject();
+    }
+
+    private static void writeAccountConfig(JsonGenerator generator, String encoding, Commitment commitment)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("encoding", encoding);
+        if (commitment != null) {
+            generator.writeStringField("commitment", commitment.getValue());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,14 @@
+package org.p2p.solanaj.rpc.types;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public class DataSlice {
+
+    @JsonProperty("offset")
+    private int offset;
+
+    @JsonProperty("length")
+    private int length;
+}
@@ -0,0 +1,19 @@
+package org.p2p.solanaj.rpc.types;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Result of getMultipleAccounts including the response context.
+ * Missing accounts are kept as null entries so that values line up with the requested keys.
+ */
+@Getter
+@ToString
+public class MultipleAccounts extends RpcResultObject {
+
+    @JsonProperty("value")
+    private List<AccountInfo.Value> value;
+}
@@ -1,7 +1,7 @@
 package org.p2p.solanaj.rpc.types;
 
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
@@ -11,6 +11,9 @@ import lombok.ToString;
 @ToString
 public class RpcRequest {
 
+    // Ids only need to be unique per connection; a counter avoids the SecureRandom behind UUID.randomUUID()
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
     @JsonProperty("jsonrpc")
     private String jsonrpc = "2.0";
 
@@ -21,7 +24,7 @@ public class RpcRequest {
     private List<Object> params;
 
     @JsonProperty("id")
-    private String id = UUID.randomUUID().toString();
+    private String id = Long.toString(nextId());
 
     public RpcRequest(String method) {
         this(method, null);
@@ -31,4 +34,11 @@ public class RpcRequest {
         this.method = method;
         this.params = params;
     }
+
+    /**
+     * @return A request id not used before in this process
+     */
+    public static long nextId() {
+        return NEXT_ID.incrementAndGet();
+    }
 }
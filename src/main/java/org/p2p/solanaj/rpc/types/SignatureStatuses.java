@@ -21,6 +21,9 @@ public class SignatureStatuses extends RpcResultObject {
 
         @JsonProperty("confirmationStatus")
         private String confirmationStatus;
+
+        @JsonProperty("err")
+        private Object err;
     }
 
     @JsonProperty("value")
@@ -18,6 +18,12 @@ public class SimulatedTransaction extends RpcResultObject {
 
         @JsonProperty("logs")
         private List<String> logs;
+
+        @JsonProperty("err")
+        private Object err;
+
+        @JsonProperty("unitsConsumed")
+        private Long unitsConsumed;
     }
 
     @JsonProperty("value")
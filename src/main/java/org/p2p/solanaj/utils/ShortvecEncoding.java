@@ -1,5 +1,6 @@
 package org.p2p.solanaj.utils;
 
+import java.nio.ByteBuffer;
 
 public class ShortvecEncoding {
 
@@ -26,4 +27,46 @@ public class ShortvecEncoding {
 
         return bytes;
     }
+
+    /**
+     * Returns the number of bytes {@link #encodeLength} produces for a length, without encoding it.
+     *
+     * @param len The length to encode
+     * @return The size of the encoding
+     */
+    public static int encodedLength(int len) {
+        int size = 1;
+        for (int remLen = len >>> 7; remLen != 0; remLen >>>= 7) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Decodes a compact-u16 length at the buffer's position and advances past it. Like the cluster, this
+     * accepts only the canonical encoding of a value up to 0xFFFF.
+     *
+     * @param buffer The buffer to read from
+     * @return The decoded length
+     * @throws IllegalArgumentException if the encoding is not canonical or the value exceeds 0xFFFF
+     */
+    public static int decodeLength(ByteBuffer buffer) {
+        int len = 0;
+        for (int size = 0; size < 3; size++) {
+            int elem = buffer.get() & 0xff;
+            // A zero byte after the first adds nothing, so a shorter encoding exists
+            if (size > 0 && elem == 0) {
+                throw new IllegalArgumentException("Non-canonical compact-u16 length");
+            }
+            // The third byte carries bits 14 and 15 only
+            if (size == 2 && elem > 0x03) {
+                throw new IllegalArgumentException("Compact-u16 length exceeds 0xFFFF");
+            }
+            len |= (elem & 0x7f) << (size * 7);
+            if ((elem & 0x80) == 0) {
+                return len;
+            }
+        }
+        throw new IllegalArgumentException("Invalid compact-u16 length");
+    }
 }
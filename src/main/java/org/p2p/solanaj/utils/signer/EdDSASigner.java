@@ -0,0 +1,59 @@
+package org.p2p.solanaj.utils.signer;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import net.i2p.crypto.eddsa.EdDSAEngine;
+import net.i2p.crypto.eddsa.EdDSAPrivateKey;
+import net.i2p.crypto.eddsa.spec.EdDSANamedCurveTable;
+import net.i2p.crypto.eddsa.spec.EdDSAParameterSpec;
+import net.i2p.crypto.eddsa.spec.EdDSAPrivateKeySpec;
+
+import static org.p2p.solanaj.utils.signer.Signers.SEED_LENGTH;
+
+/**
+ * Signs with the i2p EdDSA implementation. Its curve spec carries precomputed multiples of the base point, and
+ * its private keys keep the expanded scalar, prefix and public point, so a signature costs one fixed-base
+ * multiplication and two hashes.
+ */
+final class EdDSASigner implements Signer {
+
+    private static final EdDSAParameterSpec ED_25519 = EdDSANamedCurveTable.getByName(EdDSANamedCurveTable.ED_25519);
+
+    // An engine holds the digest of the signature in progress
+    private final ThreadLocal<EdDSAEngine> engines = ThreadLocal.withInitial(() -> {
+        try {
+            return new EdDSAEngine(MessageDigest.getInstance(ED_25519.getHashAlgorithm()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Override
+    public String getName() {
+        return "eddsa";
+    }
+
+    @Override
+    public SigningKey createSigningKey(byte[] secretKey) {
+        Signers.checkSecretKey(secretKey);
+        EdDSAPrivateKey privateKey = new EdDSAPrivateKey(
+                new EdDSAPrivateKeySpec(Arrays.copyOf(secretKey, SEED_LENGTH), ED_25519));
+        // The signature commits to the derived public key, so it must be the one stored with the seed
+        if (!Arrays.equals(privateKey.getAbyte(), 0, SEED_LENGTH, secretKey, SEED_LENGTH, 2 * SEED_LENGTH)) {
+            throw new IllegalArgumentException("Secret key does not match its public key");
+        }
+        return (message, offset, length, signature, signatureOffset) -> {
+            EdDSAEngine engine = engines.get();
+            try {
+                engine.initSign(privateKey);
+                System.arraycopy(engine.signOneShot(message, offset, length), 0, signature, signatureOffset,
+                        SIGNATURE_LENGTH);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Error signing message", e);
+            }
+        };
+    }
+}
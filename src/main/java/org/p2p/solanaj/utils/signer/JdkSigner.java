@@ -0,0 +1,66 @@
+package org.p2p.solanaj.utils.signer;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.spec.EdECPrivateKeySpec;
+import java.security.spec.NamedParameterSpec;
+import java.util.Arrays;
+
+import static org.p2p.solanaj.utils.signer.Signers.SEED_LENGTH;
+
+/**
+ * Signs with the JDK's Ed25519 provider, available since Java 15.
+ */
+final class JdkSigner implements Signer {
+
+    private static final String ALGORITHM = "Ed25519";
+
+    // A Signature holds the message of the signature in progress
+    private final ThreadLocal<Signature> signatures = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    static boolean isAvailable() {
+        try {
+            Signature.getInstance(ALGORITHM);
+            KeyFactory.getInstance(ALGORITHM);
+            return true;
+        } catch (NoSuchAlgorithmException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "jdk";
+    }
+
+    @Override
+    public SigningKey createSigningKey(byte[] secretKey) {
+        Signers.checkSecretKey(secretKey);
+        PrivateKey privateKey;
+        try {
+            privateKey = KeyFactory.getInstance(ALGORITHM).generatePrivate(
+                    new EdECPrivateKeySpec(NamedParameterSpec.ED25519, Arrays.copyOf(secretKey, SEED_LENGTH)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Invalid secret key", e);
+        }
+        return (message, offset, length, signature, signatureOffset) -> {
+            Signature jdkSignature = signatures.get();
+            try {
+                jdkSignature.initSign(privateKey);
+                jdkSignature.update(message, offset, length);
+                jdkSignature.sign(signature, signatureOffset, SIGNATURE_LENGTH);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Error signing message", e);
+            }
+        };
+    }
+}
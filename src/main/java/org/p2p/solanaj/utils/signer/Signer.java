@@ -0,0 +1,59 @@
+package org.p2p.solanaj.utils.signer;
+
+/**
+ * An Ed25519 signature implementation.
+ *
+ * A signer turns a secret key into a {@link SigningKey} once, so whatever the implementation derives from the
+ * key, such as the hashed scalar and the public point, is computed per account rather than per signature.
+ * Signatures are deterministic, so every implementation produces the same bytes for the same key and message.
+ *
+ * @see Signers
+ */
+public interface Signer {
+
+    /** Length of an Ed25519 signature */
+    int SIGNATURE_LENGTH = 64;
+
+    /**
+     * @return A short name identifying the implementation
+     */
+    String getName();
+
+    /**
+     * Prepares a secret key for signing.
+     *
+     * @param secretKey The 64-byte secret key: the 32-byte seed followed by the public key
+     * @return The signing key
+     * @throws IllegalArgumentException if the key is malformed
+     */
+    SigningKey createSigningKey(byte[] secretKey);
+
+    /**
+     * A secret key prepared by a {@link Signer}. Signing keys can be used from several threads at once.
+     */
+    interface SigningKey {
+
+        /**
+         * Signs part of an array.
+         *
+         * @param message The array holding the message
+         * @param offset The offset of the message
+         * @param length The length of the message
+         * @param signature The array to write the signature to; it may be the message array, outside the message
+         * @param signatureOffset The offset to write the {@link #SIGNATURE_LENGTH} signature bytes at
+         */
+        void sign(byte[] message, int offset, int length, byte[] signature, int signatureOffset);
+
+        /**
+         * Signs a message.
+         *
+         * @param message The message
+         * @return The signature
+         */
+        default byte[] sign(byte[] message) {
+            byte[] signature = new byte[SIGNATURE_LENGTH];
+            sign(message, 0, message.length, signature, 0);
+            return signature;
+        }
+    }
+}
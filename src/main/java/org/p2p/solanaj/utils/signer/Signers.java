@@ -0,0 +1,126 @@
+package org.p2p.solanaj.utils.signer;
+
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * The available {@link Signer} implementations and the default one accounts sign with.
+ *
+ * The default is the i2p EdDSA signer, which uses precomputed base point tables and expanded keys. The JDK
+ * signer can be chosen instead where the runtime provides Ed25519, and TweetNacl is the fallback when the
+ * i2p library is missing. The {@value #SIGNER_PROPERTY} system property selects the default by name:
+ * {@code eddsa}, {@code jdk} or {@code tweetnacl}.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * if (Signers.isJdkAvailable()) {
+ *     Signers.setDefault(Signers.jdk());
+ * }
+ * }</pre>
+ */
+public final class Signers {
+
+    private static final Logger LOGGER = Logger.getLogger(Signers.class.getName());
+
+    /** System property naming the default signer */
+    public static final String SIGNER_PROPERTY = "solanaj.signer";
+
+    static final int SEED_LENGTH = 32;
+
+    private static final Signer TWEET_NACL = new TweetNaclSigner();
+
+    private static volatile Signer eddsa;
+    private static volatile Signer jdk;
+    private static volatile Signer defaultSigner;
+
+    private Signers() {
+    }
+
+    /**
+     * @return The i2p EdDSA signer
+     * @throws IllegalStateException if the i2p library is not on the classpath
+     */
+    public static Signer eddsa() {
+        if (eddsa == null) {
+            try {
+                eddsa = new EdDSASigner();
+            } catch (LinkageError e) {
+                throw new IllegalStateException("EdDSA signer unavailable", e);
+            }
+        }
+        return eddsa;
+    }
+
+    /**
+     * @return The signer backed by the JDK's Ed25519 provider
+     * @throws IllegalStateException if the runtime has no Ed25519 provider
+     */
+    public static Signer jdk() {
+        if (jdk == null) {
+            if (!JdkSigner.isAvailable()) {
+                throw new IllegalStateException("The JDK provides no Ed25519 signatures");
+            }
+            jdk = new JdkSigner();
+        }
+        return jdk;
+    }
+
+    /**
+     * @return Whether {@link #jdk()} can be used
+     */
+    public static boolean isJdkAvailable() {
+        return JdkSigner.isAvailable();
+    }
+
+    /**
+     * @return The TweetNacl signer
+     */
+    public static Signer tweetNacl() {
+        return TWEET_NACL;
+    }
+
+    /**
+     * @return The signer accounts use unless given another
+     */
+    public static Signer getDefault() {
+        if (defaultSigner == null) {
+            defaultSigner = select(System.getProperty(SIGNER_PROPERTY, "eddsa"));
+        }
+        return defaultSigner;
+    }
+
+    /**
+     * Sets the signer for accounts that have not signed yet; accounts keep the signer they first signed with.
+     *
+     * @param signer The new default signer
+     */
+    public static void setDefault(Signer signer) {
+        defaultSigner = Objects.requireNonNull(signer, "Signer cannot be null");
+    }
+
+    private static Signer select(String name) {
+        try {
+            switch (name) {
+                case "tweetnacl":
+                    return TWEET_NACL;
+                case "jdk":
+                    return jdk();
+                case "eddsa":
+                    return eddsa();
+                default:
+                    LOGGER.warning("Unknown signer " + name + ", using eddsa");
+                    return eddsa();
+            }
+        } catch (IllegalStateException e) {
+            LOGGER.warning("Signer " + name + " unavailable, using tweetnacl: " + e.getMessage());
+            return TWEET_NACL;
+        }
+    }
+
+    static void checkSecretKey(byte[] secretKey) {
+        Objects.requireNonNull(secretKey, "Secret key cannot be null");
+        if (secretKey.length != 2 * SEED_LENGTH) {
+            throw new IllegalArgumentException("Invalid secret key length: " + secretKey.length);
+        }
+    }
+}
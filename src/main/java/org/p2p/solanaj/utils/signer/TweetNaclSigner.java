@@ -0,0 +1,32 @@
+package org.p2p.solanaj.utils.signer;
+
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+/**
+ * Signs with {@link TweetNaclFast}, the reference implementation without precomputation.
+ */
+final class TweetNaclSigner implements Signer {
+
+    // crypto_sign writes the signature followed by a copy of the message
+    private final ThreadLocal<byte[]> signedMessages = ThreadLocal.withInitial(() -> new byte[1024]);
+
+    @Override
+    public String getName() {
+        return "tweetnacl";
+    }
+
+    @Override
+    public SigningKey createSigningKey(byte[] secretKey) {
+        Signers.checkSecretKey(secretKey);
+        byte[] key = secretKey.clone();
+        return (message, offset, length, signature, signatureOffset) -> {
+            byte[] signedMessage = signedMessages.get();
+            if (signedMessage.length < SIGNATURE_LENGTH + length) {
+                signedMessage = new byte[SIGNATURE_LENGTH + length];
+                signedMessages.set(signedMessage);
+            }
+            TweetNaclFast.crypto_sign(signedMessage, -1, message, offset, length, key);
+            System.arraycopy(signedMessage, 0, signature, signatureOffset, SIGNATURE_LENGTH);
+        };
+    }
+}
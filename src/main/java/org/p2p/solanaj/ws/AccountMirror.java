@@ -0,0 +1,247 @@
+package org.p2p.solanaj.ws;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.AccountInfo;
+import org.p2p.solanaj.rpc.types.MultipleAccounts;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+/**
+ * AccountMirror keeps an in-memory copy of the latest state of a set of accounts.
+ *
+ * Tracked accounts are subscribed to with accountSubscribe and seeded with batched getMultipleAccounts calls.
+ * Every update, whether it comes from the seed or from a notification, carries the slot it was observed at,
+ * and an update is only applied if its slot is not older than the slot of the state already held. This makes
+ * the order in which the seed and the first notifications arrive irrelevant.
+ *
+ * Reads never touch the network: {@link #get(PublicKey)} is a single lookup in a concurrent map of immutable
+ * {@link AccountView}s.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * AccountMirror mirror = new AccountMirror(rpcClient, wsClient, Commitment.CONFIRMED);
+ * mirror.addListener((previous, current) -> System.out.println("Changed: " + current));
+ * mirror.track(List.of(marketKey, bidsKey, asksKey));
+ *
+ * AccountView bids = mirror.get(bidsKey);
+ * }</pre>
+ */
+public class AccountMirror implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(AccountMirror.class.getName());
+
+    /** Maximum number of keys accepted by a single getMultipleAccounts call */
+    static final int MAX_ACCOUNTS_PER_REQUEST = 100;
+
+    /**
+     * Listener for applied account changes.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after an update has been applied.
+         *
+         * @param previous The state held before the update, or null if the account was not known yet
+         * @param current The newly applied state
+         */
+        void onAccountChanged(AccountView previous, AccountView current);
+    }
+
+    private final RpcClient rpcClient;
+    private final SubscriptionWebSocketClient wsClient;
+    private final Commitment commitment;
+
+    private final Map<PublicKey, AccountView> accounts = new ConcurrentHashMap<>();
+    private final Map<PublicKey, CompletableFuture<Long>> subscriptions = new ConcurrentHashMap<>();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an AccountMirror using confirmed commitment.
+     *
+     * @param rpcClient The RPC client used for seeding
+     * @param wsClient The WebSocket client used for subscriptions
+     */
+    public AccountMirror(RpcClient rpcClient, SubscriptionWebSocketClient wsClient) {
+        this(rpcClient, wsClient, Commitment.CONFIRMED);
+    }
+
+    /**
+     * Constructs an AccountMirror.
+     *
+     * @param rpcClient The RPC client used for seeding
+     * @param wsClient The WebSocket client used for subscriptions
+     * @param commitment The commitment level for both seeding and subscriptions
+     */
+    public AccountMirror(RpcClient rpcClient, SubscriptionWebSocketClient wsClient, Commitment commitment) {
+        this.rpcClient = rpcClient;
+        this.wsClient = wsClient;
+        this.commitment = commitment;
+    }
+
+    /**
+     * Starts mirroring the given accounts. Subscriptions are opened before seeding, so no update that
+     * happens during seeding is lost.
+     *
+     * @param keys The accounts to track
+     * @throws RpcException If seeding fails
+     */
+    public void track(Collection<PublicKey> keys) throws RpcException {
+        List<PublicKey> added = new ArrayList<>();
+        for (PublicKey key : keys) {
+            // Atomic, so concurrent calls open a single subscription per account
+            subscriptions.computeIfAbsent(key, k -> {
+                added.add(k);
+                return wsClient.accountSubscribe(k.toBase58(), new MirrorListener(k), commitment, "base64");
+            });
+        }
+        seed(added);
+    }
+
+    /**
+     * Stops mirroring the given account and drops its state.
+     *
+     * @param key The account to stop tracking
+     */
+    public void untrack(PublicKey key) {
+        CompletableFuture<Long> subscription = subscriptions.remove(key);
+        if (subscription != null) {
+            subscription.thenAccept(wsClient::unsubscribe);
+        }
+        accounts.remove(key);
+    }
+
+    /**
+     * Re-reads the given accounts over RPC. Results are applied with the usual slot ordering,
+     * so a refresh can never roll back state received through a notification.
+     *
+     * @param keys The accounts to fetch
+     * @throws RpcException If an RPC call fails
+     */
+    public void seed(List<PublicKey> keys) throws RpcException {
+        for (int from = 0; from < keys.size(); from += MAX_ACCOUNTS_PER_REQUEST) {
+            List<PublicKey> batch = keys.subList(from, Math.min(from + MAX_ACCOUNTS_PER_REQUEST, keys.size()));
+            MultipleAccounts result = rpcClient.getApi().getMultipleAccountsInfo(batch, Map.of("commitment", commitment));
+            long slot = result.getContext() != null ? result.getContext().getSlot() : -1;
+            List<AccountInfo.Value> values = result.getValue();
+
+            for (int i = 0; i < batch.size() && i < values.size(); i++) {
+                AccountInfo.Value value = values.get(i);
+                if (value != null) {
+                    apply(AccountView.fromAccountInfo(batch.get(i), slot, value));
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies an update unless a state from a newer slot is already held.
+     *
+     * @param update The update to apply
+     * @return true if the update was applied, false if it was discarded as out of order
+     */
+    boolean apply(AccountView update) {
+        PublicKey key = update.getPublicKey();
+        for (;;) {
+            AccountView current = accounts.get(key);
+            if (current != null && current.getSlot() > update.getSlot()) {
+                return false;
+            }
+
+            boolean swapped = current == null
+                    ? accounts.putIfAbsent(key, update) == null
+                    : accounts.replace(key, current, update);
+            if (swapped) {
+                notifyListeners(current, update);
+                return true;
+            }
+        }
+    }
+
+    private void notifyListeners(AccountView previous, AccountView current) {
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onAccountChanged(previous, current);
+            } catch (Exception ex) {
+                LOGGER.log(Level.WARNING, "Account change listener failed", ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the latest known state of an account. Never performs I/O.
+     *
+     * @param key The account
+     * @return The latest state, or null if the account is not tracked or has not been seen yet
+     */
+    public AccountView get(PublicKey key) {
+        return accounts.get(key);
+    }
+
+    /**
+     * @return An unmodifiable live view of all mirrored accounts
+     */
+    public Map<PublicKey, AccountView> snapshot() {
+        return Collections.unmodifiableMap(accounts);
+    }
+
+    public boolean isTracked(PublicKey key) {
+        return subscriptions.containsKey(key);
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Unsubscribes from all tracked accounts. The WebSocket client itself is not closed.
+     */
+    @Override
+    public void close() {
+        for (PublicKey key : new ArrayList<>(subscriptions.keySet())) {
+            untrack(key);
+        }
+    }
+
+    /**
+     * Feeds accountNotification values for one account into the mirror.
+     */
+    private class MirrorListener implements NotificationEventListener {
+        private final PublicKey key;
+
+        MirrorListener(PublicKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public void onNotificationEvent(Object data) {
+            onNotificationEvent(data, -1);
+        }
+
+        @Override
+        public void onNotificationEvent(Object data, long slot) {
+            // A notification still in flight when the account was untracked must not bring its state back
+            if (data instanceof Map && subscriptions.containsKey(key)) {
+                AccountView update = AccountView.fromNotification(key, slot, (Map<?, ?>) data);
+                if (apply(update) && !subscriptions.containsKey(key)) {
+                    accounts.remove(key, update);
+                }
+            }
+        }
+    }
+}
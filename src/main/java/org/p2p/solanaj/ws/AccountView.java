@@ -0,0 +1,152 @@
+package org.p2p.solanaj.ws;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.types.AccountInfo;
+
+/**
+ * Immutable snapshot of an account's state at a given slot.
+ *
+ * Instances are safe to share between threads and are what {@link AccountMirror} hands out on reads.
+ * The account data is decoded once when the view is created; {@link #getDataBuffer()} exposes it without
+ * copying, {@link #getData()} returns a defensive copy.
+ */
+public final class AccountView {
+
+    private static final byte[] EMPTY_DATA = new byte[0];
+
+    private final PublicKey publicKey;
+    private final long slot;
+    private final long lamports;
+    private final String owner;
+    private final boolean executable;
+    private final long rentEpoch;
+    private final byte[] data;
+
+    public AccountView(PublicKey publicKey, long slot, long lamports, String owner, boolean executable,
+                       long rentEpoch, byte[] data) {
+        this.publicKey = Objects.requireNonNull(publicKey, "Public key cannot be null");
+        this.slot = slot;
+        this.lamports = lamports;
+        this.owner = owner;
+        this.executable = executable;
+        this.rentEpoch = rentEpoch;
+        this.data = data != null ? data : EMPTY_DATA;
+    }
+
+    /**
+     * Creates a view from the value map of an accountNotification (or the account of a programNotification).
+     *
+     * @param publicKey The account the notification is for
+     * @param slot The context slot of the notification
+     * @param value The notification value
+     * @return The account view
+     */
+    public static AccountView fromNotification(PublicKey publicKey, long slot, Map<?, ?> value) {
+        return new AccountView(
+                publicKey,
+                slot,
+                toLong(value.get("lamports")),
+                (String) value.get("owner"),
+                Boolean.TRUE.equals(value.get("executable")),
+                toLong(value.get("rentEpoch")),
+                decodeData(value.get("data"))
+        );
+    }
+
+    /**
+     * Creates a view from an RPC account value.
+     *
+     * @param publicKey The account the value is for
+     * @param slot The context slot of the response
+     * @param value The account value
+     * @return The account view
+     */
+    public static AccountView fromAccountInfo(PublicKey publicKey, long slot, AccountInfo.Value value) {
+        return new AccountView(
+                publicKey,
+                slot,
+                (long) value.getLamports(),
+                value.getOwner(),
+                value.isExecutable(),
+                (long) value.getRentEpoch(),
+                decodeData(value.getData())
+        );
+    }
+
+    private static long toLong(Object number) {
+        return number instanceof Number ? ((Number) number).longValue() : 0L;
+    }
+
+    /**
+     * Decodes account data in the {@code [data, "base64"]} form. Other encodings are not decoded.
+     */
+    private static byte[] decodeData(Object data) {
+        if (data instanceof List) {
+            List<?> encoded = (List<?>) data;
+            if (encoded.size() == 2 && "base64".equals(encoded.get(1)) && encoded.get(0) instanceof String) {
+                return Base64.getDecoder().decode((String) encoded.get(0));
+            }
+        }
+        return EMPTY_DATA;
+    }
+
+    public PublicKey getPublicKey() {
+        return publicKey;
+    }
+
+    public long getSlot() {
+        return slot;
+    }
+
+    public long getLamports() {
+        return lamports;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public boolean isExecutable() {
+        return executable;
+    }
+
+    public long getRentEpoch() {
+        return rentEpoch;
+    }
+
+    /**
+     * @return A copy of the account data
+     */
+    public byte[] getData() {
+        return Arrays.copyOf(data, data.length);
+    }
+
+    /**
+     * @return A read-only view of the account data, without copying
+     */
+    public ByteBuffer getDataBuffer() {
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    public int getDataLength() {
+        return data.length;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountView{" +
+               "publicKey=" + publicKey +
+               ", slot=" + slot +
+               ", lamports=" + lamports +
+               ", owner=" + owner +
+               ", dataLength=" + data.length +
+               '}';
+    }
+}
@@ -0,0 +1,357 @@
+package org.p2p.solanaj.ws;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * BlockNotificationParser reads blockNotification frames with a streaming parser instead of building a tree
+ * of the whole block.
+ *
+ * Transactions are read one at a time. When a transaction filter is given, only the tokens up to the
+ * transaction's account keys are buffered; transactions the filter rejects are skipped without being
+ * materialized. The notification value keeps the shape of the JSON-RPC value, with the rejected transactions
+ * left out of {@code block.transactions}.
+ *
+ * The filter sees the static account keys of a transaction, which include every program it invokes directly.
+ * Addresses loaded from lookup tables are not known at that point. Transactions that carry no account keys
+ * (binary encodings, or {@code transactionDetails} other than full and accounts) are always kept.
+ */
+public final class BlockNotificationParser {
+
+    /**
+     * Keeps every transaction; the parser materializes them without looking for account keys.
+     */
+    static final Predicate<List<String>> ALL_TRANSACTIONS = keys -> true;
+
+    private static final String METHOD = "blockNotification";
+
+    /**
+     * Opens a parser over a received frame; a frame may be read more than once.
+     */
+    @FunctionalInterface
+    interface FrameSource {
+        JsonParser open() throws IOException;
+    }
+
+    /**
+     * A parsed block notification.
+     */
+    static final class Notification {
+        final long subscription;
+        final long slot;
+        final Map<String, Object> value;
+
+        Notification(long subscription, long slot, Map<String, Object> value) {
+            this.subscription = subscription;
+            this.slot = slot;
+            this.value = value;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    BlockNotificationParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Creates a transaction filter that keeps transactions mentioning any of the given accounts or programs.
+     *
+     * @param accounts The account or program addresses
+     * @return The transaction filter
+     */
+    public static Predicate<List<String>> mentions(String... accounts) {
+        Set<String> wanted = new HashSet<>(Arrays.asList(accounts));
+        return keys -> {
+            for (String key : keys) {
+                if (wanted.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Parses a message if it is a block notification.
+     *
+     * @param message The received message
+     * @param filters Maps a server subscription ID to its transaction filter, or to null if the notification
+     *                should not be read
+     * @return The notification, with a null value if it was not read, or null if the message is not a block
+     *         notification
+     * @throws IOException If the message is not valid JSON
+     */
+    Notification parse(String message, LongFunction<Predicate<List<String>>> filters) throws IOException {
+        return parse(() -> objectMapper.createParser(message), filters);
+    }
+
+    /**
+     * Parses a frame if it is a block notification.
+     *
+     * @param frame The received frame
+     * @param filters Maps a server subscription ID to its transaction filter, or to null if the notification
+     *                should not be read
+     * @return The notification, with a null value if it was not read, or null if the frame is not a block
+     *         notification
+     * @throws IOException If the frame is not valid JSON
+     */
+    Notification parse(FrameSource frame, LongFunction<Predicate<List<String>>> filters) throws IOException {
+        long subscription = -1;
+        boolean resultSkipped = false;
+
+        try (JsonParser parser = frame.open()) {
+            if (!seekBlockNotification(parser)) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (!"params".equals(name) || token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    token = parser.nextToken();
+                    if ("subscription".equals(field) && token.isNumeric()) {
+                        subscription = parser.getLongValue();
+                    } else if ("result".equals(field) && token == JsonToken.START_OBJECT && subscription != -1) {
+                        return readResult(parser, subscription, filters.apply(subscription));
+                    } else {
+                        // The subscription ID usually comes after the result
+                        resultSkipped |= "result".equals(field);
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+
+        if (subscription == -1 || !resultSkipped) {
+            return new Notification(subscription, -1, null);
+        }
+        Predicate<List<String>> filter = filters.apply(subscription);
+        if (filter == null) {
+            return new Notification(subscription, -1, null);
+        }
+        try (JsonParser parser = frame.open()) {
+            seekBlockNotification(parser);
+            seekResult(parser);
+            return readResult(parser, subscription, filter);
+        }
+    }
+
+    /**
+     * Reads the top-level fields up to the method.
+     *
+     * @return true if the message is a block notification
+     */
+    private static boolean seekBlockNotification(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("method".equals(name)) {
+                return token == JsonToken.VALUE_STRING && METHOD.equals(parser.getText());
+            }
+            if (!"jsonrpc".equals(name)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves a parser positioned after the method to the start of params.result.
+     */
+    private static void seekResult(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean params = "params".equals(parser.currentName());
+            if (parser.nextToken() == JsonToken.START_OBJECT && params) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    boolean result = "result".equals(parser.currentName());
+                    if (parser.nextToken() == JsonToken.START_OBJECT && result) {
+                        return;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            parser.skipChildren();
+        }
+        throw new IOException("Block notification without result");
+    }
+
+    private Notification readResult(JsonParser parser, long subscription, Predicate<List<String>> filter) throws IOException {
+        if (filter == null) {
+            return new Notification(subscription, -1, null);
+        }
+        long slot = -1;
+        Map<String, Object> value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("context".equals(name) && token == JsonToken.START_OBJECT) {
+                slot = readContextSlot(parser);
+            } else if ("value".equals(name) && token == JsonToken.START_OBJECT) {
+                value = readObject(parser, "block", filter);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new Notification(subscription, slot, value);
+    }
+
+    private static long readContextSlot(JsonParser parser) throws IOException {
+        long slot = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("slot".equals(name) && token.isNumeric()) {
+                slot = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Reads an object field by field. The value and the block are read here so that the block's
+     * transactions can be filtered; every other field is materialized as usual.
+     *
+     * @param nested The field holding the next level to read field by field, or null
+     */
+    private Map<String, Object> readObject(JsonParser parser, String nested, Predicate<List<String>> filter) throws IOException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (nested != null && nested.equals(name) && token == JsonToken.START_OBJECT) {
+                object.put(name, readObject(parser, null, filter));
+            } else if (nested == null && "transactions".equals(name) && token == JsonToken.START_ARRAY) {
+                object.put(name, readTransactions(parser, filter));
+            } else {
+                object.put(name, objectMapper.readValue(parser, Object.class));
+            }
+        }
+        return object;
+    }
+
+    private List<Object> readTransactions(JsonParser parser, Predicate<List<String>> filter) throws IOException {
+        List<Object> transactions = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT || filter == ALL_TRANSACTIONS) {
+                transactions.add(objectMapper.readValue(parser, Object.class));
+                continue;
+            }
+            Object transaction = readTransaction(parser, filter);
+            if (transaction != null) {
+                transactions.add(transaction);
+            }
+        }
+        return transactions;
+    }
+
+    /**
+     * Reads one transaction, buffering its tokens only until the account keys decide whether it is kept.
+     *
+     * @return The transaction, or null if the filter rejected it
+     */
+    private Object readTransaction(JsonParser parser, Predicate<List<String>> filter) throws IOException {
+        TokenBuffer buffer = new TokenBuffer(parser);
+        buffer.copyCurrentEvent(parser);
+        int depth = 1;
+        List<String> keys = null;
+
+        while (depth > 0 && keys == null) {
+            JsonToken token = parser.nextToken();
+            buffer.copyCurrentEvent(parser);
+            if (token == JsonToken.FIELD_NAME && "accountKeys".equals(parser.currentName())) {
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    buffer.copyCurrentEvent(parser);
+                    keys = readAccountKeys(parser, buffer);
+                } else {
+                    buffer.copyCurrentStructure(parser);
+                }
+            } else if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+        }
+
+        if (keys != null && !filter.test(keys)) {
+            while (depth > 0) {
+                JsonToken token = parser.nextToken();
+                if (token.isStructStart()) {
+                    parser.skipChildren();
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            }
+            return null;
+        }
+
+        while (depth > 0) {
+            JsonToken token = parser.nextToken();
+            if (token.isStructStart()) {
+                buffer.copyCurrentStructure(parser);
+            } else {
+                buffer.copyCurrentEvent(parser);
+                if (token.isStructEnd()) {
+                    depth--;
+                }
+            }
+        }
+        try (JsonParser transaction = buffer.asParser(parser.getCodec())) {
+            return objectMapper.readValue(transaction, Object.class);
+        }
+    }
+
+    /**
+     * Reads the account keys, which are strings or, with jsonParsed and accounts details, objects carrying
+     * a pubkey. The tokens are copied to the buffer as they are read.
+     */
+    private static List<String> readAccountKeys(JsonParser parser, TokenBuffer buffer) throws IOException {
+        List<String> keys = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == JsonToken.VALUE_STRING) {
+                keys.add(parser.getText());
+                buffer.copyCurrentEvent(parser);
+            } else if (token == JsonToken.START_OBJECT) {
+                buffer.copyCurrentEvent(parser);
+                while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                    boolean pubkey = "pubkey".equals(parser.currentName());
+                    buffer.copyCurrentEvent(parser);
+                    token = parser.nextToken();
+                    if (pubkey && token == JsonToken.VALUE_STRING) {
+                        keys.add(parser.getText());
+                    }
+                    buffer.copyCurrentStructure(parser);
+                }
+                buffer.copyCurrentEvent(parser);
+            } else {
+                buffer.copyCurrentStructure(parser);
+            }
+        }
+        buffer.copyCurrentEvent(parser);
+        return keys;
+    }
+}
@@ -0,0 +1,387 @@
+package org.p2p.solanaj.ws;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+/**
+ * FanInSubscriptionClient opens the same subscription on several providers and delivers each update once,
+ * from whichever provider delivered it first.
+ *
+ * Notifications are identified by the fan-in subscription, the context slot and a discriminator: a SHA-256
+ * digest of the account content for account and program notifications, the transaction signature for logs. Identities
+ * are kept in a bounded window of recent notifications, so a provider that lags by more than the window
+ * can cause a duplicate delivery, but never a lost one.
+ *
+ * For every duplicate that arrives, the time by which the first provider beat the late one is credited
+ * to the first provider, so {@link #getProviderStats()} shows which provider is actually fastest.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * FanInSubscriptionClient fanIn = new FanInSubscriptionClient(List.of(
+ *     new SubscriptionWebSocketClient("wss://provider-a.example"),
+ *     new SubscriptionWebSocketClient("wss://provider-b.example")));
+ *
+ * fanIn.accountSubscribe(marketKey, data -> handle(data), Commitment.PROCESSED, "base64");
+ *
+ * for (FanInSubscriptionClient.ProviderStats stats : fanIn.getProviderStats()) {
+ *     System.out.println(stats);
+ * }
+ * }</pre>
+ */
+public class FanInSubscriptionClient implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(FanInSubscriptionClient.class.getName());
+
+    /** Default number of recent notifications remembered for deduplication */
+    public static final int DEFAULT_WINDOW_SIZE = 65536;
+
+    /**
+     * Arrival statistics for one provider.
+     */
+    public static final class ProviderStats {
+        private final String endpoint;
+        private final LongAdder notifications = new LongAdder();
+        private final LongAdder firstArrivals = new LongAdder();
+        private final LongAdder leadSamples = new LongAdder();
+        private final LongAdder totalLeadNanos = new LongAdder();
+        private final LongAccumulator maxLeadNanos = new LongAccumulator(Math::max, 0);
+
+        ProviderStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        /**
+         * @return The number of notifications received from this provider, including duplicates
+         */
+        public long getNotifications() {
+            return notifications.sum();
+        }
+
+        /**
+         * @return The number of notifications this provider delivered first
+         */
+        public long getFirstArrivals() {
+            return firstArrivals.sum();
+        }
+
+        /**
+         * @return The share of all delivered notifications that came from this provider first
+         */
+        public double getWinRate(long totalDelivered) {
+            return totalDelivered == 0 ? 0.0 : (double) getFirstArrivals() / totalDelivered;
+        }
+
+        /**
+         * @return The average time by which this provider beat a slower provider, in nanoseconds
+         */
+        public long getAverageLeadNanos() {
+            long samples = leadSamples.sum();
+            return samples == 0 ? 0 : totalLeadNanos.sum() / samples;
+        }
+
+        public long getMaxLeadNanos() {
+            return maxLeadNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return "ProviderStats{" +
+                   "endpoint=" + endpoint +
+                   ", notifications=" + getNotifications() +
+                   ", firstArrivals=" + getFirstArrivals() +
+                   ", averageLeadMicros=" + getAverageLeadNanos() / 1000 +
+                   ", maxLeadMicros=" + getMaxLeadNanos() / 1000 +
+                   '}';
+        }
+    }
+
+    /**
+     * Identity of a notification across providers.
+     */
+    private static final class NotificationKey {
+        final long subscription;
+        final long slot;
+        final Object discriminator;
+
+        NotificationKey(long subscription, long slot, Object discriminator) {
+            this.subscription = subscription;
+            this.slot = slot;
+            this.discriminator = discriminator;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof NotificationKey)) return false;
+            NotificationKey other = (NotificationKey) o;
+            return subscription == other.subscription && slot == other.slot
+                    && Objects.equals(discriminator, other.discriminator);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * Long.hashCode(subscription) + Long.hashCode(slot)) + Objects.hashCode(discriminator);
+        }
+    }
+
+    /**
+     * First arrival of a notification.
+     */
+    private static final class Arrival {
+        final int provider;
+        final long nanoTime;
+
+        Arrival(int provider, long nanoTime) {
+            this.provider = provider;
+            this.nanoTime = nanoTime;
+        }
+    }
+
+    private final List<SubscriptionWebSocketClient> providers;
+    private final List<ProviderStats> stats;
+    private final RecentKeyWindow<NotificationKey, Arrival> window;
+    private final LongAdder delivered = new LongAdder();
+    private final AtomicLong handleCounter = new AtomicLong(1);
+    private final Map<Long, List<CompletableFuture<Long>>> providerSubscriptions = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> DIGESTS = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * Constructs a fan-in client with the default deduplication window.
+     *
+     * @param providers The provider clients, in the order used by {@link #getProviderStats()}
+     */
+    public FanInSubscriptionClient(List<SubscriptionWebSocketClient> providers) {
+        this(providers, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructs a fan-in client.
+     *
+     * @param providers The provider clients, in the order used by {@link #getProviderStats()}
+     * @param windowSize The number of recent notifications remembered for deduplication
+     */
+    public FanInSubscriptionClient(List<SubscriptionWebSocketClient> providers, int windowSize) {
+        if (providers.isEmpty()) {
+            throw new IllegalArgumentException("At least one provider is required");
+        }
+        this.providers = List.copyOf(providers);
+        this.window = new RecentKeyWindow<>(windowSize);
+
+        List<ProviderStats> providerStats = new ArrayList<>();
+        for (SubscriptionWebSocketClient provider : this.providers) {
+            providerStats.add(new ProviderStats(provider.getEndpoint()));
+        }
+        this.stats = Collections.unmodifiableList(providerStats);
+    }
+
+    /**
+     * Subscribes to account updates on all providers.
+     *
+     * @return A CompletableFuture completing with the fan-in subscription handle once any provider confirmed
+     */
+    public CompletableFuture<Long> accountSubscribe(String key, NotificationEventListener listener, Commitment commitment, String encoding) {
+        return subscribe(listener, value -> accountDiscriminator(null, value),
+                (provider, forwarder) -> provider.accountSubscribe(key, forwarder, commitment, encoding));
+    }
+
+    /**
+     * Subscribes to program account updates on all providers.
+     *
+     * @return A CompletableFuture completing with the fan-in subscription handle once any provider confirmed
+     */
+    public CompletableFuture<Long> programSubscribe(String programId, NotificationEventListener listener, Commitment commitment, String encoding) {
+        return subscribe(listener, value -> {
+                    Object account = value.get("account");
+                    return accountDiscriminator(value.get("pubkey"),
+                            account instanceof Map ? (Map<?, ?>) account : Map.of());
+                },
+                (provider, forwarder) -> provider.programSubscribe(programId, forwarder, commitment, encoding));
+    }
+
+    /**
+     * Subscribes to logs mentioning the given accounts on all providers. Logs are deduplicated by signature.
+     *
+     * @return A CompletableFuture completing with the fan-in subscription handle once any provider confirmed
+     */
+    public CompletableFuture<Long> logsSubscribe(List<String> mentions, NotificationEventListener listener) {
+        return subscribe(listener, value -> value.get("signature"),
+                (provider, forwarder) -> provider.logsSubscribe(mentions, forwarder));
+    }
+
+    /**
+     * Subscribes to slot updates on all providers. Slots are deduplicated by slot number.
+     *
+     * @return A CompletableFuture completing with the fan-in subscription handle once any provider confirmed
+     */
+    public CompletableFuture<Long> slotSubscribe(NotificationEventListener listener) {
+        return subscribe(listener, value -> null, SubscriptionWebSocketClient::slotSubscribe);
+    }
+
+    // A digest rather than a hash code, so distinct updates in the same slot are never taken for duplicates,
+    // and rather than the content itself, so the window does not hold on to account data
+    private static Object accountDiscriminator(Object pubkey, Map<?, ?> value) {
+        Object lamports = value.get("lamports");
+        MessageDigest digest = DIGESTS.get();
+        digest.reset();
+        update(digest, pubkey);
+        update(digest, lamports instanceof Number ? ((Number) lamports).longValue() : null);
+        update(digest, value.get("owner"));
+        update(digest, value.get("data"));
+        update(digest, value.get("executable"));
+        return ByteBuffer.wrap(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, Object field) {
+        digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private CompletableFuture<Long> subscribe(NotificationEventListener listener,
+                                              Function<Map<?, ?>, Object> discriminator,
+                                              BiFunction<SubscriptionWebSocketClient, NotificationEventListener, CompletableFuture<Long>> subscription) {
+        long handle = handleCounter.getAndIncrement();
+        List<CompletableFuture<Long>> futures = new ArrayList<>(providers.size());
+        for (int i = 0; i < providers.size(); i++) {
+            futures.add(subscription.apply(providers.get(i), new Forwarder(handle, i, listener, discriminator)));
+        }
+        providerSubscriptions.put(handle, futures);
+
+        CompletableFuture<Long> established = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        futures.forEach(future -> future.whenComplete((id, error) -> {
+            if (error == null) {
+                established.complete(handle);
+            } else if (failures.incrementAndGet() == futures.size()) {
+                providerSubscriptions.remove(handle, futures);
+                established.completeExceptionally(error);
+            }
+        }));
+        return established;
+    }
+
+    /**
+     * Records the arrival of a notification.
+     *
+     * @return true if this is the first arrival and the notification should be delivered
+     */
+    boolean onArrival(NotificationKey key, int provider, long nanoTime) {
+        stats.get(provider).notifications.increment();
+
+        Arrival first = window.putIfAbsent(key, new Arrival(provider, nanoTime));
+        if (first == null) {
+            stats.get(provider).firstArrivals.increment();
+            delivered.increment();
+            return true;
+        }
+
+        long lead = nanoTime - first.nanoTime;
+        ProviderStats winner = stats.get(first.provider);
+        winner.leadSamples.increment();
+        winner.totalLeadNanos.add(lead);
+        winner.maxLeadNanos.accumulate(lead);
+        return false;
+    }
+
+    /**
+     * Unsubscribes a fan-in subscription on all providers.
+     *
+     * @param handle The handle returned by one of the subscribe methods
+     */
+    public void unsubscribe(Long handle) {
+        List<CompletableFuture<Long>> futures = providerSubscriptions.remove(handle);
+        if (futures == null) {
+            LOGGER.warning("Attempted to unsubscribe from non-existent fan-in subscription: " + handle);
+            return;
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            SubscriptionWebSocketClient provider = providers.get(i);
+            futures.get(i).thenAccept(provider::unsubscribe);
+        }
+    }
+
+    /**
+     * @return Live arrival statistics, one entry per provider in constructor order
+     */
+    public List<ProviderStats> getProviderStats() {
+        return stats;
+    }
+
+    /**
+     * @return The number of notifications delivered after deduplication
+     */
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * Unsubscribes all fan-in subscriptions. The provider clients are not closed.
+     */
+    @Override
+    public void close() {
+        for (Long handle : new ArrayList<>(providerSubscriptions.keySet())) {
+            unsubscribe(handle);
+        }
+    }
+
+    /**
+     * Per-provider listener that drops notifications another provider already delivered.
+     */
+    private class Forwarder implements NotificationEventListener {
+        private final long handle;
+        private final int provider;
+        private final NotificationEventListener listener;
+        private final Function<Map<?, ?>, Object> discriminator;
+
+        Forwarder(long handle, int provider, NotificationEventListener listener,
+                  Function<Map<?, ?>, Object> discriminator) {
+            this.handle = handle;
+            this.provider = provider;
+            this.listener = listener;
+            this.discriminator = discriminator;
+        }
+
+        @Override
+        public void onNotificationEvent(Object data) {
+            onNotificationEvent(data, -1);
+        }
+
+        @Override
+        public void onNotificationEvent(Object data, long slot) {
+            long now = System.nanoTime();
+            Object discriminatorValue = data instanceof Map ? discriminator.apply((Map<?, ?>) data) : data;
+            if (onArrival(new NotificationKey(handle, slot, discriminatorValue), provider, now)) {
+                listener.onNotificationEvent(data, slot);
+            }
+        }
+    }
+}
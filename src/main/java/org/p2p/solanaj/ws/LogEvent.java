@@ -0,0 +1,184 @@
+package org.p2p.solanaj.ws;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * A typed event extracted from a transaction's log messages by a {@link LogsMatcher}.
+ *
+ * Every event carries the transaction signature, the program that was executing when the line was
+ * logged (null if the program is not one of the registered programs and no pattern asked for every
+ * program) and the index of the line within the transaction's logs.
+ */
+public abstract class LogEvent {
+
+    private final String signature;
+    private final String programId;
+    private final int lineIndex;
+
+    LogEvent(String signature, String programId, int lineIndex) {
+        this.signature = signature;
+        this.programId = programId;
+        this.lineIndex = lineIndex;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public String getProgramId() {
+        return programId;
+    }
+
+    public int getLineIndex() {
+        return lineIndex;
+    }
+
+    /**
+     * {@code Program <id> invoke [<depth>]}
+     */
+    public static final class Invoke extends LogEvent {
+        private final int depth;
+
+        Invoke(String signature, String programId, int lineIndex, int depth) {
+            super(signature, programId, lineIndex);
+            this.depth = depth;
+        }
+
+        /**
+         * @return The invocation depth, 1 for top-level instructions
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public String toString() {
+            return "Invoke{programId=" + getProgramId() + ", depth=" + depth + '}';
+        }
+    }
+
+    /**
+     * {@code Program <id> success} or {@code Program <id> failed: <error>}
+     */
+    public static final class Result extends LogEvent {
+        private final String error;
+
+        Result(String signature, String programId, int lineIndex, String error) {
+            super(signature, programId, lineIndex);
+            this.error = error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * @return The failure message, or null if the invocation succeeded
+         */
+        public String getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{programId=" + getProgramId() + ", error=" + error + '}';
+        }
+    }
+
+    /**
+     * {@code Program <id> consumed <units> of <limit> compute units}
+     */
+    public static final class ComputeUnits extends LogEvent {
+        private final long consumed;
+        private final long limit;
+
+        ComputeUnits(String signature, String programId, int lineIndex, long consumed, long limit) {
+            super(signature, programId, lineIndex);
+            this.consumed = consumed;
+            this.limit = limit;
+        }
+
+        public long getConsumed() {
+            return consumed;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+
+        @Override
+        public String toString() {
+            return "ComputeUnits{programId=" + getProgramId() + ", consumed=" + consumed + ", limit=" + limit + '}';
+        }
+    }
+
+    /**
+     * {@code Program data: <base64> ...}, as written by sol_log_data.
+     */
+    public static final class Data extends LogEvent {
+        private final List<byte[]> fields;
+
+        Data(String signature, String programId, int lineIndex, List<byte[]> fields) {
+            super(signature, programId, lineIndex);
+            this.fields = fields;
+        }
+
+        /**
+         * @return The decoded data fields, in logged order
+         */
+        public List<byte[]> getFields() {
+            return fields;
+        }
+
+        @Override
+        public String toString() {
+            return "Data{programId=" + getProgramId() + ", fields=" + fields.size() + '}';
+        }
+    }
+
+    /**
+     * An Anchor event emitted with {@code emit!}: a {@code Program data:} line whose first eight bytes are
+     * the discriminator of a registered event.
+     */
+    public static final class AnchorEvent extends LogEvent {
+        private final String name;
+        private final byte[] data;
+        private final Object decoded;
+
+        AnchorEvent(String signature, String programId, int lineIndex, String name, byte[] data, Object decoded) {
+            super(signature, programId, lineIndex);
+            this.name = name;
+            this.data = data;
+            this.decoded = decoded;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return A little-endian read-only view of the event payload, after the discriminator
+         */
+        public ByteBuffer getPayload() {
+            return ByteBuffer.wrap(data, LogsMatcher.DISCRIMINATOR_LENGTH, data.length - LogsMatcher.DISCRIMINATOR_LENGTH)
+                    .slice()
+                    .asReadOnlyBuffer()
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * @return The value produced by the event's registered decoder, or null if none was registered
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T getDecoded() {
+            return (T) decoded;
+        }
+
+        @Override
+        public String toString() {
+            return "AnchorEvent{programId=" + getProgramId() + ", name=" + name + ", decoded=" + decoded + '}';
+        }
+    }
+}
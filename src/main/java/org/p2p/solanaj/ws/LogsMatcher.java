@@ -0,0 +1,425 @@
+package org.p2p.solanaj.ws;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.p2p.solanaj.utils.bip32.crypto.Hash;
+
+/**
+ * LogsMatcher extracts typed {@link LogEvent}s from the log messages of a logsNotification.
+ *
+ * Patterns are registered once through the {@link Builder}; each call to {@link #scan} then walks the log
+ * lines a single time, tracking the invocation stack so that {@code Program data:} lines are attributed to
+ * the program that logged them. Lines are matched in place: nothing is copied out of a line unless it
+ * produces an event, and Anchor event discriminators are checked by decoding only the first eleven base64
+ * characters of the data field.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * LogsMatcher matcher = LogsMatcher.builder()
+ *     .computeUnits(PROGRAM_ID)
+ *     .anchorEvent(PROGRAM_ID, "TradeEvent", payload -> new Trade(payload.getLong(), payload.getLong()))
+ *     .build();
+ *
+ * client.logsSubscribe(PROGRAM_ID, new LogsEventListener(matcher, event -> {
+ *     if (event instanceof LogEvent.AnchorEvent) {
+ *         Trade trade = ((LogEvent.AnchorEvent) event).getDecoded();
+ *     }
+ * }));
+ * }</pre>
+ */
+public class LogsMatcher {
+
+    /** Length of an Anchor event discriminator in bytes */
+    public static final int DISCRIMINATOR_LENGTH = 8;
+
+    private static final String PROGRAM_PREFIX = "Program ";
+    private static final String DATA_PREFIX = "Program data: ";
+    private static final String LOG_PREFIX = "Program log: ";
+    private static final String RETURN_PREFIX = "Program return: ";
+    private static final String INVOKE = "invoke [";
+    private static final String SUCCESS = "success";
+    private static final String FAILED = "failed: ";
+    private static final String CONSUMED = "consumed ";
+    private static final String OF = " of ";
+
+    /** Base64 characters needed to cover the eight discriminator bytes */
+    private static final int DISCRIMINATOR_CHARS = 11;
+    private static final int MAX_INVOKE_DEPTH = 16;
+
+    private static final int[] BASE64_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = i;
+        }
+    }
+
+    /**
+     * Program filter of a single pattern kind.
+     */
+    private static final class ProgramFilter {
+        boolean enabled;
+        boolean allPrograms;
+        final Set<String> programs = new HashSet<>();
+
+        void add(String programId) {
+            enabled = true;
+            if (programId == null) {
+                allPrograms = true;
+            } else {
+                programs.add(programId);
+            }
+        }
+
+        ProgramFilter copy() {
+            ProgramFilter copy = new ProgramFilter();
+            copy.enabled = enabled;
+            copy.allPrograms = allPrograms;
+            copy.programs.addAll(programs);
+            return copy;
+        }
+
+        boolean matches(String programId) {
+            return enabled && (allPrograms || (programId != null && programs.contains(programId)));
+        }
+    }
+
+    /**
+     * A registered Anchor event.
+     */
+    private static final class AnchorRegistration {
+        final String programId;
+        final String name;
+        final Function<ByteBuffer, ?> decoder;
+
+        AnchorRegistration(String programId, String name, Function<ByteBuffer, ?> decoder) {
+            this.programId = programId;
+            this.name = name;
+            this.decoder = decoder;
+        }
+    }
+
+    private final ProgramFilter invokes;
+    private final ProgramFilter results;
+    private final ProgramFilter computeUnits;
+    private final ProgramFilter data;
+    private final Map<Long, List<AnchorRegistration>> anchorEvents;
+    private final String[] knownPrograms;
+    private final boolean resolveAllPrograms;
+
+    private LogsMatcher(Builder builder) {
+        this.invokes = builder.invokes.copy();
+        this.results = builder.results.copy();
+        this.computeUnits = builder.computeUnits.copy();
+        this.data = builder.data.copy();
+        this.anchorEvents = new HashMap<>();
+        builder.anchorEvents.forEach((key, registrations) -> anchorEvents.put(key, List.copyOf(registrations)));
+
+        Set<String> programs = new LinkedHashSet<>();
+        programs.addAll(invokes.programs);
+        programs.addAll(results.programs);
+        programs.addAll(computeUnits.programs);
+        programs.addAll(data.programs);
+        boolean anyAnchorProgram = false;
+        for (List<AnchorRegistration> registrations : anchorEvents.values()) {
+            for (AnchorRegistration registration : registrations) {
+                if (registration.programId == null) {
+                    anyAnchorProgram = true;
+                } else {
+                    programs.add(registration.programId);
+                }
+            }
+        }
+        this.knownPrograms = programs.toArray(new String[0]);
+        this.resolveAllPrograms = invokes.allPrograms || results.allPrograms || computeUnits.allPrograms
+                || data.allPrograms || anyAnchorProgram;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Computes the discriminator Anchor prefixes to events of the given name.
+     *
+     * @param eventName The event struct name, e.g. "TradeEvent"
+     * @return The first eight bytes of sha256("event:" + eventName)
+     */
+    public static byte[] anchorEventDiscriminator(String eventName) {
+        return Arrays.copyOf(Hash.sha256(("event:" + eventName).getBytes(StandardCharsets.UTF_8)), DISCRIMINATOR_LENGTH);
+    }
+
+    /**
+     * Scans the log lines of one transaction and collects the matched events.
+     *
+     * @param signature The transaction signature
+     * @param logs The log lines, as delivered in the logsNotification
+     * @return The matched events, in log order
+     */
+    public List<LogEvent> parse(String signature, List<?> logs) {
+        List<LogEvent> events = new ArrayList<>();
+        scan(signature, logs, events::add);
+        return events;
+    }
+
+    /**
+     * Scans the log lines of one transaction, passing each matched event to the handler as it is found.
+     *
+     * @param signature The transaction signature
+     * @param logs The log lines, as delivered in the logsNotification; non-string entries are skipped
+     * @param handler Receives the matched events, in log order
+     */
+    public void scan(String signature, List<?> logs, Consumer<? super LogEvent> handler) {
+        String[] stack = new String[MAX_INVOKE_DEPTH];
+        int depth = 0;
+
+        for (int index = 0, size = logs.size(); index < size; index++) {
+            Object entry = logs.get(index);
+            if (!(entry instanceof String)) {
+                continue;
+            }
+            String line = (String) entry;
+            if (!line.startsWith(PROGRAM_PREFIX)) {
+                continue;
+            }
+
+            if (line.startsWith(DATA_PREFIX)) {
+                String current = depth > 0 && depth <= stack.length ? stack[depth - 1] : null;
+                matchData(signature, current, line, index, handler);
+                continue;
+            }
+            if (line.startsWith(LOG_PREFIX) || line.startsWith(RETURN_PREFIX)) {
+                continue;
+            }
+
+            int idEnd = line.indexOf(' ', PROGRAM_PREFIX.length());
+            if (idEnd < 0) {
+                continue;
+            }
+            int rest = idEnd + 1;
+
+            if (line.startsWith(INVOKE, rest)) {
+                int invokeDepth = (int) parseNumber(line, rest + INVOKE.length());
+                String programId = resolveProgram(line, idEnd);
+                if (invokeDepth > 0) {
+                    if (invokeDepth > stack.length) {
+                        stack = Arrays.copyOf(stack, Math.max(invokeDepth, stack.length * 2));
+                    }
+                    stack[invokeDepth - 1] = programId;
+                    depth = invokeDepth;
+                }
+                if (invokes.matches(programId)) {
+                    handler.accept(new LogEvent.Invoke(signature, programId, index, invokeDepth));
+                }
+            } else if (line.length() == rest + SUCCESS.length() && line.startsWith(SUCCESS, rest)) {
+                String programId = resolveProgram(line, idEnd);
+                depth = Math.max(0, depth - 1);
+                if (results.matches(programId)) {
+                    handler.accept(new LogEvent.Result(signature, programId, index, null));
+                }
+            } else if (line.startsWith(FAILED, rest)) {
+                String programId = resolveProgram(line, idEnd);
+                depth = Math.max(0, depth - 1);
+                if (results.matches(programId)) {
+                    handler.accept(new LogEvent.Result(signature, programId, index, line.substring(rest + FAILED.length())));
+                }
+            } else if (line.startsWith(CONSUMED, rest) && computeUnits.enabled) {
+                String programId = resolveProgram(line, idEnd);
+                if (computeUnits.matches(programId)) {
+                    int consumedStart = rest + CONSUMED.length();
+                    long consumed = parseNumber(line, consumedStart);
+                    int ofIndex = line.indexOf(OF, consumedStart);
+                    long limit = ofIndex < 0 ? -1 : parseNumber(line, ofIndex + OF.length());
+                    handler.accept(new LogEvent.ComputeUnits(signature, programId, index, consumed, limit));
+                }
+            }
+        }
+    }
+
+    private void matchData(String signature, String programId, String line, int index, Consumer<? super LogEvent> handler) {
+        int start = DATA_PREFIX.length();
+        int end = line.indexOf(' ', start);
+        boolean singleField = end < 0;
+
+        if (!anchorEvents.isEmpty() && singleField && line.length() - start > DISCRIMINATOR_CHARS) {
+            long discriminator = decodeDiscriminator(line, start);
+            List<AnchorRegistration> registrations = discriminator == -1 ? null : anchorEvents.get(discriminator);
+            if (registrations != null) {
+                for (AnchorRegistration registration : registrations) {
+                    if (registration.programId == null || registration.programId.equals(programId)) {
+                        byte[] bytes = decodeField(line, start, line.length());
+                        if (bytes == null || bytes.length < DISCRIMINATOR_LENGTH) {
+                            break;
+                        }
+                        Object decoded = null;
+                        if (registration.decoder != null) {
+                            ByteBuffer payload = ByteBuffer.wrap(bytes, DISCRIMINATOR_LENGTH, bytes.length - DISCRIMINATOR_LENGTH)
+                                    .slice()
+                                    .order(ByteOrder.LITTLE_ENDIAN);
+                            decoded = registration.decoder.apply(payload);
+                        }
+                        handler.accept(new LogEvent.AnchorEvent(signature, programId, index, registration.name, bytes, decoded));
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (data.matches(programId)) {
+            List<byte[]> fields = new ArrayList<>(singleField ? 1 : 2);
+            int fieldStart = start;
+            while (fieldStart < line.length()) {
+                int fieldEnd = line.indexOf(' ', fieldStart);
+                if (fieldEnd < 0) {
+                    fieldEnd = line.length();
+                }
+                byte[] field = decodeField(line, fieldStart, fieldEnd);
+                if (field != null) {
+                    fields.add(field);
+                }
+                fieldStart = fieldEnd + 1;
+            }
+            handler.accept(new LogEvent.Data(signature, programId, index, Collections.unmodifiableList(fields)));
+        }
+    }
+
+    /**
+     * Returns the registered program id spelled at {@code line[8, idEnd)} without copying it, falling back to a
+     * copy only when some pattern applies to every program.
+     */
+    private String resolveProgram(String line, int idEnd) {
+        int length = idEnd - PROGRAM_PREFIX.length();
+        for (String program : knownPrograms) {
+            if (program.length() == length && line.startsWith(program, PROGRAM_PREFIX.length())) {
+                return program;
+            }
+        }
+        return resolveAllPrograms ? line.substring(PROGRAM_PREFIX.length(), idEnd) : null;
+    }
+
+    private static byte[] decodeField(String line, int start, int end) {
+        try {
+            return Base64.getDecoder().decode(line.substring(start, end));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the first eight bytes of a base64 field, big-endian, or returns -1 on an invalid character.
+     */
+    private static long decodeDiscriminator(String line, int start) {
+        long value = 0;
+        for (int i = 0; i < DISCRIMINATOR_CHARS; i++) {
+            char c = line.charAt(start + i);
+            int sextet = c < 128 ? BASE64_VALUES[c] : -1;
+            if (sextet < 0) {
+                return -1;
+            }
+            value = i < DISCRIMINATOR_CHARS - 1 ? (value << 6) | sextet : (value << 4) | (sextet >>> 2);
+        }
+        return value;
+    }
+
+    private static long discriminatorKey(byte[] discriminator) {
+        return ByteBuffer.wrap(discriminator).getLong();
+    }
+
+    private static long parseNumber(String line, int start) {
+        long value = 0;
+        for (int i = start; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Registers the patterns a {@link LogsMatcher} looks for. A null program id matches every program.
+     */
+    public static class Builder {
+        private final ProgramFilter invokes = new ProgramFilter();
+        private final ProgramFilter results = new ProgramFilter();
+        private final ProgramFilter computeUnits = new ProgramFilter();
+        private final ProgramFilter data = new ProgramFilter();
+        private final Map<Long, List<AnchorRegistration>> anchorEvents = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Matches {@code Program <id> invoke [n]} lines.
+         */
+        public Builder invocations(String programId) {
+            invokes.add(programId);
+            return this;
+        }
+
+        /**
+         * Matches {@code Program <id> success} and {@code Program <id> failed: ...} lines.
+         */
+        public Builder results(String programId) {
+            results.add(programId);
+            return this;
+        }
+
+        /**
+         * Matches {@code Program <id> consumed <n> of <m> compute units} lines.
+         */
+        public Builder computeUnits(String programId) {
+            computeUnits.add(programId);
+            return this;
+        }
+
+        /**
+         * Matches {@code Program data:} lines logged by the program.
+         */
+        public Builder programData(String programId) {
+            data.add(programId);
+            return this;
+        }
+
+        /**
+         * Matches Anchor events of the given name, exposing the raw payload only.
+         */
+        public Builder anchorEvent(String programId, String eventName) {
+            return anchorEvent(programId, eventName, null);
+        }
+
+        /**
+         * Matches Anchor events of the given name and decodes their payload.
+         *
+         * @param programId The emitting program, or null for any program
+         * @param eventName The event struct name
+         * @param decoder Decodes the little-endian payload that follows the discriminator
+         */
+        public Builder anchorEvent(String programId, String eventName, Function<ByteBuffer, ?> decoder) {
+            anchorEvents.computeIfAbsent(discriminatorKey(anchorEventDiscriminator(eventName)), key -> new ArrayList<>())
+                    .add(new AnchorRegistration(programId, eventName, decoder));
+            return this;
+        }
+
+        public LogsMatcher build() {
+            return new LogsMatcher(this);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package org.p2p.solanaj.ws;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+/**
+ * NotificationPublisher exposes a WebSocket subscription as a {@link Flow.Publisher} that honours demand.
+ *
+ * Every Flow subscriber gets its own client subscription, opened when it subscribes and closed when it
+ * cancels; the client shares the underlying server subscription with identical subscriptions.
+ * Notifications that arrive while the subscriber has no outstanding demand are held according to the
+ * {@link Overflow} strategy: buffered up to a bound, with the oldest or newest dropped, or conflated so that
+ * only the latest value per key is kept.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * Flow.Publisher<NotificationPublisher.Notification> prices = client.accountPublisher(
+ *     oracleKey, Commitment.PROCESSED, "base64", 1, NotificationPublisher.Overflow.CONFLATE);
+ * }</pre>
+ */
+public class NotificationPublisher implements Flow.Publisher<NotificationPublisher.Notification> {
+
+    /**
+     * What happens to a notification that arrives while the buffer is full.
+     */
+    public enum Overflow {
+        /** Signal onError and cancel the subscription */
+        ERROR,
+        /** Drop the oldest buffered notification */
+        DROP_OLDEST,
+        /** Drop the arriving notification */
+        DROP_LATEST,
+        /** Replace the buffered notification with the same conflation key, regardless of the buffer size */
+        CONFLATE
+    }
+
+    /**
+     * A notification value together with the slot it was observed at.
+     */
+    public static final class Notification {
+        private final Object data;
+        private final long slot;
+
+        Notification(Object data, long slot) {
+            this.data = data;
+            this.slot = slot;
+        }
+
+        /**
+         * @return The notification value, as delivered to a {@link NotificationEventListener}
+         */
+        public Object getData() {
+            return data;
+        }
+
+        /**
+         * @return The context slot, or -1 if the notification carries none
+         */
+        public long getSlot() {
+            return slot;
+        }
+
+        @Override
+        public String toString() {
+            return "Notification{slot=" + slot + ", data=" + data + '}';
+        }
+    }
+
+    private static final Object SINGLE_KEY = new Object();
+
+    private final SubscriptionWebSocketClient client;
+    private final Function<NotificationEventListener, CompletableFuture<Long>> subscribe;
+    private final int bufferSize;
+    private final Overflow overflow;
+    private final Function<Object, Object> conflationKey;
+
+    /**
+     * Constructs a publisher.
+     *
+     * @param client The client used to unsubscribe on cancellation
+     * @param subscribe Opens the server subscription for one Flow subscriber
+     * @param bufferSize The number of notifications held while there is no demand
+     * @param overflow The strategy applied when the buffer is full
+     * @param conflationKey Maps a notification value to its conflation key, or null to conflate everything into the latest value
+     */
+    public NotificationPublisher(SubscriptionWebSocketClient client,
+                                 Function<NotificationEventListener, CompletableFuture<Long>> subscribe,
+                                 int bufferSize, Overflow overflow, Function<Object, Object> conflationKey) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.client = Objects.requireNonNull(client, "Client cannot be null");
+        this.subscribe = subscribe;
+        this.bufferSize = bufferSize;
+        this.overflow = overflow;
+        this.conflationKey = conflationKey != null ? conflationKey : data -> SINGLE_KEY;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Notification> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+        NotificationSubscription subscription = new NotificationSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.open();
+    }
+
+    /**
+     * The link between one Flow subscriber and its server subscription.
+     */
+    private final class NotificationSubscription implements Flow.Subscription, NotificationEventListener {
+        private final Flow.Subscriber<? super Notification> subscriber;
+        private final ArrayDeque<Notification> queue = new ArrayDeque<>();
+        private final Map<Object, Notification> conflated = new LinkedHashMap<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        // cancel() and the subscribe callback can both see a confirmed, cancelled subscription
+        private final AtomicBoolean unsubscribed = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+        private volatile CompletableFuture<Long> serverSubscription;
+
+        NotificationSubscription(Flow.Subscriber<? super Notification> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void open() {
+            if (cancelled) {
+                return;
+            }
+            serverSubscription = subscribe.apply(this);
+            serverSubscription.whenComplete((id, failure) -> {
+                if (failure != null) {
+                    fail(failure);
+                } else if (cancelled) {
+                    unsubscribe(id);
+                }
+            });
+        }
+
+        @Override
+        public void onNotificationEvent(Object data) {
+            onNotificationEvent(data, -1);
+        }
+
+        @Override
+        public void onNotificationEvent(Object data, long slot) {
+            if (cancelled) {
+                return;
+            }
+            if (!offer(new Notification(data, slot))) {
+                fail(new IllegalStateException("Notification buffer overflow, " + bufferSize + " notifications pending"));
+                return;
+            }
+            drain();
+        }
+
+        private synchronized boolean offer(Notification notification) {
+            if (overflow == Overflow.CONFLATE) {
+                conflated.put(conflationKey.apply(notification.getData()), notification);
+                return true;
+            }
+            if (queue.size() < bufferSize) {
+                queue.add(notification);
+                return true;
+            }
+            switch (overflow) {
+                case DROP_OLDEST:
+                    queue.poll();
+                    queue.add(notification);
+                    return true;
+                case DROP_LATEST:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private synchronized Notification poll() {
+            if (overflow == Overflow.CONFLATE) {
+                Iterator<Notification> iterator = conflated.values().iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                Notification next = iterator.next();
+                iterator.remove();
+                return next;
+            }
+            return queue.poll();
+        }
+
+        private synchronized void clear() {
+            queue.clear();
+            conflated.clear();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Demand must be positive, got " + n));
+                return;
+            }
+            requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            CompletableFuture<Long> current = serverSubscription;
+            if (current != null && current.isDone() && !current.isCompletedExceptionally()) {
+                unsubscribe(current.join());
+            }
+            // Otherwise the subscription is closed when the server confirms it
+            if (wip.getAndIncrement() == 0) {
+                clear();
+            }
+        }
+
+        private void unsubscribe(long id) {
+            if (unsubscribed.compareAndSet(false, true)) {
+                client.unsubscribe(id);
+            }
+        }
+
+        private void fail(Throwable failure) {
+            if (error == null) {
+                error = failure;
+            }
+            drain();
+        }
+
+        /**
+         * Delivers buffered notifications up to the outstanding demand. Only one thread drains at a time;
+         * signals that arrive meanwhile make the draining thread loop again.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                Throwable failure = error;
+                if (failure != null) {
+                    cancel();
+                    subscriber.onError(failure);
+                    return;
+                }
+
+                long demand = requested.get();
+                long emitted = 0;
+                while (emitted != demand && !cancelled) {
+                    Notification next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    subscriber.onNext(next);
+                    emitted++;
+                }
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.p2p.solanaj.ws;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded set of recently seen keys, each remembered with a value describing its first occurrence.
+ * Once the capacity is exceeded the oldest keys are forgotten.
+ *
+ * @param <K> The key type
+ * @param <V> The type of the value recorded with the first occurrence
+ */
+class RecentKeyWindow<K, V> {
+
+    private final int capacity;
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final Queue<K> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    RecentKeyWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the key if it has not been seen within the window.
+     *
+     * @param key The key
+     * @param value The value to remember if this is the first occurrence
+     * @return null if this is the first occurrence, otherwise the value recorded with the first occurrence
+     */
+    V putIfAbsent(K key, V value) {
+        V existing = entries.putIfAbsent(key, value);
+        if (existing != null) {
+            return existing;
+        }
+
+        order.add(key);
+        if (size.incrementAndGet() > capacity) {
+            K eldest = order.poll();
+            if (eldest != null) {
+                entries.remove(eldest);
+                size.decrementAndGet();
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return size.get();
+    }
+}
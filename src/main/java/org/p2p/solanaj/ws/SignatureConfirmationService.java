@@ -0,0 +1,251 @@
+package org.p2p.solanaj.ws;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.SignatureStatuses;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+/**
+ * SignatureConfirmationService confirms transaction signatures over a small set of long-lived WebSocket
+ * connections instead of opening a connection per transaction.
+ *
+ * Every call to {@link #confirm(String, long)} registers a signatureSubscribe on one of the shared sockets
+ * and returns a future that completes with the {@link SignatureNotification}. Futures whose blockhash has
+ * expired (the current block height passed the transaction's lastValidBlockHeight) are checked once more
+ * with getSignatureStatuses and otherwise fail with a {@link TimeoutException}. Subscriptions are removed
+ * when the future completes, whichever way it completes.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * SignatureConfirmationService confirmations = new SignatureConfirmationService(rpcClient);
+ *
+ * LatestBlockhash blockhash = rpcClient.getApi().getLatestBlockhash();
+ * String signature = rpcClient.getApi().sendTransaction(transaction, signers, blockhash.getValue().getBlockhash());
+ * confirmations.confirm(signature, blockhash.getValue().getLastValidBlockHeight())
+ *     .thenAccept(notification -> System.out.println("Confirmed, error: " + notification.getError()));
+ * }</pre>
+ */
+public class SignatureConfirmationService implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(SignatureConfirmationService.class.getName());
+
+    /** Number of blocks a blockhash stays valid for, used when the caller does not know lastValidBlockHeight */
+    public static final long MAX_PROCESSING_AGE = 151;
+
+    private static final long EXPIRY_CHECK_INTERVAL_MILLIS = 2000;
+    private static final int MAX_SIGNATURES_PER_STATUS_REQUEST = 256;
+
+    /**
+     * A signature awaiting confirmation.
+     */
+    private static final class Pending {
+        final String signature;
+        final CompletableFuture<SignatureNotification> future = new CompletableFuture<>();
+        final SubscriptionWebSocketClient socket;
+        volatile long lastValidBlockHeight;
+        volatile CompletableFuture<Long> subscription;
+        volatile boolean notified;
+
+        Pending(String signature, SubscriptionWebSocketClient socket, long lastValidBlockHeight) {
+            this.signature = signature;
+            this.socket = socket;
+            this.lastValidBlockHeight = lastValidBlockHeight;
+        }
+    }
+
+    private final RpcClient rpcClient;
+    private final List<SubscriptionWebSocketClient> sockets;
+    private final boolean ownsSockets;
+    private final Commitment commitment;
+
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "signature-confirmation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a service with a single socket to the WebSocket endpoint matching the RPC client's
+     * endpoint, confirming at finalized commitment.
+     *
+     * @param rpcClient The RPC client used for block height and status checks
+     */
+    public SignatureConfirmationService(RpcClient rpcClient) {
+        this(rpcClient, List.of(SubscriptionWebSocketClient.getInstance(rpcClient.getEndpoint())), Commitment.FINALIZED, true);
+    }
+
+    /**
+     * Constructs a service over the given sockets. The sockets stay owned by the caller and are not
+     * closed by {@link #close()}.
+     *
+     * @param rpcClient The RPC client used for block height and status checks
+     * @param sockets The sockets to spread subscriptions over
+     * @param commitment The commitment level to confirm at
+     */
+    public SignatureConfirmationService(RpcClient rpcClient, List<SubscriptionWebSocketClient> sockets, Commitment commitment) {
+        this(rpcClient, sockets, commitment, false);
+    }
+
+    private SignatureConfirmationService(RpcClient rpcClient, List<SubscriptionWebSocketClient> sockets,
+                                         Commitment commitment, boolean ownsSockets) {
+        if (sockets.isEmpty()) {
+            throw new IllegalArgumentException("At least one socket is required");
+        }
+        this.rpcClient = Objects.requireNonNull(rpcClient, "RpcClient cannot be null");
+        this.sockets = List.copyOf(sockets);
+        this.commitment = commitment;
+        this.ownsSockets = ownsSockets;
+        scheduler.scheduleWithFixedDelay(this::expireQuietly, EXPIRY_CHECK_INTERVAL_MILLIS,
+                EXPIRY_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for a signature without a known lastValidBlockHeight. The expiry is bounded by the maximum
+     * blockhash age, counted from the first expiry check.
+     *
+     * @param signature The transaction signature
+     * @return A future completing with the signature notification
+     */
+    public CompletableFuture<SignatureNotification> confirm(String signature) {
+        return confirm(signature, -1);
+    }
+
+    /**
+     * Waits for a signature to reach the service's commitment level.
+     *
+     * @param signature The transaction signature
+     * @param lastValidBlockHeight The last block height at which the transaction's blockhash is valid
+     * @return A future completing with the signature notification, or exceptionally with a
+     *         {@link TimeoutException} once the blockhash has expired, or with the subscription's error if
+     *         the signature cannot be subscribed to
+     */
+    public CompletableFuture<SignatureNotification> confirm(String signature, long lastValidBlockHeight) {
+        Pending existing = pending.get(signature);
+        if (existing != null) {
+            return existing.future;
+        }
+
+        SubscriptionWebSocketClient socket = sockets.get(Math.floorMod(signature.hashCode(), sockets.size()));
+        Pending entry = new Pending(signature, socket, lastValidBlockHeight);
+        existing = pending.putIfAbsent(signature, entry);
+        if (existing != null) {
+            return existing.future;
+        }
+
+        entry.future.whenComplete((notification, error) -> release(entry));
+        entry.subscription = socket.signatureSubscribe(signature, data -> {
+            if (data instanceof SignatureNotification) {
+                entry.notified = true;
+                entry.future.complete((SignatureNotification) data);
+            }
+        }, commitment);
+        // Without a subscription the signature would only be settled by the expiry check, if at all
+        entry.subscription.exceptionally(error -> {
+            entry.future.completeExceptionally(error);
+            return null;
+        });
+
+        return entry.future;
+    }
+
+    /**
+     * Forgets a completed signature and, unless the server already dropped it, cancels its subscription.
+     */
+    private void release(Pending entry) {
+        pending.remove(entry.signature, entry);
+        if (!entry.notified && entry.subscription != null) {
+            entry.subscription.thenAccept(entry.socket::unsubscribe);
+        }
+    }
+
+    private void expireQuietly() {
+        try {
+            expire();
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "Signature expiry check failed", ex);
+        }
+    }
+
+    /**
+     * Fails every pending signature whose blockhash has expired, after a last status check for
+     * notifications that may have been missed.
+     */
+    void expire() throws RpcException {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        long blockHeight = rpcClient.getApi().getBlockHeight(commitment);
+        List<Pending> expired = new ArrayList<>();
+        for (Pending entry : pending.values()) {
+            if (entry.lastValidBlockHeight < 0) {
+                entry.lastValidBlockHeight = blockHeight + MAX_PROCESSING_AGE;
+            } else if (blockHeight > entry.lastValidBlockHeight) {
+                expired.add(entry);
+            }
+        }
+
+        for (int from = 0; from < expired.size(); from += MAX_SIGNATURES_PER_STATUS_REQUEST) {
+            List<Pending> batch = expired.subList(from, Math.min(from + MAX_SIGNATURES_PER_STATUS_REQUEST, expired.size()));
+            List<String> signatures = new ArrayList<>(batch.size());
+            batch.forEach(entry -> signatures.add(entry.signature));
+
+            List<SignatureStatuses.Value> statuses = rpcClient.getApi().getSignatureStatuses(signatures, false).getValue();
+            for (int i = 0; i < batch.size(); i++) {
+                SignatureStatuses.Value status = statuses != null && i < statuses.size() ? statuses.get(i) : null;
+                Pending entry = batch.get(i);
+                if (status != null && reachedCommitment(status.getConfirmationStatus())) {
+                    entry.future.complete(new SignatureNotification(status.getErr()));
+                } else {
+                    entry.future.completeExceptionally(new TimeoutException(
+                            "Blockhash expired before signature was confirmed: " + entry.signature));
+                }
+            }
+        }
+    }
+
+    private boolean reachedCommitment(String confirmationStatus) {
+        if ("finalized".equals(confirmationStatus)) {
+            return true;
+        }
+        if ("confirmed".equals(confirmationStatus)) {
+            return commitment != Commitment.FINALIZED;
+        }
+        return "processed".equals(confirmationStatus) && commitment == Commitment.PROCESSED;
+    }
+
+    /**
+     * @return The number of signatures awaiting confirmation
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Cancels all pending confirmations and stops the expiry checks. Sockets created by the service are closed.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Pending entry : new ArrayList<>(pending.values())) {
+            entry.future.cancel(false);
+        }
+        if (ownsSockets) {
+            sockets.forEach(SubscriptionWebSocketClient::close);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package org.p2p.solanaj.ws;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+/**
+ * SlotClock tracks the cluster's current slots from WebSocket notifications.
+ *
+ * Processed slots come from slotSubscribe, confirmed and finalized slots from slotsUpdatesSubscribe
+ * (optimisticConfirmation and root events). The root reported by slotSubscribe is used for the finalized
+ * slot as well, so the clock keeps working on providers that do not offer slotsUpdatesSubscribe.
+ * If no processed slot arrives for a while, the clock falls back to polling getSlot over RPC.
+ *
+ * All getters are plain volatile reads and never perform I/O. The clock also keeps an exponentially
+ * weighted average of the observed slot duration, which is used to interpolate the slot at a given time.
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * SlotClock clock = new SlotClock(wsClient, rpcClient);
+ * clock.start();
+ *
+ * long confirmed = clock.getConfirmedSlot();
+ * long inTwoSeconds = clock.estimateSlotAt(Instant.now().plusSeconds(2));
+ * }</pre>
+ */
+public class SlotClock implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(SlotClock.class.getName());
+
+    /** Nominal slot duration used until enough slots have been observed */
+    public static final long DEFAULT_SLOT_DURATION_NANOS = TimeUnit.MILLISECONDS.toNanos(400);
+
+    private static final double SLOT_DURATION_SMOOTHING = 0.05;
+    private static final long MAX_SLOT_DURATION_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long DEFAULT_FALLBACK_AFTER_MILLIS = 2000;
+
+    /**
+     * A processed slot, the moment it was observed and the slot duration measured up to it. Published as one
+     * object so that readers always see a consistent set.
+     */
+    private static final class Anchor {
+        final long slot;
+        final long nanoTime;
+        final long epochMillis;
+        final double slotDurationNanos;
+
+        Anchor(long slot, long nanoTime, long epochMillis, double slotDurationNanos) {
+            this.slot = slot;
+            this.nanoTime = nanoTime;
+            this.epochMillis = epochMillis;
+            this.slotDurationNanos = slotDurationNanos;
+        }
+    }
+
+    private final SubscriptionWebSocketClient wsClient;
+    private final RpcClient rpcClient;
+    private final long fallbackAfterMillis;
+
+    private final AtomicReference<Anchor> anchor = new AtomicReference<>();
+    private final AtomicLong confirmedSlot = new AtomicLong(-1);
+    private final AtomicLong finalizedSlot = new AtomicLong(-1);
+
+    private volatile long lastNotificationNanos = System.nanoTime();
+
+    private ScheduledExecutorService scheduler;
+    private CompletableFuture<Long> slotSubscription;
+    private CompletableFuture<Long> slotsUpdatesSubscription;
+
+    /**
+     * Constructs a SlotClock with the default RPC fallback delay.
+     *
+     * @param wsClient The WebSocket client to subscribe with
+     * @param rpcClient The RPC client used as fallback, may be null to disable the fallback
+     */
+    public SlotClock(SubscriptionWebSocketClient wsClient, RpcClient rpcClient) {
+        this(wsClient, rpcClient, DEFAULT_FALLBACK_AFTER_MILLIS);
+    }
+
+    /**
+     * Constructs a SlotClock.
+     *
+     * @param wsClient The WebSocket client to subscribe with
+     * @param rpcClient The RPC client used as fallback, may be null to disable the fallback
+     * @param fallbackAfterMillis How long without a slot notification before getSlot is polled
+     */
+    public SlotClock(SubscriptionWebSocketClient wsClient, RpcClient rpcClient, long fallbackAfterMillis) {
+        this.wsClient = wsClient;
+        this.rpcClient = rpcClient;
+        this.fallbackAfterMillis = fallbackAfterMillis;
+    }
+
+    /**
+     * Subscribes to slot updates, seeds the clock over RPC and starts the fallback poller.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+
+        slotSubscription = wsClient.slotSubscribe(this::onSlotNotification);
+        slotsUpdatesSubscription = wsClient.slotsUpdatesSubscribe(this::onSlotsUpdatesNotification);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        if (rpcClient != null) {
+            scheduler.execute(this::refreshQuietly);
+            scheduler.scheduleWithFixedDelay(() -> {
+                long silentMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastNotificationNanos);
+                if (silentMillis >= fallbackAfterMillis) {
+                    refreshQuietly();
+                }
+            }, fallbackAfterMillis, fallbackAfterMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Polls all three commitment levels over RPC and feeds the results into the clock.
+     *
+     * @throws RpcException If an RPC call fails
+     */
+    public void refresh() throws RpcException {
+        onProcessedSlot(rpcClient.getApi().getSlot(Commitment.PROCESSED), System.nanoTime(), System.currentTimeMillis());
+        onConfirmedSlot(rpcClient.getApi().getSlot(Commitment.CONFIRMED));
+        onFinalizedSlot(rpcClient.getApi().getSlot(Commitment.FINALIZED));
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RpcException ex) {
+            LOGGER.log(Level.WARNING, "Slot fallback poll failed", ex);
+        }
+    }
+
+    private void onSlotNotification(Object data) {
+        if (data instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) data;
+            lastNotificationNanos = System.nanoTime();
+            if (map.get("slot") instanceof Number) {
+                onProcessedSlot(((Number) map.get("slot")).longValue(), lastNotificationNanos, System.currentTimeMillis());
+            }
+            if (map.get("root") instanceof Number) {
+                onFinalizedSlot(((Number) map.get("root")).longValue());
+            }
+        }
+    }
+
+    private void onSlotsUpdatesNotification(Object data) {
+        if (data instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) data;
+            if (!(map.get("slot") instanceof Number)) {
+                return;
+            }
+            long slot = ((Number) map.get("slot")).longValue();
+            String type = String.valueOf(map.get("type"));
+            if ("optimisticConfirmation".equals(type)) {
+                onConfirmedSlot(slot);
+            } else if ("root".equals(type)) {
+                onFinalizedSlot(slot);
+            }
+        }
+    }
+
+    /**
+     * Records a processed slot and updates the measured slot duration. Notifications and the RPC fallback
+     * may report slots concurrently, so the anchor only ever moves forward.
+     */
+    void onProcessedSlot(long slot, long nanoTime, long epochMillis) {
+        Anchor previous;
+        Anchor next;
+        do {
+            previous = anchor.get();
+            if (previous == null) {
+                next = new Anchor(slot, nanoTime, epochMillis, DEFAULT_SLOT_DURATION_NANOS);
+            } else if (slot <= previous.slot) {
+                return;
+            } else {
+                double slotDuration = previous.slotDurationNanos;
+                long sample = (nanoTime - previous.nanoTime) / (slot - previous.slot);
+                if (sample > 0 && sample < MAX_SLOT_DURATION_SAMPLE_NANOS) {
+                    slotDuration += SLOT_DURATION_SMOOTHING * (sample - slotDuration);
+                }
+                next = new Anchor(slot, nanoTime, epochMillis, slotDuration);
+            }
+        } while (!anchor.compareAndSet(previous, next));
+    }
+
+    void onConfirmedSlot(long slot) {
+        confirmedSlot.accumulateAndGet(slot, Math::max);
+    }
+
+    void onFinalizedSlot(long slot) {
+        finalizedSlot.accumulateAndGet(slot, Math::max);
+    }
+
+    /**
+     * @return The latest processed slot, or -1 if none has been observed yet
+     */
+    public long getProcessedSlot() {
+        Anchor current = anchor.get();
+        return current != null ? current.slot : -1;
+    }
+
+    /**
+     * @return The latest confirmed slot, or -1 if none has been observed yet
+     */
+    public long getConfirmedSlot() {
+        return confirmedSlot.get();
+    }
+
+    /**
+     * @return The latest finalized slot, or -1 if none has been observed yet
+     */
+    public long getFinalizedSlot() {
+        return finalizedSlot.get();
+    }
+
+    /**
+     * Returns the latest slot for a commitment level. Commitment levels other than processed and
+     * confirmed are treated as finalized.
+     *
+     * @param commitment The commitment level
+     * @return The latest slot, or -1 if none has been observed yet
+     */
+    public long getSlot(Commitment commitment) {
+        switch (commitment) {
+            case PROCESSED:
+            case RECENT:
+                return getProcessedSlot();
+            case CONFIRMED:
+            case SINGLE:
+            case SINGLE_GOSSIP:
+                return getConfirmedSlot();
+            default:
+                return getFinalizedSlot();
+        }
+    }
+
+    /**
+     * @return The measured average slot duration in nanoseconds
+     */
+    public long getSlotDurationNanos() {
+        Anchor current = anchor.get();
+        return current != null ? (long) current.slotDurationNanos : DEFAULT_SLOT_DURATION_NANOS;
+    }
+
+    /**
+     * Interpolates the processed slot at the current time.
+     *
+     * @return The estimated slot, or -1 if no slot has been observed yet
+     */
+    public long estimateCurrentSlot() {
+        Anchor current = anchor.get();
+        if (current == null) {
+            return -1;
+        }
+        return current.slot + (long) ((System.nanoTime() - current.nanoTime) / current.slotDurationNanos);
+    }
+
+    /**
+     * Interpolates (or extrapolates) the processed slot at a wall-clock time.
+     *
+     * @param time The wall-clock time
+     * @return The estimated slot, or -1 if no slot has been observed yet
+     */
+    public long estimateSlotAt(Instant time) {
+        Anchor current = anchor.get();
+        if (current == null) {
+            return -1;
+        }
+        double elapsedNanos = TimeUnit.MILLISECONDS.toNanos(time.toEpochMilli() - current.epochMillis);
+        return current.slot + (long) Math.floor(elapsedNanos / current.slotDurationNanos);
+    }
+
+    /**
+     * Unsubscribes from slot updates and stops the fallback poller.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        slotSubscription.thenAccept(wsClient::unsubscribe);
+        slotsUpdatesSubscription.thenAccept(wsClient::unsubscribe);
+    }
+}
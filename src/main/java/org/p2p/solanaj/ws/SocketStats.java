@@ -0,0 +1,70 @@
+package org.p2p.solanaj.ws;
+
+/**
+ * Traffic received on one WebSocket connection of a {@link SubscriptionWebSocketClient}.
+ *
+ * Byte counts are payload sizes after permessage-deflate decompression; text frames are counted by their
+ * UTF-8 size. The frame arrives decoded as a string, so counting it scans every character once more; Solana
+ * nodes send only text frames, which puts that scan on the path of every notification. Rates are averaged
+ * over the time since the previous snapshot of the same connection, or since it was opened.
+ */
+public final class SocketStats {
+
+    private final boolean standby;
+    private final boolean compressed;
+    private final long frames;
+    private final long bytes;
+    private final double framesPerSecond;
+    private final double bytesPerSecond;
+
+    SocketStats(boolean standby, boolean compressed, long frames, long bytes, double framesPerSecond, double bytesPerSecond) {
+        this.standby = standby;
+        this.compressed = compressed;
+        this.frames = frames;
+        this.bytes = bytes;
+        this.framesPerSecond = framesPerSecond;
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * @return true for a failover connection that has not replaced the active one yet
+     */
+    public boolean isStandby() {
+        return standby;
+    }
+
+    /**
+     * @return true if the server accepted permessage-deflate in the handshake
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * @return The number of frames received since the connection opened
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return The number of payload bytes received since the connection opened
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public double getFramesPerSecond() {
+        return framesPerSecond;
+    }
+
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "SocketStats{standby=" + standby + ", compressed=" + compressed + ", frames=" + frames + ", bytes=" + bytes
+                + ", framesPerSecond=" + framesPerSecond + ", bytesPerSecond=" + bytesPerSecond + '}';
+    }
+}
@@ -1,27 +1,49 @@
 package org.p2p.solanaj.ws;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.logging.Logger;
+import org.p2p.solanaj.rpc.types.DataSize;
+import org.p2p.solanaj.rpc.types.DataSlice;
+import org.p2p.solanaj.rpc.types.Filter;
+import org.p2p.solanaj.rpc.types.Memcmp;
 import org.p2p.solanaj.rpc.types.config.Commitment;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
+import okio.ByteString;
+import okio.Utf8;
 import org.p2p.solanaj.rpc.types.RpcRequest;
 import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+import org.p2p.solanaj.ws.listeners.ProgramAccountEventListener;
 
 /**
  * SubscriptionWebSocketClient is a WebSocket client for managing subscriptions to various Solana events.
@@ -72,42 +94,108 @@ public class SubscriptionWebSocketClient {
     private static final int MAX_RECONNECT_DELAY = 30000;
     private static final int INITIAL_RECONNECT_DELAY = 1000;
     private static final int CONNECTION_TIMEOUT = 10;
+    private static final int FAILOVER_RESUBSCRIBE_TIMEOUT = 5000;
+    private static final long MIN_WATCHDOG_PERIOD_MILLIS = 50;
+    private static final long RESUBSCRIBE_ACK_TIMEOUT = 10000;
+    private static final int MAX_RESUBSCRIBE_ATTEMPTS = 3;
 
+    /** Default interval of WebSocket protocol pings; a pong missing for a full interval fails the connection */
+    public static final Duration DEFAULT_PING_INTERVAL = Duration.ofSeconds(15);
+    /** Default number of subscribe requests sent per second when re-establishing subscriptions */
+    public static final double DEFAULT_RESUBSCRIBE_RATE = 100;
+    /** Default number of unacknowledged subscribe requests allowed when re-establishing subscriptions */
+    public static final int DEFAULT_MAX_IN_FLIGHT_SUBSCRIBE_REQUESTS = 50;
+    /** Default size, in bytes, from which outgoing messages are compressed when permessage-deflate is negotiated */
+    public static final long DEFAULT_MINIMUM_DEFLATE_SIZE = 1024;
+
+    private final WebSocket.Factory webSocketFactory;
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BlockNotificationParser blockNotificationParser = new BlockNotificationParser(objectMapper);
     private final String endpoint;
-    
-    private WebSocket webSocket;
+    private final Duration staleAfter;
+
+    private volatile Connection connection;
+    private final AtomicReference<Connection> standby = new AtomicReference<>();
     private final AtomicBoolean isConnected = new AtomicBoolean(false);
     private final AtomicBoolean isConnecting = new AtomicBoolean(false);
     private final AtomicBoolean shouldReconnect = new AtomicBoolean(true);
-    
-    private final Map<String, SubscriptionInfo> subscriptions = new ConcurrentHashMap<>();
-    private final Map<Long, NotificationEventListener> subscriptionListeners = new ConcurrentHashMap<>();
-    private final Map<Long, String> subscriptionToAccount = new ConcurrentHashMap<>();
+
+    private final ObjectWriter subscriptionKeyWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<Long, Subscription> handles = new ConcurrentHashMap<>();
     private final AtomicLong requestIdCounter = new AtomicLong(1);
-    
+    private final AtomicLong handleCounter = new AtomicLong(1);
+    private final AtomicLong subscriptionCounter = new AtomicLong(1);
+    private final AtomicLong failoverCount = new AtomicLong();
+
+    private volatile double resubscribeRate = DEFAULT_RESUBSCRIBE_RATE;
+    private volatile int maxInFlightSubscribeRequests = DEFAULT_MAX_IN_FLIGHT_SUBSCRIBE_REQUESTS;
+    private volatile long lastResubscribeNanos = -1;
+
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
     private final CountDownLatch connectLatch = new CountDownLatch(1);
-    
+
     private int reconnectDelay = INITIAL_RECONNECT_DELAY;
 
     /**
-     * Inner class to hold subscription information.
+     * Inner class to hold subscription information. There is one server subscription per unique method and
+     * parameters, shared by all local listeners that asked for it; the server subscription ID changes with
+     * every connection.
      */
-    private static class SubscriptionInfo {
-        final RpcRequest request;
-        final NotificationEventListener listener;
-        final String method;
+    private static class Subscription {
+        final long id;
+        final String key;
+        final CustomRpcRequest request;
         final String unsubscribeMethod;
-        final CompletableFuture<Long> subscriptionFuture;
+        final String account;
+        /** Decides which transactions of a block notification are read, or null for all of them */
+        final Predicate<List<String>> transactionFilter;
+        final List<LocalListener> listeners = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> established = new CompletableFuture<>();
+        volatile long serverId = -1;
+        volatile Connection connection;
+        volatile int priority;
+        /** Set once the last listener left or the server dropped the subscription; guarded by this */
+        volatile boolean closed;
 
-        SubscriptionInfo(RpcRequest request, NotificationEventListener listener, String method, String unsubscribeMethod, CompletableFuture<Long> subscriptionFuture) {
+        Subscription(long id, String key, CustomRpcRequest request, String unsubscribeMethod, String account,
+                     Predicate<List<String>> transactionFilter) {
+            this.id = id;
+            this.key = key;
             this.request = request;
-            this.listener = listener;
-            this.method = method;
             this.unsubscribeMethod = unsubscribeMethod;
-            this.subscriptionFuture = subscriptionFuture;
+            this.account = account;
+            this.transactionFilter = transactionFilter;
+        }
+    }
+
+    /**
+     * A listener attached to a shared subscription. The handle identifies it to callers and stays the same
+     * across reconnects.
+     */
+    private static class LocalListener {
+        final long handle;
+        final NotificationEventListener listener;
+        volatile int priority;
+
+        LocalListener(long handle, NotificationEventListener listener) {
+            this.handle = handle;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * A subscribe request awaiting the server's confirmation on one connection.
+     */
+    private static class PendingRequest {
+        final Subscription subscription;
+        final boolean retried;
+        final CompletableFuture<Long> confirmed = new CompletableFuture<>();
+
+        PendingRequest(Subscription subscription, boolean retried) {
+            this.subscription = subscription;
+            this.retried = retried;
         }
     }
 
@@ -159,134 +247,430 @@ public class SubscriptionWebSocketClient {
     }
 
     /**
-     * Constructs a SubscriptionWebSocketClient with the given endpoint.
+     * Constructs a SubscriptionWebSocketClient with the given endpoint, protocol pings every
+     * {@link #DEFAULT_PING_INTERVAL} and no application watchdog.
      *
      * @param endpoint The WebSocket endpoint URL
      */
     public SubscriptionWebSocketClient(String endpoint) {
-        this.endpoint = endpoint;
-        this.httpClient = new OkHttpClient.Builder()
+        this(endpoint, DEFAULT_PING_INTERVAL, null);
+    }
+
+    /**
+     * Constructs a SubscriptionWebSocketClient with liveness monitoring.
+     *
+     * Protocol pings detect a dead TCP connection; the watchdog additionally detects a connection that is
+     * alive but no longer delivers notifications. With the watchdog enabled the client keeps a slot
+     * subscription open, so a healthy connection is never silent for longer than a slot. When no message
+     * arrives for {@code staleAfter}, a new connection is opened, every subscription is re-established on it,
+     * and only then is the stale connection dropped.
+     *
+     * @param endpoint The WebSocket endpoint URL
+     * @param pingInterval Interval of WebSocket protocol pings, or {@link Duration#ZERO} to disable pings
+     * @param staleAfter Longest silence tolerated before failing over, e.g. a few slot durations, or null to disable the watchdog
+     */
+    public SubscriptionWebSocketClient(String endpoint, Duration pingInterval, Duration staleAfter) {
+        this(endpoint, pingInterval, staleAfter, DEFAULT_MINIMUM_DEFLATE_SIZE);
+    }
+
+    /**
+     * Constructs a SubscriptionWebSocketClient with liveness monitoring and a compression threshold.
+     *
+     * Every handshake offers permessage-deflate; whether notifications arrive compressed is up to the server,
+     * see {@link SocketStats#isCompressed()}. Outgoing requests are compressed from the given size on.
+     *
+     * @param endpoint The WebSocket endpoint URL
+     * @param pingInterval Interval of WebSocket protocol pings, or {@link Duration#ZERO} to disable pings
+     * @param staleAfter Longest silence tolerated before failing over, or null to disable the watchdog
+     * @param minimumDeflateSize Smallest outgoing message, in bytes, that is compressed once deflate is negotiated
+     */
+    public SubscriptionWebSocketClient(String endpoint, Duration pingInterval, Duration staleAfter, long minimumDeflateSize) {
+        this(endpoint, new OkHttpClient.Builder()
                 .connectTimeout(CONNECTION_TIMEOUT, TimeUnit.SECONDS)
                 .readTimeout(0, TimeUnit.SECONDS) // No read timeout for WebSocket
                 .writeTimeout(0, TimeUnit.SECONDS) // No write timeout for WebSocket
-                .build();
-        
+                .pingInterval(pingInterval)
+                .minWebSocketMessageToCompress(minimumDeflateSize)
+                .build(), staleAfter);
+    }
+
+    SubscriptionWebSocketClient(String endpoint, WebSocket.Factory webSocketFactory, Duration staleAfter) {
+        this.endpoint = endpoint;
+        this.webSocketFactory = webSocketFactory;
+        this.httpClient = webSocketFactory instanceof OkHttpClient ? (OkHttpClient) webSocketFactory : null;
+        this.staleAfter = staleAfter;
+
         connect();
+        if (staleAfter != null) {
+            startWatchdog();
+        }
     }
 
     /**
      * Connects to the WebSocket server.
      */
     public void connect() {
-        if (isConnecting.get() || isConnected.get()) {
+        if (isConnected.get() || standby.get() != null || !isConnecting.compareAndSet(false, true)) {
             return;
         }
-        
-        isConnecting.set(true);
+
         LOGGER.info("Connecting to WebSocket endpoint: " + endpoint);
-        
+        Connection newConnection = new Connection();
+        connection = newConnection;
+        open(newConnection);
+    }
+
+    private void open(Connection target) {
         Request request = new Request.Builder()
                 .url(endpoint)
                 .build();
-                
-        webSocket = httpClient.newWebSocket(request, new WebSocketListener() {
-            @Override
-            public void onOpen(WebSocket webSocket, Response response) {
-                LOGGER.info("WebSocket connection opened");
-                isConnected.set(true);
-                isConnecting.set(false);
-                reconnectDelay = INITIAL_RECONNECT_DELAY;
-                connectLatch.countDown();
-                startHeartbeat();
-                resubscribeAll();
-            }
+        target.webSocket = webSocketFactory.newWebSocket(request, target);
+    }
 
-            @Override
-            public void onMessage(WebSocket webSocket, String text) {
-                handleMessage(text);
-            }
+    /**
+     * A single WebSocket connection and the subscriptions established on it.
+     */
+    private class Connection extends WebSocketListener {
+        final Map<String, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+        final Map<Long, Subscription> active = new ConcurrentHashMap<>();
+        final Set<Long> requested = ConcurrentHashMap.newKeySet();  // Subscription ids
+        final AtomicBoolean lost = new AtomicBoolean(false);
+        volatile Resubscription resubscription;
+        volatile WebSocket webSocket;
+        volatile boolean open;
+        volatile boolean compressed;
+        volatile long lastMessageNanos = System.nanoTime();
+        final LongAdder frames = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        // Previous traffic sample, guarded by this
+        long sampleNanos = System.nanoTime();
+        long sampleFrames;
+        long sampleBytes;
 
-            @Override
-            public void onClosing(WebSocket webSocket, int code, String reason) {
-                LOGGER.info("WebSocket closing: " + code + " - " + reason);
-                isConnected.set(false);
-            }
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            this.webSocket = webSocket;
+            lastMessageNanos = System.nanoTime();
+            String extensions = response != null ? response.header("Sec-WebSocket-Extensions") : null;
+            compressed = extensions != null && extensions.contains("permessage-deflate");
+            open = true;
+            onConnectionOpen(this);
+        }
 
-            @Override
-            public void onClosed(WebSocket webSocket, int code, String reason) {
-                LOGGER.info("WebSocket closed: " + code + " - " + reason);
-                isConnected.set(false);
-                stopHeartbeat();
-                if (shouldReconnect.get()) {
-                    scheduleReconnect();
-                }
-            }
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            lastMessageNanos = System.nanoTime();
+            frames.increment();
+            // The payload's UTF-8 size rather than its UTF-16 length, at the cost of a scan of the text
+            bytes.add(Utf8.size(text));
+            handleMessage(this, () -> objectMapper.createParser(text));
+        }
 
-            @Override
-            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
-                LOGGER.log(Level.SEVERE, "WebSocket connection failed", t);
-                isConnected.set(false);
-                isConnecting.set(false);
-                stopHeartbeat();
-                if (shouldReconnect.get()) {
-                    scheduleReconnect();
-                }
+        /**
+         * Parses binary frames straight from their bytes, without decoding them to a String first.
+         */
+        @Override
+        public void onMessage(WebSocket webSocket, ByteString payload) {
+            lastMessageNanos = System.nanoTime();
+            frames.increment();
+            bytes.add(payload.size());
+            handleMessage(this, () -> objectMapper.createParser(new ByteBufferBackedInputStream(payload.asByteBuffer())));
+        }
+
+        synchronized SocketStats sample(boolean standby) {
+            long now = System.nanoTime();
+            long totalFrames = frames.sum();
+            long totalBytes = bytes.sum();
+            double seconds = Math.max(now - sampleNanos, 1) / 1e9;
+            SocketStats stats = new SocketStats(standby, compressed, totalFrames, totalBytes,
+                    (totalFrames - sampleFrames) / seconds, (totalBytes - sampleBytes) / seconds);
+            sampleNanos = now;
+            sampleFrames = totalFrames;
+            sampleBytes = totalBytes;
+            return stats;
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            LOGGER.info("WebSocket closing: " + code + " - " + reason);
+            onConnectionLost(this);
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            LOGGER.info("WebSocket closed: " + code + " - " + reason);
+            onConnectionLost(this);
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            LOGGER.log(Level.SEVERE, "WebSocket connection failed", t);
+            onConnectionLost(this);
+        }
+    }
+
+    private void onConnectionOpen(Connection opened) {
+        if (opened == standby.get()) {
+            LOGGER.info("Failover connection opened, moving " + subscriptions.size() + " subscriptions");
+            Resubscription resubscription = resubscribeAll(opened);
+            long pacingMillis = resubscribeRate > 0 ? (long) (resubscription.total * 1000 / resubscribeRate) : 0;
+            resubscription.done
+                    .orTimeout(FAILOVER_RESUBSCRIBE_TIMEOUT + pacingMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((ignored, error) -> promote(opened));
+            return;
+        }
+
+        LOGGER.info("WebSocket connection opened");
+        isConnected.set(true);
+        isConnecting.set(false);
+        reconnectDelay = INITIAL_RECONNECT_DELAY;
+        connectLatch.countDown();
+        resubscribeAll(opened);
+    }
+
+    private void onConnectionLost(Connection lostConnection) {
+        lostConnection.open = false;
+        if (!lostConnection.lost.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (standby.compareAndSet(lostConnection, null)) {
+            LOGGER.warning("Failover connection failed");
+            if (shouldReconnect.get() && !isConnected.get()) {
+                scheduleReconnect();
             }
-        });
+            return;
+        }
+        if (lostConnection != connection) {
+            // A connection replaced by failover
+            return;
+        }
+
+        isConnected.set(false);
+        isConnecting.set(false);
+        if (shouldReconnect.get() && standby.get() == null) {
+            scheduleReconnect();
+        }
+    }
+
+    /**
+     * Makes a failover connection the current one and drops the connection it replaces.
+     */
+    private void promote(Connection replacement) {
+        if (!standby.compareAndSet(replacement, null)) {
+            return;
+        }
+
+        Connection previous = connection;
+        connection = replacement;
+        isConnected.set(replacement.open);
+        isConnecting.set(false);
+        reconnectDelay = INITIAL_RECONNECT_DELAY;
+        connectLatch.countDown();
+
+        if (previous != null && previous.webSocket != null) {
+            // A stale connection may never complete the close handshake
+            previous.webSocket.cancel();
+        }
+        LOGGER.info("Failover to new connection complete");
+    }
+
+    /**
+     * Replaces the current connection without a gap: a new connection is opened, all subscriptions are
+     * re-established on it, and only then is the current connection dropped. Notifications keep flowing
+     * from the current connection until each subscription is confirmed on the new one.
+     */
+    void failover() {
+        if (!shouldReconnect.get()) {
+            return;
+        }
+        Connection replacement = new Connection();
+        if (!standby.compareAndSet(null, replacement)) {
+            return;
+        }
+
+        failoverCount.incrementAndGet();
+        LOGGER.warning("Opening failover connection to " + endpoint);
+        open(replacement);
+    }
+
+    private void startWatchdog() {
+        long period = Math.max(staleAfter.toMillis() / 4, MIN_WATCHDOG_PERIOD_MILLIS);
+        scheduler.scheduleWithFixedDelay(this::checkLiveness, period, period, TimeUnit.MILLISECONDS);
+        // Slots arrive several times a second, so this keeps a healthy connection from ever being quiet
+        slotSubscribe(data -> { });
+    }
+
+    /**
+     * Fails over if the current connection has been silent for longer than the watchdog allows.
+     */
+    void checkLiveness() {
+        Connection current = connection;
+        if (current == null || !current.open || standby.get() != null) {
+            return;
+        }
+
+        long silentNanos = System.nanoTime() - current.lastMessageNanos;
+        if (silentNanos > staleAfter.toNanos()) {
+            LOGGER.warning("No messages for " + TimeUnit.NANOSECONDS.toMillis(silentNanos) + " ms, connection is stale");
+            failover();
+        }
     }
 
     /**
      * Handles incoming WebSocket messages.
      *
-     * @param message The received message
+     * @param source The connection the message arrived on
+     * @param message The received frame
      */
-    private void handleMessage(String message) {
+    private void handleMessage(Connection source, BlockNotificationParser.FrameSource message) {
         try {
-            JsonNode messageNode = objectMapper.readTree(message);
-            
-            // Check if this is a subscription confirmation
-            if (messageNode.has("result") && messageNode.get("result").isInt()) {
-                int subscriptionId = messageNode.get("result").asInt();
-                String requestId = messageNode.has("id") ? messageNode.get("id").asText() : null;
-                
-                if (requestId != null) {
-                    SubscriptionInfo info = subscriptions.get(requestId);
-                    if (info != null) {
-                        subscriptionListeners.put((long) subscriptionId, info.listener);
-                        subscriptions.remove(requestId);
-                        
-                        // Track the account for this subscription
-                        String account = extractAccountFromRequest((CustomRpcRequest) info.request);
-                        if (account != null) {
-                            subscriptionToAccount.put((long) subscriptionId, account);
-                        }
-                        
-                        // Complete the future with the subscription ID
-                        info.subscriptionFuture.complete((long) subscriptionId);
-                        
-                        LOGGER.info("Subscription established with ID: " + subscriptionId + " for account: " + account);
+            if (handleBlockNotification(source, message)) {
+                return;
+            }
+            JsonNode messageNode;
+            try (JsonParser parser = message.open()) {
+                messageNode = objectMapper.readTree(parser);
+            }
+            if (messageNode == null) {
+                return;
+            }
+
+            // Check if this is the response to a subscribe request
+            JsonNode id = messageNode.get("id");
+            if (id != null && !id.isNull()) {
+                PendingRequest pending = source.pendingRequests.remove(id.asText());
+                if (pending != null) {
+                    JsonNode result = messageNode.get("result");
+                    if (result != null && result.isIntegralNumber()) {
+                        confirmSubscription(source, pending, result.asLong());
+                    } else {
+                        failSubscription(pending, messageNode.get("error"));
                     }
+                    return;
                 }
-                return;
             }
-            
+
             // Check if this is an error
             if (messageNode.has("error")) {
                 JsonNode error = messageNode.get("error");
                 LOGGER.severe("RPC Error: " + error);
                 return;
             }
-            
+
             // Check if this is a notification
             if (messageNode.has("method")) {
-                handleNotification(messageNode);
+                handleNotification(source, messageNode);
             }
-            
+
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Error processing message", ex);
         }
     }
 
+    /**
+     * Streams a block notification instead of building a tree of it, reading only the transactions that
+     * pass the subscription's transaction filter.
+     *
+     * @return false if the message is not a block notification
+     */
+    private boolean handleBlockNotification(Connection source, BlockNotificationParser.FrameSource message) throws IOException {
+        BlockNotificationParser.Notification notification = blockNotificationParser.parse(message, serverId -> {
+            Subscription subscription = source.active.get(serverId);
+            if (subscription == null || subscription.connection != source) {
+                return null;
+            }
+            return subscription.transactionFilter != null ? subscription.transactionFilter : BlockNotificationParser.ALL_TRANSACTIONS;
+        });
+        if (notification == null) {
+            return false;
+        }
+
+        Subscription subscription = source.active.get(notification.subscription);
+        if (notification.value != null && subscription != null) {
+            dispatch(subscription, notification.value, notification.slot);
+        } else if (subscription == null) {
+            LOGGER.warning("No listener found for subscription ID: " + notification.subscription);
+        }
+        return true;
+    }
+
+    private void confirmSubscription(Connection source, PendingRequest pending, long serverId) {
+        Subscription subscription = pending.subscription;
+        if (subscription.closed) {
+            // Unsubscribed while the request was in flight
+            sendUnsubscribe(source, subscription.unsubscribeMethod, serverId);
+            pending.confirmed.complete(serverId);
+            return;
+        }
+
+        Connection previous = subscription.connection;
+        if (previous != null && previous != source) {
+            previous.active.remove(subscription.serverId, subscription);
+        }
+        source.active.put(serverId, subscription);
+        subscription.serverId = serverId;
+        subscription.connection = source;
+
+        if (subscription.established.complete(null)) {
+            LOGGER.info("Subscription established with ID: " + serverId + " for account: " + subscription.account);
+        } else {
+            LOGGER.fine("Subscription " + subscription.id + " re-established with server ID: " + serverId);
+        }
+        pending.confirmed.complete(serverId);
+    }
+
+    private void failSubscription(PendingRequest pending, JsonNode error) {
+        Subscription subscription = pending.subscription;
+        LOGGER.severe("Subscription request failed: " + error);
+        pending.confirmed.completeExceptionally(new IllegalStateException("Subscription request failed: " + error));
+        if (!pending.retried) {
+            failSubscription(subscription, "Subscription request failed: " + error);
+        }
+    }
+
+    /**
+     * Drops a subscription that could not be established and fails the futures of its listeners, unless it
+     * was already established once.
+     */
+    private void failSubscription(Subscription subscription, String message) {
+        if (!subscription.established.isDone() && close(subscription)) {
+            subscription.established.completeExceptionally(new IllegalStateException(message));
+        }
+    }
+
+    /**
+     * Marks a subscription closed and forgets it together with all its listeners.
+     *
+     * @return true if this call closed the subscription
+     */
+    private boolean close(Subscription subscription) {
+        synchronized (subscription) {
+            if (subscription.closed) {
+                return false;
+            }
+            subscription.closed = true;
+        }
+        subscriptions.remove(subscription.key, subscription);
+        for (LocalListener local : subscription.listeners) {
+            handles.remove(local.handle, subscription);
+        }
+        return true;
+    }
+
+    /**
+     * Passes a parsed notification to every listener of a subscription.
+     */
+    private static void dispatch(Subscription subscription, Object data, long slot) {
+        for (LocalListener local : subscription.listeners) {
+            try {
+                local.listener.onNotificationEvent(data, slot);
+            } catch (Exception ex) {
+                LOGGER.log(Level.SEVERE, "Notification listener " + local.handle + " failed", ex);
+            }
+        }
+    }
+
 
     /**
      * Extracts the account from a subscription request.
@@ -333,56 +717,88 @@ public class SubscriptionWebSocketClient {
     /**
      * Handles notification messages.
      *
+     * @param source The connection the notification arrived on
      * @param messageNode The notification message as JsonNode
      */
-    private void handleNotification(JsonNode messageNode) {
+    private void handleNotification(Connection source, JsonNode messageNode) {
         try {
             String method = messageNode.get("method").asText();
             JsonNode params = messageNode.get("params");
             
             if (params != null && params.has("subscription")) {
-                Long subscriptionId = params.get("subscription").asLong();
-                NotificationEventListener listener = subscriptionListeners.get(subscriptionId);
+                long serverId = params.get("subscription").asLong();
+                Subscription subscription = source.active.get(serverId);
                 
-                if (listener != null) {
+                if (subscription != null && subscription.connection == source) {
                     JsonNode result = params.get("result");
                     
                     switch (method) {
                         case "signatureNotification":
                             if (result != null && result.has("value")) {
                                 JsonNode value = result.get("value");
-                                Object err = value.has("err") ? value.get("err") : null;
-                                listener.onNotificationEvent(new SignatureNotification(err));
+                                // The server cancels signature subscriptions after the first notification
+                                source.active.remove(serverId, subscription);
+                                close(subscription);
+                                JsonNode err = value.get("err");
+                                dispatch(subscription, new SignatureNotification(err == null || err.isNull() ? null : err),
+                                        extractContextSlot(result));
+                            }
+                            break;
+                        case "slotNotification":
+                        case "slotsUpdatesNotification":
+                        case "voteNotification":
+                            // These results carry no context/value wrapper
+                            if (result != null && result.isObject()) {
+                                @SuppressWarnings("unchecked")
+                                Map<String, Object> resultMap = objectMapper.convertValue(result, Map.class);
+                                long slot = result.has("slot") ? result.get("slot").asLong() : -1;
+                                dispatch(subscription, resultMap, slot);
+                            }
+                            break;
+                        case "rootNotification":
+                            if (result != null && result.isNumber()) {
+                                dispatch(subscription, result.asLong(), result.asLong());
                             }
                             break;
                         case "accountNotification":
                         case "logsNotification":
                         case "blockNotification":
                         case "programNotification":
-                        case "rootNotification":
-                        case "slotNotification":
-                        case "slotsUpdatesNotification":
-                        case "voteNotification":
                             if (result != null && result.has("value")) {
                                 JsonNode value = result.get("value");
-                                // Convert JsonNode to Map for compatibility
+                                // Convert JsonNode to Map for compatibility, once for all listeners
                                 @SuppressWarnings("unchecked")
                                 Map<String, Object> valueMap = objectMapper.convertValue(value, Map.class);
-                                listener.onNotificationEvent(valueMap);
+                                dispatch(subscription, valueMap, extractContextSlot(result));
                             }
                             break;
                         default:
                             LOGGER.warning("Unknown notification method: " + method);
                     }
-                } else {
-                    LOGGER.warning("No listener found for subscription ID: " + subscriptionId);
+                } else if (subscription == null) {
+                    LOGGER.warning("No listener found for subscription ID: " + serverId);
                 }
+                // Otherwise the subscription already moved to a newer connection
             }
         } catch (Exception ex) {
             LOGGER.log(Level.SEVERE, "Error handling notification", ex);
         }
     }
 
+    /**
+     * Extracts the context slot from a notification result.
+     *
+     * @param result The notification result node
+     * @return The context slot, or -1 if the result carries no context
+     */
+    private static long extractContextSlot(JsonNode result) {
+        JsonNode context = result.get("context");
+        if (context != null && context.has("slot")) {
+            return context.get("slot").asLong();
+        }
+        return -1;
+    }
+
     /**
      * Subscribes to account updates for the given key with specified commitment level and encoding.
      *
@@ -425,6 +841,24 @@ public class SubscriptionWebSocketClient {
         return addSubscription(rpcRequest, listener, "signatureSubscribe", "signatureUnsubscribe");
     }
 
+    /**
+     * Subscribes to signature updates for the given signature at the given commitment level.
+     * The server cancels the subscription after the first notification.
+     *
+     * @param signature The signature to subscribe to
+     * @param listener The listener to handle notifications
+     * @param commitment The commitment level at which the notification is sent
+     * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
+     */
+    public CompletableFuture<Long> signatureSubscribe(String signature, NotificationEventListener listener, Commitment commitment) {
+        List<Object> params = new ArrayList<>();
+        params.add(signature);
+        params.add(Map.of("commitment", commitment.getValue()));
+
+        CustomRpcRequest rpcRequest = new CustomRpcRequest("signatureSubscribe", params);
+        return addSubscription(rpcRequest, listener, "signatureSubscribe", "signatureUnsubscribe");
+    }
+
     /**
      * Subscribes to log updates for the given mention.
      *
@@ -461,11 +895,44 @@ public class SubscriptionWebSocketClient {
      * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
      */
     public CompletableFuture<Long> blockSubscribe(NotificationEventListener listener, Commitment commitment, String encoding) {
+        return blockSubscribe(null, null, listener, commitment, encoding, "full", true);
+    }
+
+    /**
+     * Subscribes to block updates, reading only the transactions that pass a local filter.
+     *
+     * Block notifications are parsed as a stream: transactions are read one by one and those the filter
+     * rejects are skipped without being materialized, see {@link BlockNotificationParser}. Listeners receive
+     * the notification value with only the kept transactions. A subscription with a transaction filter is not
+     * shared with other subscriptions.
+     *
+     * @param mentionsAccountOrProgram Only blocks with a transaction mentioning this account or program are
+     *                                 sent by the server, or null for all blocks
+     * @param transactionFilter Decides from a transaction's account keys whether it is read, for example
+     *                          {@link BlockNotificationParser#mentions(String...)}, or null for all transactions
+     * @param listener The listener to handle notifications
+     * @param commitment The commitment level for the subscription
+     * @param encoding The encoding format for block data
+     * @param transactionDetails The level of transaction detail: full, accounts, signatures or none
+     * @param showRewards Whether to include the rewards array
+     * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
+     */
+    public CompletableFuture<Long> blockSubscribe(String mentionsAccountOrProgram, Predicate<List<String>> transactionFilter,
+                                                  NotificationEventListener listener, Commitment commitment, String encoding,
+                                                  String transactionDetails, boolean showRewards) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("encoding", encoding);
+        config.put("commitment", commitment.getValue());
+        config.put("transactionDetails", transactionDetails);
+        config.put("showRewards", showRewards);
+        config.put("maxSupportedTransactionVersion", 0);
+
         List<Object> params = new ArrayList<>();
-        params.add(Map.of("encoding", encoding, "commitment", commitment.getValue()));
+        params.add(mentionsAccountOrProgram != null ? Map.of("mentionsAccountOrProgram", mentionsAccountOrProgram) : "all");
+        params.add(config);
 
         CustomRpcRequest rpcRequest = new CustomRpcRequest("blockSubscribe", params);
-        return addSubscription(rpcRequest, listener, "blockSubscribe", "blockUnsubscribe");
+        return addSubscription(rpcRequest, listener, "blockSubscribe", "blockUnsubscribe", transactionFilter);
     }
 
     public CompletableFuture<Long> blockSubscribe(NotificationEventListener listener, Commitment commitment) {
@@ -486,14 +953,76 @@ public class SubscriptionWebSocketClient {
      * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
      */
     public CompletableFuture<Long> programSubscribe(String programId, NotificationEventListener listener, Commitment commitment, String encoding) {
+        return programSubscribe(programId, null, null, listener, commitment, encoding);
+    }
+
+    /**
+     * Subscribes to updates of the program accounts that pass the given filters. The filters are applied by
+     * the server, so accounts that do not match are never sent.
+     *
+     * @param programId The program ID to subscribe to
+     * @param filters The {@link Filter} (memcmp) and {@link DataSize} filters an account must pass, or null for all accounts
+     * @param dataSlice The part of the account data to return, or null for all of it
+     * @param listener The listener to handle notifications
+     * @param commitment The commitment level for the subscription
+     * @param encoding The encoding format for program data
+     * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
+     */
+    public CompletableFuture<Long> programSubscribe(String programId, List<Object> filters, DataSlice dataSlice,
+                                                    NotificationEventListener listener, Commitment commitment, String encoding) {
+        Map<String, Object> config = new HashMap<>();
+        config.put("encoding", encoding);
+        config.put("commitment", commitment.getValue());
+        if (filters != null && !filters.isEmpty()) {
+            config.put("filters", filters);
+        }
+        if (dataSlice != null) {
+            config.put("dataSlice", dataSlice);
+        }
+
         List<Object> params = new ArrayList<>();
         params.add(programId);
-        params.add(Map.of("encoding", encoding, "commitment", commitment.getValue()));
+        params.add(config);
 
         CustomRpcRequest rpcRequest = new CustomRpcRequest("programSubscribe", params);
         return addSubscription(rpcRequest, listener, "programSubscribe", "programUnsubscribe");
     }
 
+    /**
+     * Subscribes to updates of the program accounts that match the memcmp list and data size, the same
+     * filters as {@link org.p2p.solanaj.rpc.RpcApi#getProgramAccounts(org.p2p.solanaj.core.PublicKey, List, int)}.
+     *
+     * @param programId The program ID to subscribe to
+     * @param memcmpList The memcmp filters an account must match
+     * @param dataSize The exact data size of the accounts
+     * @param listener The listener to handle notifications
+     * @param commitment The commitment level for the subscription
+     * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
+     */
+    public CompletableFuture<Long> programSubscribe(String programId, List<Memcmp> memcmpList, int dataSize,
+                                                    NotificationEventListener listener, Commitment commitment) {
+        List<Object> filters = new ArrayList<>();
+        memcmpList.forEach(memcmp -> filters.add(new Filter(memcmp)));
+        filters.add(new DataSize(dataSize));
+        return programSubscribe(programId, filters, null, listener, commitment, "base64");
+    }
+
+    /**
+     * Subscribes to updates of the filtered program accounts and delivers each changed account as an
+     * {@link AccountView} with its public key. Data is requested in base64 so that it can be decoded.
+     *
+     * @param programId The program ID to subscribe to
+     * @param filters The {@link Filter} (memcmp) and {@link DataSize} filters an account must pass, or null for all accounts
+     * @param dataSlice The part of the account data to return, or null for all of it
+     * @param commitment The commitment level for the subscription
+     * @param handler Receives the decoded accounts
+     * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
+     */
+    public CompletableFuture<Long> programAccountSubscribe(String programId, List<Object> filters, DataSlice dataSlice,
+                                                           Commitment commitment, Consumer<? super AccountView> handler) {
+        return programSubscribe(programId, filters, dataSlice, new ProgramAccountEventListener(handler), commitment, "base64");
+    }
+
     public CompletableFuture<Long> programSubscribe(String programId, NotificationEventListener listener, Commitment commitment) {
         return programSubscribe(programId, listener, commitment, "base64");
     }
@@ -547,7 +1076,84 @@ public class SubscriptionWebSocketClient {
     }
 
     /**
-     * Adds a subscription to the client.
+     * Publishes account updates for the given key to Flow subscribers, honouring their demand. Each Flow
+     * subscriber opens its own subscription, which is unsubscribed when the Flow subscription is cancelled.
+     * Conflation keeps only the latest account state.
+     *
+     * @param key The account key to subscribe to
+     * @param commitment The commitment level for the subscription
+     * @param encoding The encoding format for Account data
+     * @param bufferSize The number of notifications held while a subscriber has no demand
+     * @param overflow The strategy applied when the buffer is full
+     * @return A publisher of account notifications
+     */
+    public Flow.Publisher<NotificationPublisher.Notification> accountPublisher(String key, Commitment commitment, String encoding,
+                                                                              int bufferSize, NotificationPublisher.Overflow overflow) {
+        return new NotificationPublisher(this, listener -> accountSubscribe(key, listener, commitment, encoding),
+                bufferSize, overflow, null);
+    }
+
+    /**
+     * Publishes program account updates to Flow subscribers, honouring their demand. Conflation keeps the
+     * latest state of each account.
+     *
+     * @param programId The program ID to subscribe to
+     * @param commitment The commitment level for the subscription
+     * @param encoding The encoding format for program data
+     * @param bufferSize The number of notifications held while a subscriber has no demand
+     * @param overflow The strategy applied when the buffer is full
+     * @return A publisher of program notifications
+     */
+    public Flow.Publisher<NotificationPublisher.Notification> programPublisher(String programId, Commitment commitment, String encoding,
+                                                                              int bufferSize, NotificationPublisher.Overflow overflow) {
+        return new NotificationPublisher(this, listener -> programSubscribe(programId, listener, commitment, encoding),
+                bufferSize, overflow, data -> data instanceof Map ? ((Map<?, ?>) data).get("pubkey") : null);
+    }
+
+    /**
+     * Publishes logs for the given mentions to Flow subscribers, honouring their demand. Conflation drops
+     * repeated notifications for the same signature.
+     *
+     * @param mentions The mentions to subscribe to
+     * @param bufferSize The number of notifications held while a subscriber has no demand
+     * @param overflow The strategy applied when the buffer is full
+     * @return A publisher of logs notifications
+     */
+    public Flow.Publisher<NotificationPublisher.Notification> logsPublisher(List<String> mentions, int bufferSize,
+                                                                           NotificationPublisher.Overflow overflow) {
+        return new NotificationPublisher(this, listener -> logsSubscribe(mentions, listener),
+                bufferSize, overflow, data -> data instanceof Map ? ((Map<?, ?>) data).get("signature") : null);
+    }
+
+    /**
+     * Publishes slot updates to Flow subscribers, honouring their demand. Conflation keeps only the latest slot.
+     *
+     * @param bufferSize The number of notifications held while a subscriber has no demand
+     * @param overflow The strategy applied when the buffer is full
+     * @return A publisher of slot notifications
+     */
+    public Flow.Publisher<NotificationPublisher.Notification> slotPublisher(int bufferSize, NotificationPublisher.Overflow overflow) {
+        return new NotificationPublisher(this, this::slotSubscribe, bufferSize, overflow, null);
+    }
+
+    /**
+     * Publishes blocks to Flow subscribers, honouring their demand. Conflation keeps only the latest block.
+     *
+     * @param commitment The commitment level for the subscription
+     * @param encoding The encoding format for block data
+     * @param bufferSize The number of notifications held while a subscriber has no demand
+     * @param overflow The strategy applied when the buffer is full
+     * @return A publisher of block notifications
+     */
+    public Flow.Publisher<NotificationPublisher.Notification> blockPublisher(Commitment commitment, String encoding, int bufferSize,
+                                                                            NotificationPublisher.Overflow overflow) {
+        return new NotificationPublisher(this, listener -> blockSubscribe(listener, commitment, encoding),
+                bufferSize, overflow, null);
+    }
+
+    /**
+     * Adds a subscription to the client. A subscription with the same method and parameters as an existing
+     * one shares its server subscription instead of opening another.
      *
      * @param rpcRequest The RPC request for the subscription
      * @param listener The listener for notification events
@@ -556,28 +1162,93 @@ public class SubscriptionWebSocketClient {
      * @return A CompletableFuture that will complete with the subscription ID when the subscription is established
      */
     private CompletableFuture<Long> addSubscription(CustomRpcRequest rpcRequest, NotificationEventListener listener, String method, String unsubscribeMethod) {
-        String requestId = String.valueOf(requestIdCounter.getAndIncrement());
-        rpcRequest.setId(requestId);
-        
+        return addSubscription(rpcRequest, listener, method, unsubscribeMethod, null);
+    }
+
+    /**
+     * Adds a subscription whose block notifications are read through a transaction filter.
+     *
+     * @param transactionFilter The transaction filter, or null to share the subscription as usual
+     */
+    private CompletableFuture<Long> addSubscription(CustomRpcRequest rpcRequest, NotificationEventListener listener, String method,
+                                                    String unsubscribeMethod, Predicate<List<String>> transactionFilter) {
+        LocalListener local = new LocalListener(handleCounter.getAndIncrement(), listener);
+        // Listeners only share a server subscription if they read the same transactions
+        String key = transactionFilter == null ? subscriptionKey(rpcRequest) : subscriptionKey(rpcRequest) + "#" + local.handle;
+
+        Subscription subscription;
+        while (true) {
+            subscription = subscriptions.computeIfAbsent(key, k -> new Subscription(subscriptionCounter.getAndIncrement(),
+                    k, rpcRequest, unsubscribeMethod, extractAccountFromRequest(rpcRequest), transactionFilter));
+            synchronized (subscription) {
+                if (!subscription.closed) {
+                    subscription.listeners.add(local);
+                    break;
+                }
+            }
+            subscriptions.remove(key, subscription);
+        }
+        handles.put(local.handle, subscription);
+
         CompletableFuture<Long> subscriptionFuture = new CompletableFuture<>();
-        
-        SubscriptionInfo info = new SubscriptionInfo(rpcRequest, listener, method, unsubscribeMethod, subscriptionFuture);
-        subscriptions.put(requestId, info);
-        
-        if (isConnected.get()) {
-            sendRequest(rpcRequest);
+        subscription.established.whenComplete((ignored, error) -> {
+            if (error != null) {
+                subscriptionFuture.completeExceptionally(error);
+            } else {
+                subscriptionFuture.complete(local.handle);
+            }
+        });
+
+        Connection current = connection;
+        if (current != null && current.open) {
+            subscribe(current, subscription, false);
         }
-        
+
         return subscriptionFuture;
     }
 
     /**
-     * Sends an RPC request over the WebSocket connection.
+     * Builds the key under which identical subscriptions are shared: the method and its parameters, with
+     * object keys in a fixed order.
+     */
+    private String subscriptionKey(CustomRpcRequest request) {
+        try {
+            return request.getMethod() + subscriptionKeyWriter.writeValueAsString(request.getParams());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Subscription parameters cannot be serialized", ex);
+        }
+    }
+
+    /**
+     * Sends the subscribe request of a subscription on a connection, at most once per connection.
      *
+     * @param retried Whether a rejected request is retried by the caller instead of failing the subscription
+     * @return A future completing with the server subscription ID, or null if the request was already sent
+     */
+    private CompletableFuture<Long> subscribe(Connection target, Subscription subscription, boolean retried) {
+        if (!target.requested.add(subscription.id)) {
+            return null;
+        }
+
+        String requestId = String.valueOf(requestIdCounter.getAndIncrement());
+        CustomRpcRequest request = new CustomRpcRequest(subscription.request.getMethod(), subscription.request.getParams());
+        request.setId(requestId);
+
+        PendingRequest pending = new PendingRequest(subscription, retried);
+        target.pendingRequests.put(requestId, pending);
+        sendRequest(target, request);
+        return pending.confirmed;
+    }
+
+    /**
+     * Sends an RPC request over a WebSocket connection.
+     *
+     * @param target The connection to send on
      * @param request The RPC request to send
      */
-    private void sendRequest(CustomRpcRequest request) {
-        if (webSocket != null && isConnected.get()) {
+    private void sendRequest(Connection target, CustomRpcRequest request) {
+        WebSocket webSocket = target.webSocket;
+        if (webSocket != null && target.open) {
             try {
                 String json = objectMapper.writeValueAsString(request);
                 LOGGER.info("Sending WebSocket request: " + json);
@@ -588,33 +1259,45 @@ public class SubscriptionWebSocketClient {
         }
     }
 
+    private void sendUnsubscribe(Connection target, String unsubscribeMethod, long serverId) {
+        List<Object> params = new ArrayList<>();
+        params.add(serverId);
+
+        CustomRpcRequest unsubRequest = new CustomRpcRequest(unsubscribeMethod, params);
+        unsubRequest.setId(String.valueOf(requestIdCounter.getAndIncrement()));
+        sendRequest(target, unsubRequest);
+    }
+
     /**
-     * Unsubscribes from a subscription.
+     * Unsubscribes from a subscription. The server subscription is cancelled once its last listener
+     * has unsubscribed.
      *
      * @param subscriptionId The subscription ID to unsubscribe from
      */
     public void unsubscribe(Long subscriptionId) {
-        NotificationEventListener listener = subscriptionListeners.remove(subscriptionId);
-        String account = subscriptionToAccount.remove(subscriptionId);
+        Subscription subscription = handles.remove(subscriptionId);
         
-        if (listener != null) {
-            List<Object> params = new ArrayList<>();
-            params.add(subscriptionId);
-            
-            // Find the unsubscribe method for this subscription
-            String unsubscribeMethod = "accountUnsubscribe"; // Default
-            for (SubscriptionInfo info : subscriptions.values()) {
-                if (info.listener == listener) {
-                    unsubscribeMethod = info.unsubscribeMethod;
-                    break;
-                }
+        if (subscription != null) {
+            boolean last;
+            synchronized (subscription) {
+                subscription.listeners.removeIf(local -> local.handle == subscriptionId);
+                last = subscription.listeners.isEmpty();
             }
-            
-            CustomRpcRequest unsubRequest = new CustomRpcRequest(unsubscribeMethod, params);
-            unsubRequest.setId(String.valueOf(requestIdCounter.getAndIncrement()));
-            
-            sendRequest(unsubRequest);
-            LOGGER.info("Unsubscribed from subscription: " + subscriptionId + " for account: " + account);
+            if (!last) {
+                LOGGER.fine("Removed listener " + subscriptionId + " from shared subscription for account: " + subscription.account);
+                return;
+            }
+            if (!close(subscription)) {
+                return;
+            }
+
+            Connection current = subscription.connection;
+            if (current != null) {
+                current.active.remove(subscription.serverId, subscription);
+                sendUnsubscribe(current, subscription.unsubscribeMethod, subscription.serverId);
+            }
+            // A subscribe request still in flight is cancelled when its confirmation arrives
+            LOGGER.info("Unsubscribed from subscription: " + subscriptionId + " for account: " + subscription.account);
         } else {
             LOGGER.warning("Attempted to unsubscribe from non-existent subscription: " + subscriptionId);
         }
@@ -627,8 +1310,9 @@ public class SubscriptionWebSocketClient {
      * @return The subscription ID, or null if not found
      */
     public Long getSubscriptionId(String account) {
-        for (Map.Entry<Long, String> entry : subscriptionToAccount.entrySet()) {
-            if (account.equals(entry.getValue())) {
+        for (Map.Entry<Long, Subscription> entry : handles.entrySet()) {
+            Subscription subscription = entry.getValue();
+            if (account.equals(subscription.account) && subscription.established.isDone()) {
                 return entry.getKey();
             }
         }
@@ -636,19 +1320,12 @@ public class SubscriptionWebSocketClient {
     }
 
     /**
-     * Starts the heartbeat mechanism to keep the connection alive.
-     */
-    private void startHeartbeat() {
-        // Solana RPC doesn't support ping/pong, so we don't send heartbeat messages
-        // The connection will be kept alive by OkHttp's built-in mechanisms
-        LOGGER.info("Heartbeat started (using OkHttp's built-in keep-alive)");
-    }
-
-    /**
-     * Stops the heartbeat mechanism.
+     * Returns the number of server subscriptions, each possibly shared by several listeners.
+     *
+     * @return the number of server subscriptions
      */
-    private void stopHeartbeat() {
-        // Heartbeat is managed by the scheduler, no specific stop needed
+    public int getServerSubscriptionCount() {
+        return subscriptions.size();
     }
 
     /**
@@ -665,35 +1342,112 @@ public class SubscriptionWebSocketClient {
     }
 
     /**
-     * Resubscribes to all active subscriptions after reconnection.
+     * Re-establishes all active subscriptions on a newly opened connection, paced by the resubscribe rate
+     * and the in-flight limit, highest priority first.
+     *
+     * @param target The connection to subscribe on
+     * @return The resubscription, whose {@code done} future completes once every request was acknowledged
      */
-    private void resubscribeAll() {
-        LOGGER.info("Resubscribing to all active subscriptions");
-        Map<String, SubscriptionInfo> currentSubscriptions = new ConcurrentHashMap<>(subscriptions);
-        subscriptions.clear();
-        
-        for (SubscriptionInfo info : currentSubscriptions.values()) {
-            String requestId = String.valueOf(requestIdCounter.getAndIncrement());
-            CustomRpcRequest newRequest = new CustomRpcRequest(info.request.getMethod(), info.request.getParams());
-            newRequest.setId(requestId);
-            
-            // Create a new CompletableFuture for the resubscription
-            CompletableFuture<Long> newFuture = new CompletableFuture<>();
-            SubscriptionInfo newInfo = new SubscriptionInfo(newRequest, info.listener, info.method, info.unsubscribeMethod, newFuture);
-            subscriptions.put(requestId, newInfo);
-            sendRequest(newRequest);
+    private Resubscription resubscribeAll(Connection target) {
+        List<Subscription> pending = new ArrayList<>(subscriptions.values());
+        LOGGER.info("Resubscribing to " + pending.size() + " active subscriptions");
+        Resubscription resubscription = new Resubscription(target, pending);
+        target.resubscription = resubscription;
+        resubscription.pump();
+        return resubscription;
+    }
+
+    /**
+     * Sends the subscribe requests of one connection in priority order, keeping at most
+     * {@link #maxInFlightSubscribeRequests} unacknowledged and spacing them by the resubscribe rate.
+     * Requests rejected by the server, e.g. because of rate limits, are queued again.
+     */
+    private final class Resubscription {
+        final Connection target;
+        final int total;
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final PriorityQueue<Subscription> queue = new PriorityQueue<>(
+                Comparator.comparingInt((Subscription subscription) -> subscription.priority).reversed()
+                        .thenComparingLong(subscription -> subscription.id));
+        private final Map<Long, Integer> attempts = new HashMap<>();
+        private int inFlight;
+        private long nextSendNanos = startNanos;
+        private boolean pumpScheduled;
+
+        Resubscription(Connection target, List<Subscription> pending) {
+            this.target = target;
+            this.total = pending.size();
+            queue.addAll(pending);
+        }
+
+        synchronized void pump() {
+            pumpScheduled = false;
+            if (target.lost.get()) {
+                return;
+            }
+
+            double rate = resubscribeRate;
+            long intervalNanos = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+            while (!queue.isEmpty() && inFlight < maxInFlightSubscribeRequests) {
+                long now = System.nanoTime();
+                if (now < nextSendNanos) {
+                    pumpScheduled = true;
+                    scheduler.schedule(this::pump, nextSendNanos - now, TimeUnit.NANOSECONDS);
+                    return;
+                }
+
+                Subscription subscription = queue.poll();
+                if (subscription.closed) {
+                    continue;
+                }
+                CompletableFuture<Long> confirmation = subscribe(target, subscription, true);
+                if (confirmation == null) {
+                    continue;
+                }
+
+                inFlight++;
+                nextSendNanos = Math.max(now, nextSendNanos) + intervalNanos;
+                confirmation.orTimeout(RESUBSCRIBE_ACK_TIMEOUT, TimeUnit.MILLISECONDS)
+                        .whenComplete((serverId, error) -> acknowledged(subscription, error));
+            }
+
+            if (queue.isEmpty() && inFlight == 0 && done.complete(null)) {
+                lastResubscribeNanos = System.nanoTime() - startNanos;
+                LOGGER.info("Resubscribed " + total + " subscriptions in "
+                        + TimeUnit.NANOSECONDS.toMillis(lastResubscribeNanos) + " ms");
+            }
+        }
+
+        private synchronized void acknowledged(Subscription subscription, Throwable error) {
+            inFlight--;
+            if (error != null && !(error instanceof TimeoutException)) {
+                int attempt = attempts.merge(subscription.id, 1, Integer::sum);
+                if (attempt < MAX_RESUBSCRIBE_ATTEMPTS) {
+                    target.requested.remove(subscription.id);
+                    queue.add(subscription);
+                } else {
+                    failSubscription(subscription, "Subscription request failed " + attempt + " times: " + error.getMessage());
+                }
+            }
+            if (!pumpScheduled) {
+                pump();
+            }
         }
     }
 
     /**
-     * Attempts to reconnect to the WebSocket server.
+     * Attempts to reconnect to the WebSocket server. An open connection is replaced without dropping
+     * notifications, see {@link #failover()}.
      */
     public void reconnect() {
         shouldReconnect.set(true);
-        if (webSocket != null) {
-            webSocket.close(1000, "Reconnecting");
+        Connection current = connection;
+        if (current != null && current.open) {
+            failover();
+        } else {
+            connect();
         }
-        connect();
     }
 
     /**
@@ -708,6 +1462,102 @@ public class SubscriptionWebSocketClient {
         return connectLatch.await(timeout, unit);
     }
 
+    /**
+     * Returns the WebSocket endpoint this client connects to.
+     *
+     * @return the endpoint URL
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Sets how many subscribe requests per second are sent when subscriptions are re-established after a
+     * reconnect or failover.
+     *
+     * @param requestsPerSecond the rate, or 0 for no limit
+     */
+    public void setResubscribeRate(double requestsPerSecond) {
+        this.resubscribeRate = requestsPerSecond;
+    }
+
+    /**
+     * Sets how many subscribe requests may await the server's acknowledgement at once when subscriptions
+     * are re-established.
+     *
+     * @param maxInFlight the in-flight limit
+     */
+    public void setMaxInFlightSubscribeRequests(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("In-flight limit must be positive");
+        }
+        this.maxInFlightSubscribeRequests = maxInFlight;
+    }
+
+    /**
+     * Sets the priority of a subscription. Subscriptions with a higher priority are re-established first
+     * after a reconnect or failover; the default priority is 0. A shared server subscription takes the
+     * highest priority of its listeners.
+     *
+     * @param subscriptionId The subscription ID
+     * @param priority The priority
+     */
+    public void setSubscriptionPriority(Long subscriptionId, int priority) {
+        Subscription subscription = handles.get(subscriptionId);
+        if (subscription == null) {
+            return;
+        }
+        synchronized (subscription) {
+            int highest = Integer.MIN_VALUE;
+            for (LocalListener local : subscription.listeners) {
+                if (local.handle == subscriptionId) {
+                    local.priority = priority;
+                }
+                highest = Math.max(highest, local.priority);
+            }
+            subscription.priority = highest;
+        }
+    }
+
+    /**
+     * Returns how long the most recent resubscription took, from the connection opening until every
+     * subscribe request was acknowledged.
+     *
+     * @return the duration, or null if no resubscription has completed yet
+     */
+    public Duration getLastResubscribeDuration() {
+        long nanos = lastResubscribeNanos;
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Returns the traffic received on each open connection: the active one first, then a failover connection
+     * if one is being brought up. Rates cover the time since the previous call.
+     *
+     * @return The statistics per connection
+     */
+    public List<SocketStats> getSocketStats() {
+        List<SocketStats> stats = new ArrayList<>();
+        Connection current = connection;
+        if (current != null) {
+            stats.add(current.sample(false));
+        }
+        Connection next = standby.get();
+        if (next != null && next != current) {
+            stats.add(next.sample(true));
+        }
+        return stats;
+    }
+
+    /**
+     * Returns how many times a connection was replaced by failover.
+     *
+     * @return the number of failovers started
+     */
+    public long getFailoverCount() {
+        return failoverCount.get();
+    }
+
     /**
      * Checks if the WebSocket connection is open.
      *
@@ -724,10 +1574,15 @@ public class SubscriptionWebSocketClient {
         shouldReconnect.set(false);
         isConnected.set(false);
         
-        if (webSocket != null) {
-            webSocket.close(1000, "Client closing");
-            webSocket = null;
+        Connection replacement = standby.getAndSet(null);
+        if (replacement != null && replacement.webSocket != null) {
+            replacement.webSocket.cancel();
+        }
+        Connection current = connection;
+        if (current != null && current.webSocket != null) {
+            current.webSocket.close(1000, "Client closing");
         }
+        connection = null;
         
         // Shutdown scheduler with proper cleanup
         scheduler.shutdown();
@@ -744,6 +1599,10 @@ public class SubscriptionWebSocketClient {
             Thread.currentThread().interrupt();
         }
         
+        if (httpClient == null) {
+            return;
+        }
+
         // Shutdown OkHttp client dispatcher executor
         httpClient.dispatcher().executorService().shutdown();
         try {
@@ -763,4 +1622,4 @@ public class SubscriptionWebSocketClient {
         httpClient.dispatcher().cancelAll();
         httpClient.connectionPool().evictAll();
     }
-}
\ No newline at end of file
+}
@@ -5,7 +5,6 @@ import org.p2p.solanaj.rpc.RpcClient;
 import java.util.Map;
 import java.util.List;
 import java.util.logging.Logger;
-import java.util.HashMap;
 
 /**
  * A listener for Solana log notifications.
@@ -47,37 +46,23 @@ public class LogNotificationEventListener implements NotificationEventListener {
             return;
         }
 
-        Map<?, ?> rawMap = (Map<?, ?>) data;
-        Map<String, Object> notificationData = new HashMap<>();
+        Map<?, ?> notificationData = (Map<?, ?>) data;
+        Object signature = notificationData.get("signature");
+        Object logs = notificationData.get("logs");
 
-        for (Map.Entry<?, ?> entry : rawMap.entrySet()) {
-            if (entry.getKey() instanceof String) {
-                notificationData.put((String) entry.getKey(), entry.getValue());
-            }
-        }
-
-        String signature = (String) notificationData.get("signature");
-        List<String> logs = null;
-        Object logsObj = notificationData.get("logs");
-        if (logsObj instanceof List<?>) {
-            logs = ((List<?>) logsObj).stream()
-                .filter(String.class::isInstance)
-                .map(String.class::cast)
-                .toList();
-        }
-
-        if (signature == null || logs == null || logs.isEmpty()) {
+        if (!(signature instanceof String) || !(logs instanceof List<?>) || ((List<?>) logs).isEmpty()) {
             LOGGER.warning("Missing required fields in notification data");
             return;
         }
 
         LOGGER.info("Received notification for transaction: " + signature);
-        for (String log : logs) {
-            LOGGER.info("Log: " + log);
+        for (Object log : (List<?>) logs) {
+            if (log instanceof String) {
+                LOGGER.info("Log: " + log);
+            }
         }
 
-        // Here you could add more specific processing based on the log contents
-        // For example, checking for specific program invocations or state changes
+        // For matching specific program invocations or events, see LogsEventListener
 
     }
 
@@ -0,0 +1,62 @@
+package org.p2p.solanaj.ws.listeners;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.ws.LogEvent;
+import org.p2p.solanaj.ws.LogsMatcher;
+
+/**
+ * A listener for logs notifications that runs each notification's log lines through a {@link LogsMatcher}
+ * and passes the matched events to a handler.
+ */
+public class LogsEventListener implements NotificationEventListener {
+    private static final Logger LOGGER = Logger.getLogger(LogsEventListener.class.getName());
+
+    private final LogsMatcher matcher;
+    private final Consumer<? super LogEvent> handler;
+    private final boolean skipFailed;
+
+    /**
+     * Constructs a listener that scans the logs of every transaction, including failed ones.
+     *
+     * @param matcher The patterns to match
+     * @param handler Receives the matched events
+     */
+    public LogsEventListener(LogsMatcher matcher, Consumer<? super LogEvent> handler) {
+        this(matcher, handler, false);
+    }
+
+    /**
+     * Constructs a new LogsEventListener.
+     *
+     * @param matcher The patterns to match
+     * @param handler Receives the matched events
+     * @param skipFailed Whether to ignore transactions whose notification carries an error
+     */
+    public LogsEventListener(LogsMatcher matcher, Consumer<? super LogEvent> handler, boolean skipFailed) {
+        this.matcher = matcher;
+        this.handler = handler;
+        this.skipFailed = skipFailed;
+    }
+
+    @Override
+    public void onNotificationEvent(Object data) {
+        if (!(data instanceof Map)) {
+            LOGGER.warning("Received invalid logs notification: " + data);
+            return;
+        }
+
+        Map<?, ?> value = (Map<?, ?>) data;
+        if (skipFailed && value.get("err") != null) {
+            return;
+        }
+        Object signature = value.get("signature");
+        Object logs = value.get("logs");
+        if (logs instanceof List) {
+            matcher.scan(signature instanceof String ? (String) signature : null, (List<?>) logs, handler);
+        }
+    }
+}
@@ -2,4 +2,16 @@ package org.p2p.solanaj.ws.listeners;
 
 public interface NotificationEventListener {
     void onNotificationEvent(Object data);
+
+    /**
+     * Called with the notification data together with the slot from the notification's context.
+     * Listeners that need ordering information (e.g. to discard stale updates) override this method;
+     * the default simply drops the slot.
+     *
+     * @param data The notification data
+     * @param slot The context slot of the notification, or -1 if the notification carries none
+     */
+    default void onNotificationEvent(Object data, long slot) {
+        onNotificationEvent(data);
+    }
 }
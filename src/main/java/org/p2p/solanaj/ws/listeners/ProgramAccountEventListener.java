@@ -0,0 +1,51 @@
+package org.p2p.solanaj.ws.listeners;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.ws.AccountView;
+
+/**
+ * A listener for program notifications that decodes each changed account into an {@link AccountView}
+ * carrying the account's public key and the notification slot.
+ *
+ * Account data is only decoded for the base64 encoding; subscribe with base64 to receive it.
+ */
+public class ProgramAccountEventListener implements NotificationEventListener {
+    private static final Logger LOGGER = Logger.getLogger(ProgramAccountEventListener.class.getName());
+
+    private final Consumer<? super AccountView> handler;
+
+    /**
+     * Constructs a new ProgramAccountEventListener.
+     *
+     * @param handler Receives the decoded accounts
+     */
+    public ProgramAccountEventListener(Consumer<? super AccountView> handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void onNotificationEvent(Object data) {
+        onNotificationEvent(data, -1);
+    }
+
+    @Override
+    public void onNotificationEvent(Object data, long slot) {
+        if (!(data instanceof Map)) {
+            LOGGER.warning("Received invalid program notification: " + data);
+            return;
+        }
+
+        Map<?, ?> value = (Map<?, ?>) data;
+        Object pubkey = value.get("pubkey");
+        Object account = value.get("account");
+        if (!(pubkey instanceof String) || !(account instanceof Map)) {
+            LOGGER.warning("Received program notification without pubkey or account: " + data);
+            return;
+        }
+        handler.accept(AccountView.fromNotification(new PublicKey((String) pubkey), slot, (Map<?, ?>) account));
+    }
+}
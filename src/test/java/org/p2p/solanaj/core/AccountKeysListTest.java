@@ -0,0 +1,37 @@
+package org.p2p.solanaj.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccountKeysListTest {
+
+    @Test
+    public void orderedBySignerAndWritableInInsertionOrder() {
+        PublicKey readonly = new Account().getPublicKey();
+        PublicKey writable = new Account().getPublicKey();
+        PublicKey signerReadonly = new Account().getPublicKey();
+        PublicKey signerWritable = new Account().getPublicKey();
+        PublicKey upgraded = new Account().getPublicKey();
+
+        AccountKeysList list = new AccountKeysList();
+        list.add(new AccountMeta(readonly, false, false));
+        list.add(new AccountMeta(upgraded, false, false));
+        list.add(new AccountMeta(writable, false, true));
+        list.add(new AccountMeta(signerReadonly, true, false));
+        list.add(new AccountMeta(signerWritable, true, true));
+        // The same key given again keeps its position and gains the stronger attributes
+        list.add(new AccountMeta(new PublicKey(upgraded.toByteArray()), false, true));
+
+        List<AccountMeta> ordered = list.getList();
+        assertEquals(5, ordered.size());
+        assertEquals(signerWritable, ordered.get(0).getPublicKey());
+        assertEquals(signerReadonly, ordered.get(1).getPublicKey());
+        assertEquals(upgraded, ordered.get(2).getPublicKey());
+        assertTrue(ordered.get(2).isWritable());
+        assertEquals(writable, ordered.get(3).getPublicKey());
+        assertEquals(readonly, ordered.get(4).getPublicKey());
+    }
+}
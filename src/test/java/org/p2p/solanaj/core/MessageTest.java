@@ -3,8 +3,11 @@ package org.p2p.solanaj.core;
 import org.p2p.solanaj.utils.Base58;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import org.p2p.solanaj.programs.MemoProgram;
 import org.p2p.solanaj.programs.SystemProgram;
 
+import java.util.List;
+
 public class MessageTest {
 
     @Test
@@ -30,6 +33,71 @@ public class MessageTest {
                 0, 0, 0, 0, 0 }, toUnsignedByteArray(message.serialize()));
     }
 
+    @Test
+    public void compiledMessageIsReusedAndPatched() {
+        PublicKey fromPublicKey = new PublicKey("QqCCvshxtqMAL2CVALqiJB7uEeE5mjSPsseQdDzsRUo");
+        PublicKey toPublicKey = new PublicKey("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5");
+        Account signer = new Account();
+
+        Message message = new Message();
+        message.addInstruction(SystemProgram.transfer(fromPublicKey, toPublicKey, 3000));
+        message.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        message.setFeePayer(signer);
+        message.serialize();
+
+        // Only the blockhash changed
+        message.setRecentBlockHash("4NCYB3kRT8sCNodPNuCZo8VUh4xqpBQxsxed2wd9xaD4");
+        assertArrayEquals(freshMessage(signer, "4NCYB3kRT8sCNodPNuCZo8VUh4xqpBQxsxed2wd9xaD4", 3000).serialize(),
+                message.serialize());
+
+        // A new fee payer and a new instruction recompile the message
+        Account otherSigner = new Account();
+        message.setFeePayer(otherSigner);
+        message.addInstruction(SystemProgram.transfer(fromPublicKey, toPublicKey, 4000));
+        Message expected = freshMessage(otherSigner, "4NCYB3kRT8sCNodPNuCZo8VUh4xqpBQxsxed2wd9xaD4", 3000);
+        expected.addInstruction(SystemProgram.transfer(fromPublicKey, toPublicKey, 4000));
+        assertArrayEquals(expected.serialize(), message.serialize());
+
+        // Callers cannot modify the cached message
+        message.serialize()[0] = 9;
+        assertArrayEquals(expected.serialize(), message.serialize());
+    }
+
+    @Test
+    public void estimateSizeMatchesSerializedSize() {
+        Account payer = new Account();
+        PublicKey toPublicKey = new PublicKey("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5");
+
+        // Before a fee payer is set, the first signer is assumed to pay
+        Message message = new Message();
+        message.addInstruction(SystemProgram.transfer(payer.getPublicKey(), toPublicKey, 3000));
+        message.addInstruction(MemoProgram.writeUtf8(payer.getPublicKey(), "x".repeat(200)));
+        int estimate = message.estimateSize();
+        assertEquals(1, message.getSignerCount());
+
+        message.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        message.setFeePayer(payer);
+        assertEquals(message.serialize().length, estimate);
+
+        // A separate fee payer adds its key and its signature
+        Message withoutSigner = new Message();
+        withoutSigner.addInstruction(new TransactionInstruction(MemoProgram.PROGRAM_ID, List.of(), new byte[]{1}));
+        int separatePayerEstimate = withoutSigner.estimateSize();
+        assertEquals(1, withoutSigner.getSignerCount());
+        withoutSigner.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        withoutSigner.setFeePayer(new Account());
+        assertEquals(withoutSigner.serialize().length, separatePayerEstimate);
+    }
+
+    private static Message freshMessage(Account feePayer, String recentBlockhash, long lamports) {
+        Message message = new Message();
+        message.addInstruction(SystemProgram.transfer(new PublicKey("QqCCvshxtqMAL2CVALqiJB7uEeE5mjSPsseQdDzsRUo"),
+                new PublicKey("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5"), lamports));
+        message.setRecentBlockHash(recentBlockhash);
+        message.setFeePayer(feePayer);
+        return message;
+    }
+
     int[] toUnsignedByteArray(byte[] in) {
         int[] out = new int[in.length];
 
@@ -0,0 +1,111 @@
+package org.p2p.solanaj.core;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.utils.Base58;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageV0Test {
+
+    private static final String BLOCKHASH = "Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn";
+
+    private final Account payer = new Account();
+    private final PublicKey program = new Account().getPublicKey();
+    private final PublicKey writable = new Account().getPublicKey();
+    private final PublicKey readonly = new Account().getPublicKey();
+    private final PublicKey other = new Account().getPublicKey();
+    private final PublicKey tableKey = new Account().getPublicKey();
+
+    private TransactionInstruction instruction() {
+        return new TransactionInstruction(program, List.of(
+                new AccountMeta(writable, false, true),
+                new AccountMeta(readonly, false, false)), new byte[]{7});
+    }
+
+    @Test
+    public void loadsNonSignerAccountsFromLookupTable() {
+        MessageV0 message = new MessageV0();
+        message.addInstruction(instruction());
+        message.addLookupTable(new AddressLookupTableAccount(tableKey, List.of(other, readonly, writable, program)));
+        message.setRecentBlockHash(BLOCKHASH);
+        message.setFeePayer(payer);
+
+        ByteBuffer expected = ByteBuffer.allocate(256);
+        expected.put((byte) 0x80).put(new byte[]{1, 0, 1});
+        expected.put((byte) 2).put(payer.getPublicKey().toByteArray()).put(program.toByteArray());
+        expected.put(Base58.decode(BLOCKHASH));
+        // The program stays static; the loaded writable account comes before the loaded readonly one
+        expected.put(new byte[]{1, 1, 2, 2, 3, 1, 7});
+        expected.put((byte) 1).put(tableKey.toByteArray()).put(new byte[]{1, 2, 1, 1});
+
+        assertArrayEquals(Arrays.copyOf(expected.array(), expected.position()), message.serialize());
+    }
+
+    @Test
+    public void versionedTransactionSignsMessage() {
+        VersionedTransaction transaction = new VersionedTransaction()
+                .addLookupTable(new AddressLookupTableAccount(tableKey, List.of(writable, readonly)))
+                .addInstruction(instruction());
+        transaction.setRecentBlockHash(BLOCKHASH);
+        transaction.sign(payer);
+
+        byte[] serialized = transaction.serialize();
+        assertEquals(1, serialized[0]);
+        assertEquals((byte) 0x80, serialized[1 + Transaction.SIGNATURE_LENGTH]);
+        assertNotNull(transaction.getSignature());
+    }
+
+    @Test
+    public void coSignerSignsReceivedTransactionWithLookups() {
+        Account coSigner = new Account();
+        VersionedTransaction transaction = new VersionedTransaction()
+                .addLookupTable(new AddressLookupTableAccount(tableKey, List.of(writable, readonly)))
+                .addInstruction(instruction())
+                .addInstruction(new TransactionInstruction(program,
+                        List.of(new AccountMeta(coSigner.getPublicKey(), true, false)), new byte[]{8}));
+        transaction.setRecentBlockHash(BLOCKHASH);
+        transaction.sign(List.of(payer, coSigner));
+        byte[] signed = transaction.serialize();
+
+        Transaction received = Transaction.deserialize(signed);
+        received.sign(coSigner);
+
+        assertArrayEquals(signed, received.serialize());
+    }
+
+    @Test
+    public void deserializesLookupTableAccount() {
+        ByteBuffer data = ByteBuffer.allocate(AddressLookupTableAccount.LOOKUP_TABLE_META_SIZE + 64).order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(1).putLong(-1L);
+        data.position(AddressLookupTableAccount.LOOKUP_TABLE_META_SIZE);
+        data.put(writable.toByteArray()).put(readonly.toByteArray());
+
+        AddressLookupTableAccount table = AddressLookupTableAccount.deserialize(tableKey, data.array());
+        assertEquals(List.of(writable, readonly), table.getAddresses());
+        assertTrue(table.isActive());
+        assertThrows(IllegalArgumentException.class, () -> AddressLookupTableAccount.deserialize(tableKey, new byte[60]));
+    }
+
+    @Test
+    public void estimateSizeMatchesSerializedSize() {
+        VersionedTransaction transaction = new VersionedTransaction();
+        transaction.addInstruction(instruction());
+        transaction.setRecentBlockHash(BLOCKHASH);
+        int withoutTables = transaction.estimateSize();
+        transaction.sign(payer);
+        assertEquals(transaction.serialize().length, withoutTables);
+
+        VersionedTransaction withTable = new VersionedTransaction();
+        withTable.addInstruction(instruction());
+        withTable.addLookupTable(new AddressLookupTableAccount(tableKey, List.of(readonly, writable)));
+        withTable.setRecentBlockHash(BLOCKHASH);
+        assertThrows(IllegalStateException.class, withTable::estimateSize);
+        withTable.sign(payer);
+        assertEquals(withTable.serialize().length, withTable.estimateSize());
+    }
+}
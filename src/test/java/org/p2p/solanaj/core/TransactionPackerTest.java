@@ -0,0 +1,112 @@
+package org.p2p.solanaj.core;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.programs.ComputeBudgetProgram;
+import org.p2p.solanaj.programs.MemoProgram;
+import org.p2p.solanaj.programs.SystemProgram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionPackerTest {
+
+    private static final String BLOCKHASH = "Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn";
+
+    private final Account payer = new Account();
+
+    private List<TransactionInstruction> transfers(int count) {
+        List<TransactionInstruction> instructions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            instructions.add(SystemProgram.transfer(payer.getPublicKey(), new Account().getPublicKey(), i + 1));
+        }
+        return instructions;
+    }
+
+    private static byte[] serialize(List<TransactionInstruction> instructions, List<Account> signers) {
+        Transaction transaction = new Transaction();
+        instructions.forEach(transaction::addInstruction);
+        transaction.setRecentBlockHash(BLOCKHASH);
+        transaction.sign(signers);
+        return transaction.serialize();
+    }
+
+    @Test
+    public void packsMaximallyFullTransactions() {
+        List<TransactionInstruction> instructions = transfers(100);
+
+        List<Transaction> transactions = new TransactionPacker(payer.getPublicKey())
+                .setComputeBudget(200_000, 1_000)
+                .pack(instructions);
+
+        int next = 0;
+        for (Transaction transaction : transactions) {
+            List<TransactionInstruction> packed = transaction.getMessage().getInstructions();
+            assertEquals(ComputeBudgetProgram.PROGRAM_ID, packed.get(0).getProgramId());
+            assertEquals(ComputeBudgetProgram.PROGRAM_ID, packed.get(1).getProgramId());
+            assertTrue(serialize(packed, List.of(payer)).length <= Transaction.PACKET_DATA_SIZE);
+
+            next += packed.size() - 2;
+            if (next < instructions.size()) {
+                List<TransactionInstruction> oneMore = new ArrayList<>(packed);
+                oneMore.add(instructions.get(next));
+                assertTrue(serialize(oneMore, List.of(payer)).length > Transaction.PACKET_DATA_SIZE);
+            }
+        }
+        assertEquals(instructions.size(), next);
+    }
+
+    @Test
+    public void keepsGroupsTogether() {
+        Account coSigner = new Account();
+        List<List<TransactionInstruction>> groups = new ArrayList<>();
+        for (TransactionInstruction transfer : transfers(40)) {
+            groups.add(List.of(transfer, MemoProgram.writeUtf8(coSigner.getPublicKey(), "payout")));
+        }
+
+        List<Transaction> transactions = new TransactionPacker(payer.getPublicKey(), List.of(coSigner.getPublicKey()))
+                .packGroups(groups);
+
+        int packedCount = 0;
+        for (Transaction transaction : transactions) {
+            List<TransactionInstruction> packed = transaction.getMessage().getInstructions();
+            assertEquals(0, packed.size() % 2);
+            for (int i = 0; i < packed.size(); i += 2) {
+                assertEquals(groups.get(packedCount++), packed.subList(i, i + 2));
+            }
+            assertTrue(serialize(packed, List.of(payer, coSigner)).length <= Transaction.PACKET_DATA_SIZE);
+        }
+        assertEquals(groups.size(), packedCount);
+    }
+
+    @Test
+    public void signsBatchesThatNeedOnlySomeSigners() {
+        Account coSigner = new Account();
+        List<TransactionInstruction> instructions = new ArrayList<>(transfers(40));
+        instructions.add(MemoProgram.writeUtf8(coSigner.getPublicKey(), "payout"));
+
+        List<Transaction> transactions = new TransactionPacker(payer.getPublicKey(), List.of(coSigner.getPublicKey()))
+                .pack(instructions);
+        assertTrue(transactions.size() > 1);
+        transactions.forEach(transaction -> transaction.setRecentBlockHash(BLOCKHASH));
+
+        Transaction.signAll(transactions, List.of(payer, coSigner));
+
+        for (Transaction transaction : transactions) {
+            assertTrue(transaction.verifySignatures());
+        }
+        assertEquals(2, transactions.get(transactions.size() - 1).getMessage().getSignerCount());
+        assertEquals(1, transactions.get(0).getMessage().getSignerCount());
+    }
+
+    @Test
+    public void rejectsUnpackableInstructions() {
+        TransactionPacker packer = new TransactionPacker(payer.getPublicKey());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> packer.pack(List.of(MemoProgram.writeUtf8(new Account().getPublicKey(), "memo"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> packer.pack(List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "x".repeat(1200)))));
+    }
+}
@@ -0,0 +1,80 @@
+package org.p2p.solanaj.core;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.programs.SystemProgram;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionTemplateTest {
+
+    private static final String BLOCKHASH = "Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn";
+    private static final String OTHER_BLOCKHASH = "GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5";
+
+    private final Account payer = new Account();
+    private final PublicKey recipient = new Account().getPublicKey();
+    private final PublicKey otherRecipient = new Account().getPublicKey();
+
+    private byte[] transfer(PublicKey to, long lamports, String blockhash) {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(payer.getPublicKey(), to, lamports));
+        transaction.setRecentBlockHash(blockhash);
+        transaction.sign(payer);
+        return transaction.serialize();
+    }
+
+    @Test
+    public void patchedTemplateMatchesRebuiltTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(payer.getPublicKey(), recipient, 0));
+        TransactionTemplate template = new TransactionTemplate(transaction, payer);
+
+        template.setRecentBlockhash(BLOCKHASH);
+        template.putLong(0, 4, 3000);
+        assertArrayEquals(transfer(recipient, 3000, BLOCKHASH), template.sign(payer));
+
+        template.setRecentBlockhash(OTHER_BLOCKHASH);
+        template.putLong(0, 4, 5000);
+        template.setAccount(template.indexOfAccount(recipient), otherRecipient);
+        assertArrayEquals(transfer(otherRecipient, 5000, OTHER_BLOCKHASH), template.sign(payer));
+    }
+
+    @Test
+    public void rejectsPatchesOutsideTheTemplate() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(payer.getPublicKey(), recipient, 0));
+        transaction.setRecentBlockHash(BLOCKHASH);
+        TransactionTemplate template = new TransactionTemplate(transaction, payer);
+
+        assertEquals(12, template.getInstructionDataLength(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> template.putLong(0, 5, 1));
+        assertThrows(IllegalArgumentException.class, () -> template.setAccount(0, recipient));
+        assertThrows(IllegalArgumentException.class, () -> template.sign(List.of(new Account())));
+
+        // Neither a program slot nor a key the message already stores can be patched in
+        int programIndex = template.indexOfAccount(SystemProgram.PROGRAM_ID);
+        int recipientIndex = template.indexOfAccount(recipient);
+        assertThrows(IllegalArgumentException.class, () -> template.setAccount(programIndex, otherRecipient));
+        assertThrows(IllegalArgumentException.class, () -> template.setAccount(recipientIndex, SystemProgram.PROGRAM_ID));
+        assertThrows(IllegalArgumentException.class, () -> template.setAccount(recipientIndex, payer.getPublicKey()));
+        template.setAccount(recipientIndex, recipient);
+    }
+
+    @Test
+    public void compilingLeavesTheTransactionUnchanged() {
+        Account otherPayer = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(payer.getPublicKey(), recipient, 3000));
+        transaction.setRecentBlockHash(BLOCKHASH);
+        transaction.sign(otherPayer);
+        byte[] serialized = transaction.serialize();
+
+        TransactionTemplate template = new TransactionTemplate(transaction, payer);
+        assertArrayEquals(transfer(recipient, 3000, BLOCKHASH), template.sign(payer));
+
+        assertEquals(otherPayer.getPublicKey(), transaction.getMessage().getAccountKeys().get(0).getPublicKey());
+        transaction.sign(otherPayer);
+        assertArrayEquals(serialized, transaction.serialize());
+    }
+}
@@ -6,6 +6,10 @@ import org.p2p.solanaj.programs.SystemProgram;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 
@@ -53,4 +57,202 @@ public class TransactionTest {
         );
     }
 
+    @Test
+    public void resignReplacesSignature() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(signer.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        transaction.sign(signer);
+        byte[] first = transaction.serialize();
+
+        transaction.setRecentBlockHash("4NCYB3kRT8sCNodPNuCZo8VUh4xqpBQxsxed2wd9xaD4");
+        transaction.sign(signer);
+        byte[] second = transaction.serialize();
+
+        assertEquals(first.length, second.length);
+        assertEquals(1, second[0]);
+        byte[] signature = new byte[Transaction.SIGNATURE_LENGTH];
+        System.arraycopy(second, 1, signature, 0, signature.length);
+        assertEquals(Base58.encode(signature), transaction.getSignature());
+    }
+
+    @Test
+    public void signerMustBeRequired() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(signer.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+
+        assertThrows(IllegalArgumentException.class, () -> transaction.sign(List.of(signer, new Account())));
+    }
+
+
+    @Test
+    public void deserializeRoundTripsSignedTransaction() {
+        byte[] serialized = Base64.getDecoder().decode(
+                "ASdDdWBaKXVRA+6flVFiZokic9gK0+r1JWgwGg/GJAkLSreYrGF4rbTCXNJvyut6K6hupJtm72GztLbWNmRF1Q4BAAEDBhrZ0FOHFUhTft4+JhhJo9+3/QL6vHWyI8jkatuFPQzrerzQ2HXrwm2hsYGjM5s+8qMWlbt6vbxngnO8rc3lqgAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAy+KIwZmU8DLmYglP3bPzrlpDaKkGu6VIJJwTOYQmRfUBAgIAAQwCAAAAuAsAAAAAAAA=");
+
+        Transaction transaction = Transaction.deserialize(serialized);
+
+        assertFalse(transaction instanceof VersionedTransaction);
+        assertEquals(Base58.encode(Arrays.copyOfRange(serialized, 1, 65)), transaction.getSignature());
+        assertArrayEquals(serialized, transaction.serialize());
+    }
+
+    @Test
+    public void deserializedTransactionSignsNewBlockhash() {
+        PublicKey toPublicKey = new PublicKey("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5");
+        Transaction original = new Transaction();
+        original.addInstruction(SystemProgram.transfer(signer.getPublicKey(), toPublicKey, 3000));
+        original.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        original.sign(signer);
+
+        Transaction transaction = Transaction.deserialize(original.serialize());
+        transaction.setRecentBlockHash("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5");
+        transaction.sign(signer);
+
+        original.setRecentBlockHash("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5");
+        original.sign(signer);
+        assertArrayEquals(original.serialize(), transaction.serialize());
+    }
+
+    @Test
+    public void coSignerKeepsExistingSignature() {
+        Account coSigner = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(coSigner.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        transaction.sign(List.of(signer, coSigner));
+        byte[] signed = transaction.serialize();
+
+        Transaction partial = Transaction.deserialize(signed);
+        partial.sign(signer);
+
+        assertArrayEquals(signed, partial.serialize());
+    }
+
+    @Test
+    public void coSignerSignsReceivedTransaction() {
+        Account coSigner = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(coSigner.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        transaction.sign(List.of(signer, coSigner));
+        byte[] signed = transaction.serialize();
+
+        Transaction received = Transaction.deserialize(signed);
+        received.sign(coSigner);
+
+        assertArrayEquals(signed, received.serialize());
+        assertTrue(received.verifySignatures());
+    }
+
+    @Test
+    public void deserializeRejectsMalformedTransactions() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(signer.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        transaction.sign(signer);
+        byte[] serialized = transaction.serialize();
+        TransactionView view = TransactionView.wrap(serialized);
+
+        byte[] badProgram = serialized.clone();
+        // The program id index is the first byte of the first instruction
+        badProgram[view.getRecentBlockhashOffset() + Message.RECENT_BLOCK_HASH_LENGTH + 1] = 9;
+        assertThrows(IllegalArgumentException.class, () -> Transaction.deserialize(badProgram));
+
+        byte[] missingSignature = serialized.clone();
+        missingSignature[view.getMessageOffset()] = 2;
+        assertThrows(IllegalArgumentException.class, () -> Transaction.deserialize(missingSignature));
+    }
+
+    @Test
+    public void deserializeRejectsTrailingBytes() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(signer.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        transaction.sign(signer);
+        byte[] serialized = transaction.serialize();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> Transaction.deserialize(Arrays.copyOf(serialized, serialized.length + 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> Transaction.deserialize(Arrays.copyOf(serialized, serialized.length - 1)));
+    }
+
+    @Test
+    public void parallelSigningMatchesSequentialSigning() {
+        Account coSigner = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(coSigner.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        transaction.sign(List.of(signer, coSigner));
+
+        Transaction partial = new Transaction();
+        partial.addInstruction(MemoProgram.writeUtf8(coSigner.getPublicKey(), "Test memo"));
+        partial.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        partial.sign(signer);
+        partial.sign(List.of(signer, coSigner));
+
+        assertArrayEquals(transaction.serialize(), partial.serialize());
+        assertTrue(transaction.verifySignatures());
+    }
+
+    @Test
+    public void signAllSignsEveryTransaction() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Transaction transaction = new Transaction();
+            transaction.addInstruction(MemoProgram.writeUtf8(signer.getPublicKey(), "Memo " + i));
+            transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+            transactions.add(transaction);
+        }
+
+        Transaction.signAll(transactions, List.of(signer));
+
+        for (Transaction transaction : transactions) {
+            assertNotNull(transaction.getSignature());
+            assertTrue(transaction.verifySignatures());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Transaction.signAll(transactions, List.of(signer, new Account())));
+    }
+
+    @Test
+    public void verifySignaturesDetectsMissingAndInvalidSignatures() {
+        Account coSigner = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(coSigner.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        assertFalse(transaction.verifySignatures());
+
+        transaction.sign(signer);
+        assertFalse(transaction.verifySignatures());
+
+        transaction.sign(List.of(signer, coSigner));
+        byte[] serialized = transaction.serialize();
+        serialized[serialized.length - 1] ^= 1;
+        assertFalse(Transaction.deserialize(serialized).verifySignatures());
+    }
+
+    @Test
+    public void serializeIntoReusedBuffer() {
+        Account coSigner = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(coSigner.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        assertThrows(IllegalStateException.class, transaction::serializedLength);
+        transaction.sign(signer);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Transaction.PACKET_DATA_SIZE);
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0x5a);
+        }
+        buffer.clear().position(7);
+        transaction.serializeInto(buffer);
+
+        byte[] written = new byte[transaction.serializedLength()];
+        buffer.flip().position(7);
+        buffer.get(written);
+        assertArrayEquals(transaction.serialize(), written);
+        assertThrows(BufferOverflowException.class, () -> transaction.serializeInto(ByteBuffer.allocate(10)));
+    }
 }
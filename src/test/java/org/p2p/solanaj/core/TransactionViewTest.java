@@ -0,0 +1,105 @@
+package org.p2p.solanaj.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransactionViewTest {
+
+    private static final String BLOCKHASH = "Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn";
+
+    private final Account payer = new Account();
+    private final PublicKey program = new Account().getPublicKey();
+    private final PublicKey writable = new Account().getPublicKey();
+    private final PublicKey readonly = new Account().getPublicKey();
+    private final PublicKey tableKey = new Account().getPublicKey();
+
+    private VersionedTransaction signedTransaction() {
+        VersionedTransaction transaction = new VersionedTransaction();
+        transaction.addInstruction(new TransactionInstruction(program, List.of(
+                new AccountMeta(writable, false, true),
+                new AccountMeta(readonly, false, false)), new byte[]{7, 8}));
+        transaction.addLookupTable(new AddressLookupTableAccount(tableKey, List.of(readonly, writable)));
+        transaction.setRecentBlockHash(BLOCKHASH);
+        transaction.sign(payer);
+        return transaction;
+    }
+
+    @Test
+    public void readsVersionedTransaction() {
+        VersionedTransaction transaction = signedTransaction();
+        TransactionView view = TransactionView.wrap(transaction.serialize());
+
+        assertEquals(0, view.getVersion());
+        assertEquals(1, view.getSignatureCount());
+        assertEquals(transaction.getSignature(), view.getSignature());
+        assertEquals(1, view.getNumRequiredSignatures());
+        assertEquals(2, view.getAccountKeyCount());
+        assertEquals(payer.getPublicKey(), view.getAccountKey(0));
+        assertTrue(view.isSigner(0));
+        assertTrue(view.isWritable(0));
+        assertFalse(view.isWritable(1));
+        assertEquals(BLOCKHASH, view.getRecentBlockhash());
+
+        assertEquals(1, view.getInstructionCount());
+        assertEquals(program, view.getAccountKey(view.getProgramIdIndex(0)));
+        assertArrayEquals(new int[]{2, 3}, view.getInstructionAccountIndexes(0));
+        ByteBuffer data = view.getInstructionData(0);
+        assertTrue(data.isReadOnly());
+        assertEquals(2, data.remaining());
+        assertEquals(7, data.get(0));
+
+        assertEquals(1, view.getLookupCount());
+        assertEquals(tableKey, view.getLookupTableKey(0));
+        assertArrayEquals(new int[]{1}, view.getLookupWritableIndexes(0));
+        assertArrayEquals(new int[]{0}, view.getLookupReadonlyIndexes(0));
+    }
+
+    @Test
+    public void deserializedLookupMessageKeepsBytesButCannotRecompile() {
+        VersionedTransaction transaction = signedTransaction();
+        byte[] serialized = transaction.serialize();
+
+        Transaction deserialized = Transaction.deserialize(serialized);
+
+        assertTrue(deserialized instanceof VersionedTransaction);
+        assertArrayEquals(serialized, deserialized.serialize());
+        deserialized.sign(payer);
+        assertArrayEquals(serialized, deserialized.serialize());
+        assertThrows(IllegalStateException.class, () -> deserialized.addInstruction(
+                new TransactionInstruction(program, List.of(), new byte[0])).sign(payer));
+    }
+
+    @Test
+    public void rejectsUnknownVersion() {
+        byte[] serialized = signedTransaction().serialize();
+        serialized[1 + Transaction.SIGNATURE_LENGTH] = (byte) 0x81;
+
+        assertThrows(IllegalArgumentException.class, () -> TransactionView.wrap(serialized));
+    }
+
+    @Test
+    public void rejectsCountsBeyondThePayload() {
+        // No signatures, a header, no account keys and a zero blockhash, then a claim of 65535 instructions
+        ByteBuffer instructions = ByteBuffer.allocate(70);
+        instructions.put(new byte[]{0, 0, 0, 0, 0}).position(5 + Message.RECENT_BLOCK_HASH_LENGTH);
+        instructions.put(new byte[]{(byte) 0xff, (byte) 0xff, 0x03});
+        assertThrows(IllegalArgumentException.class, () -> TransactionView.wrap(instructions.array()));
+
+        // A version 0 message without instructions that claims 65535 lookups
+        ByteBuffer lookups = ByteBuffer.allocate(70);
+        lookups.put(new byte[]{0, (byte) MessageV0.VERSION_PREFIX, 0, 0, 0, 0}).position(6 + Message.RECENT_BLOCK_HASH_LENGTH);
+        lookups.put(new byte[]{0, (byte) 0xff, (byte) 0xff, 0x03});
+        assertThrows(IllegalArgumentException.class, () -> TransactionView.wrap(lookups.array()));
+
+        // A non-canonical signature count
+        byte[] serialized = signedTransaction().serialize();
+        byte[] padded = new byte[serialized.length + 1];
+        padded[0] = (byte) 0x81;
+        System.arraycopy(serialized, 1, padded, 2, serialized.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> TransactionView.wrap(padded));
+    }
+}
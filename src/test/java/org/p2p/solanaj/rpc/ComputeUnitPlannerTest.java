@@ -0,0 +1,157 @@
+package org.p2p.solanaj.rpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.TransactionInstruction;
+import org.p2p.solanaj.programs.ComputeBudgetProgram;
+import org.p2p.solanaj.programs.MemoProgram;
+import org.p2p.solanaj.rpc.types.SimulatedTransaction;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ComputeUnitPlannerTest {
+
+    private final Account payer = new Account();
+    private final List<TransactionInstruction> instructions = List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "memo"));
+    private RpcApi api;
+    private ComputeUnitPlanner planner;
+
+    @BeforeEach
+    public void setUp() {
+        RpcClient client = mock(RpcClient.class);
+        api = mock(RpcApi.class);
+        when(client.getApi()).thenReturn(api);
+        planner = new ComputeUnitPlanner(client, 0.2);
+    }
+
+    private static SimulatedTransaction simulated(String value) throws Exception {
+        return new ObjectMapper().readValue("{\"context\":{\"slot\":1},\"value\":" + value + "}", SimulatedTransaction.class);
+    }
+
+    @Test
+    public void addsMarginToSimulatedUnits() throws Exception {
+        when(api.simulateTransaction(anyString(), anyList()))
+                .thenReturn(simulated("{\"err\":null,\"logs\":[],\"unitsConsumed\":1000}"));
+
+        assertEquals(1200, planner.estimateUnits(instructions, payer));
+        assertEquals(ComputeBudgetProgram.setComputeUnitLimit(1200), planner.plan(instructions, payer));
+    }
+
+    @Test
+    public void cachesUnitsPerTemplate() throws Exception {
+        when(api.simulateTransaction(anyString(), anyList()))
+                .thenReturn(simulated("{\"err\":null,\"logs\":[],\"unitsConsumed\":1000}"));
+
+        planner.plan("memo", instructions, payer);
+        planner.plan("memo", instructions, payer);
+        verify(api, times(1)).simulateTransaction(anyString(), anyList());
+
+        planner.invalidate("memo");
+        planner.plan("memo", instructions, payer);
+        verify(api, times(2)).simulateTransaction(anyString(), anyList());
+    }
+
+    @Test
+    public void concurrentPlansShareOneSimulation() throws Exception {
+        CountDownLatch simulating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SimulatedTransaction result = simulated("{\"err\":null,\"logs\":[],\"unitsConsumed\":1000}");
+        when(api.simulateTransaction(anyString(), anyList())).thenAnswer(invocation -> {
+            simulating.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return result;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<TransactionInstruction> first = executor.submit(() -> planner.plan("memo", instructions, payer));
+            assertTrue(simulating.await(5, TimeUnit.SECONDS));
+            List<Future<TransactionInstruction>> others = List.of(
+                    executor.submit(() -> planner.plan("memo", instructions, payer)),
+                    executor.submit(() -> planner.plan("memo", instructions, payer)));
+            release.countDown();
+
+            assertEquals(ComputeBudgetProgram.setComputeUnitLimit(1200), first.get(5, TimeUnit.SECONDS));
+            for (Future<TransactionInstruction> other : others) {
+                assertEquals(ComputeBudgetProgram.setComputeUnitLimit(1200), other.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(api, times(1)).simulateTransaction(anyString(), anyList());
+    }
+
+    @Test
+    public void invalidateDoesNotWaitForSimulation() throws Exception {
+        CountDownLatch simulating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SimulatedTransaction result = simulated("{\"err\":null,\"logs\":[],\"unitsConsumed\":1000}");
+        when(api.simulateTransaction(anyString(), anyList())).thenAnswer(invocation -> {
+            simulating.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return result;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<TransactionInstruction> planned = executor.submit(() -> planner.plan("memo", instructions, payer));
+            assertTrue(simulating.await(5, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> planner.invalidate("memo"));
+            release.countDown();
+            assertEquals(ComputeBudgetProgram.setComputeUnitLimit(1200), planned.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The invalidated simulation was not cached
+        planner.plan("memo", instructions, payer);
+        verify(api, times(2)).simulateTransaction(anyString(), anyList());
+    }
+
+    @Test
+    public void forgetsTemplatesBeyondTheLimit() throws Exception {
+        RpcClient client = mock(RpcClient.class);
+        when(client.getApi()).thenReturn(api);
+        ComputeUnitPlanner bounded = new ComputeUnitPlanner(client, 0.2, 2);
+        when(api.simulateTransaction(anyString(), anyList()))
+                .thenReturn(simulated("{\"err\":null,\"logs\":[],\"unitsConsumed\":1000}"));
+
+        bounded.plan("a", instructions, payer);
+        bounded.plan("b", instructions, payer);
+        bounded.plan("c", instructions, payer);
+        verify(api, times(3)).simulateTransaction(anyString(), anyList());
+
+        // The newest template is kept, and only one of the older ones
+        bounded.plan("c", instructions, payer);
+        verify(api, times(3)).simulateTransaction(anyString(), anyList());
+        bounded.plan("a", instructions, payer);
+        bounded.plan("b", instructions, payer);
+        verify(api, atLeast(4)).simulateTransaction(anyString(), anyList());
+    }
+
+    @Test
+    public void failedSimulationThrows() throws Exception {
+        when(api.simulateTransaction(anyString(), anyList()))
+                .thenReturn(simulated("{\"err\":{\"InstructionError\":[1,\"Custom\"]},\"logs\":[],\"unitsConsumed\":900}"));
+
+        assertThrows(RpcException.class, () -> planner.estimateUnits(instructions, payer));
+
+        // A failed template simulation surfaces as the RpcException and is not cached
+        assertThrows(RpcException.class, () -> planner.plan("memo", instructions, payer));
+        assertThrows(RpcException.class, () -> planner.plan("memo", instructions, payer));
+        verify(api, times(3)).simulateTransaction(anyString(), anyList());
+    }
+}
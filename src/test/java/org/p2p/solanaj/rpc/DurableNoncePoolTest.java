@@ -0,0 +1,153 @@
+package org.p2p.solanaj.rpc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.core.TransactionView;
+import org.p2p.solanaj.programs.MemoProgram;
+import org.p2p.solanaj.programs.SystemProgram;
+import org.p2p.solanaj.rpc.types.AccountInfo;
+import org.p2p.solanaj.rpc.types.SignatureStatuses;
+import org.p2p.solanaj.rpc.types.config.RpcSendTransactionConfig;
+import org.p2p.solanaj.utils.Base58;
+
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class DurableNoncePoolTest {
+
+    private static final String NONCE = "Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn";
+    private static final String ADVANCED_NONCE = "GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5";
+
+    private final Account authority = new Account();
+    private final Account payer = new Account();
+    private final PublicKey nonceAccount = new Account().getPublicKey();
+    private RpcApi api;
+    private DurableNoncePool pool;
+
+    @BeforeEach
+    public void setUp() {
+        RpcClient client = mock(RpcClient.class);
+        api = mock(RpcApi.class);
+        when(client.getApi()).thenReturn(api);
+        pool = new DurableNoncePool(client, authority);
+        pool.addNonceAccount(nonceAccount);
+    }
+
+    private void onChainNonce(String nonce) throws RpcException {
+        byte[] data = new byte[DurableNoncePool.NONCE_ACCOUNT_LENGTH];
+        data[4] = 1;
+        System.arraycopy(authority.getPublicKey().toByteArray(), 0, data, 8, 32);
+        System.arraycopy(Base58.decode(nonce), 0, data, 40, 32);
+        Map<String, Object> value = new HashMap<>();
+        value.put("data", List.of(Base64.getEncoder().encodeToString(data), "base64"));
+        value.put("executable", false);
+        value.put("lamports", 1447680);
+        value.put("owner", SystemProgram.PROGRAM_ID.toBase58());
+        value.put("rentEpoch", 0);
+        when(api.getMultipleAccountsMap(anyList()))
+                .thenReturn(Map.of(nonceAccount, Optional.of(new AccountInfo.Value(new HashMap<>(value)))));
+    }
+
+    @Test
+    public void presignsAgainstTheStoredNonce() throws Exception {
+        onChainNonce(NONCE);
+        assertEquals(0, pool.getAvailableCount());
+        pool.refresh();
+        assertEquals(1, pool.getAvailableCount());
+
+        DurableNoncePool.PresignedTransaction presigned = pool.presign(
+                List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "fire")), List.of(payer));
+
+        TransactionView view = TransactionView.wrap(presigned.getTransaction());
+        assertEquals(NONCE, view.getRecentBlockhash());
+        assertEquals(SystemProgram.PROGRAM_ID, view.getAccountKey(view.getProgramIdIndex(0)));
+        assertEquals(nonceAccount, view.getAccountKey(view.getInstructionAccountIndexes(0)[0]));
+        assertTrue(Transaction.deserialize(presigned.getTransaction()).verifySignatures());
+        assertEquals(1, pool.getPresignedCount());
+        assertThrows(IllegalStateException.class,
+                () -> pool.presign(List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "again")), List.of(payer)));
+    }
+
+    @Test
+    public void consumedNonceIsReusedOnceAdvanced() throws Exception {
+        onChainNonce(NONCE);
+        pool.refresh();
+        DurableNoncePool.PresignedTransaction presigned = pool.presign(
+                List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "fire")), List.of(payer));
+        when(api.sendRawTransaction(anyString(), any(RpcSendTransactionConfig.class))).thenReturn(presigned.getSignature());
+
+        assertEquals(presigned.getSignature(), pool.send(presigned));
+        assertEquals(1, pool.getConsumedCount());
+
+        // Not landed yet: the nonce is unchanged
+        pool.refresh();
+        assertEquals(1, pool.getConsumedCount());
+
+        onChainNonce(ADVANCED_NONCE);
+        pool.refresh();
+        assertEquals(1, pool.getAvailableCount());
+        assertEquals(ADVANCED_NONCE, pool.presign(
+                List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "next")), List.of(payer)).getNonce());
+    }
+
+    @Test
+    public void advancedNonceDropsPresignedTransaction() throws Exception {
+        onChainNonce(NONCE);
+        pool.refresh();
+        pool.presign(List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "fire")), List.of(payer));
+
+        onChainNonce(ADVANCED_NONCE);
+        pool.refresh();
+
+        assertEquals(0, pool.getPresignedCount());
+        assertEquals(1, pool.getAvailableCount());
+    }
+
+    @Test
+    public void refreshReadsLargePoolsInBatches() throws Exception {
+        for (int i = 0; i < 150; i++) {
+            pool.addNonceAccount(new Account().getPublicKey());
+        }
+        when(api.getMultipleAccountsMap(anyList())).thenReturn(Map.of());
+
+        pool.refresh();
+
+        verify(api, times(2)).getMultipleAccountsMap(anyList());
+    }
+
+    @Test
+    public void droppedTransactionIsResent() throws Exception {
+        onChainNonce(NONCE);
+        pool.refresh();
+        DurableNoncePool.PresignedTransaction presigned = pool.presign(
+                List.of(MemoProgram.writeUtf8(payer.getPublicKey(), "fire")), List.of(payer));
+        pool.markConsumed(presigned);
+        assertEquals(List.of(presigned), pool.getConsumedTransactions());
+
+        SignatureStatuses statuses = mock(SignatureStatuses.class);
+        when(statuses.getValue()).thenReturn(Collections.singletonList(null));
+        when(api.getSignatureStatuses(List.of(presigned.getSignature()), true)).thenReturn(statuses);
+
+        assertEquals(1, pool.resendUnconfirmed());
+        verify(api).sendRawTransaction(eq(Base64.getEncoder().encodeToString(presigned.getTransaction())),
+                any(RpcSendTransactionConfig.class));
+
+        onChainNonce(ADVANCED_NONCE);
+        pool.refresh();
+        assertTrue(pool.getConsumedTransactions().isEmpty());
+    }
+}
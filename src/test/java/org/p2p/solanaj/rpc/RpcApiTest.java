@@ -0,0 +1,73 @@
+package org.p2p.solanaj.rpc;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.programs.MemoProgram;
+import org.p2p.solanaj.rpc.types.config.RpcSendTransactionConfig;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RpcApiTest {
+
+    private final List<String> requestBodies = new ArrayList<>();
+
+    // Answers every call locally and records the request body
+    private RpcClient client(String result) {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    Buffer body = new Buffer();
+                    chain.request().body().writeTo(body);
+                    requestBodies.add(body.readUtf8());
+                    return new Response.Builder()
+                            .request(chain.request())
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(200)
+                            .message("OK")
+                            .body(ResponseBody.create("{\"jsonrpc\":\"2.0\",\"result\":" + result + ",\"id\":1}",
+                                    MediaType.parse("application/json")))
+                            .build();
+                })
+                .build();
+        return new RpcClient("http://localhost:8899", httpClient);
+    }
+
+    @Test
+    public void sendsSerializedTransactionAsBase64() throws Exception {
+        Account signer = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(MemoProgram.writeUtf8(signer.getPublicKey(), "Test memo"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        transaction.sign(signer);
+        String encoded = Base64.getEncoder().encodeToString(transaction.serialize());
+
+        RpcApi api = client("\"sig\"").getApi();
+        assertEquals("sig", api.sendRawTransaction(transaction.serialize(), new RpcSendTransactionConfig()));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(Transaction.PACKET_DATA_SIZE);
+        transaction.serializeInto(buffer);
+        buffer.flip();
+        api.sendRawTransaction(buffer, new RpcSendTransactionConfig());
+        assertEquals(0, buffer.position());
+
+        api.sendRawTransaction(encoded, new RpcSendTransactionConfig());
+
+        assertEquals(3, requestBodies.size());
+        for (String body : requestBodies) {
+            assertTrue(body.contains("\"params\":[\"" + encoded + "\","), body);
+        }
+        assertThrows(IllegalArgumentException.class, () -> api.sendRawTransaction(transaction.serialize(),
+                RpcSendTransactionConfig.builder().encoding(RpcSendTransactionConfig.Encoding.base58).build()));
+    }
+}
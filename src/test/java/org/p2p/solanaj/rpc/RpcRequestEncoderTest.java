@@ -0,0 +1,103 @@
+package org.p2p.solanaj.rpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.types.RpcRequest;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.rpc.types.config.RpcSendTransactionConfig;
+import org.p2p.solanaj.rpc.types.config.SignatureStatusConfig;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RpcRequestEncoderTest {
+
+    private static final PublicKey ACCOUNT = new PublicKey("11111111111111111111111111111111");
+    private static final PublicKey OTHER_ACCOUNT = new PublicKey("SysvarC1ock11111111111111111111111111111111");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RpcRequestEncoder encoder = new RpcRequestEncoder(objectMapper);
+
+    // The request the generic path would send, without its id
+    private JsonNode expected(String method, List<Object> params) throws Exception {
+        return withoutId(objectMapper.readTree(objectMapper.writeValueAsBytes(new RpcRequest(method, params))));
+    }
+
+    private JsonNode actual(byte[] body) throws Exception {
+        return withoutId(objectMapper.readTree(body));
+    }
+
+    private static JsonNode withoutId(JsonNode request) {
+        assertTrue(request.get("id").asLong() > 0, request.toString());
+        ((ObjectNode) request).remove("id");
+        return request;
+    }
+
+    @Test
+    public void encodesGenericRequests() throws Exception {
+        assertEquals(expected("getSlot", List.of(Map.of("commitment", "confirmed"))),
+                actual(encoder.encode("getSlot", List.of(Map.of("commitment", "confirmed")))));
+        assertEquals(expected("getHealth", null), actual(encoder.encode("getHealth", null)));
+    }
+
+    @Test
+    public void encodesSendTransaction() throws Exception {
+        byte[] transaction = new byte[200];
+        for (int i = 0; i < transaction.length; i++) {
+            transaction[i] = (byte) i;
+        }
+        RpcSendTransactionConfig config = new RpcSendTransactionConfig();
+        JsonNode expected = expected("sendTransaction",
+                List.of(Base64.getEncoder().encodeToString(transaction), config));
+
+        assertEquals(expected, actual(encoder.sendTransaction(transaction, config)));
+
+        ByteBuffer heap = ByteBuffer.allocate(transaction.length + 10);
+        heap.position(10);
+        heap.put(transaction).flip().position(10);
+        assertEquals(expected, actual(encoder.sendTransaction(heap.slice(), config)));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(transaction.length);
+        direct.put(transaction).flip();
+        assertEquals(expected, actual(encoder.sendTransaction(direct, config)));
+        assertEquals(0, direct.position());
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.sendTransaction(transaction,
+                RpcSendTransactionConfig.builder().encoding(RpcSendTransactionConfig.Encoding.base58).build()));
+    }
+
+    @Test
+    public void encodesAccountRequests() throws Exception {
+        assertEquals(expected("getAccountInfo", List.of(ACCOUNT.toBase58(), Map.of("encoding", "base64"))),
+                actual(encoder.getAccountInfo(ACCOUNT, "base64", null)));
+        assertEquals(expected("getAccountInfo", List.of(ACCOUNT.toBase58(),
+                        Map.of("encoding", "jsonParsed", "commitment", "finalized"))),
+                actual(encoder.getAccountInfo(ACCOUNT, "jsonParsed", Commitment.FINALIZED)));
+        assertEquals(expected("getMultipleAccounts", List.of(List.of(ACCOUNT.toBase58(), OTHER_ACCOUNT.toBase58()),
+                        Map.of("encoding", "base64", "commitment", "confirmed"))),
+                actual(encoder.getMultipleAccounts(List.of(ACCOUNT, OTHER_ACCOUNT), "base64", Commitment.CONFIRMED)));
+    }
+
+    @Test
+    public void encodesSignatureStatuses() throws Exception {
+        List<String> signatures = List.of("5VERv8NMvzbJMEkV8xnrLkEaWRtSz9CosKDYjCJjBRnbJLgp8uirBgmQpjKhoR4tjF3ZpRzrFmBV6UjKdiSZkQUW");
+        assertEquals(expected("getSignatureStatuses", List.of(signatures, new SignatureStatusConfig(true))),
+                actual(encoder.getSignatureStatuses(signatures, true)));
+    }
+
+    @Test
+    public void reusesBufferAcrossRequests() throws Exception {
+        JsonNode first = objectMapper.readTree(encoder.getAccountInfo(ACCOUNT, "base64", null));
+        JsonNode second = objectMapper.readTree(encoder.getAccountInfo(OTHER_ACCOUNT, "base64", null));
+
+        assertEquals(OTHER_ACCOUNT.toBase58(), second.get("params").get(0).asText());
+        assertTrue(second.get("id").asLong() > first.get("id").asLong());
+    }
+}
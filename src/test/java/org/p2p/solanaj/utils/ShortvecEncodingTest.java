@@ -1,6 +1,9 @@
 package org.p2p.solanaj.utils;
 
 import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ShortvecEncodingTest {
@@ -18,4 +21,34 @@ public class ShortvecEncodingTest {
         assertArrayEquals(new byte[] { -128, -128, -128, 1 } /* [0x80, 0x80, 0x80, 0x01] */,
                 ShortvecEncoding.encodeLength(2097152)); // 0x200000
     }
+
+    @Test
+    public void decodeLength() {
+        for (int len : new int[] { 0, 1, 127, 128, 255, 256, 32767, 65535 }) {
+            ByteBuffer buffer = ByteBuffer.wrap(ShortvecEncoding.encodeLength(len));
+            assertEquals(len, ShortvecEncoding.decodeLength(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void decodeLengthRejectsInvalidEncodings() {
+        byte[][] invalid = {
+                { (byte) 0x80, 0x00 },                     // 0 with a redundant continuation
+                { (byte) 0xff, (byte) 0x80, 0x00 },        // 127 with a redundant continuation
+                { (byte) 0x80, (byte) 0x80, 0x04 },        // 0x10000
+                { (byte) 0xff, (byte) 0xff, 0x7f },        // 2^21 - 1
+                { (byte) 0x80, (byte) 0x80, (byte) 0x81 }, // A fourth byte
+        };
+        for (byte[] encoding : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> ShortvecEncoding.decodeLength(ByteBuffer.wrap(encoding)));
+        }
+    }
+
+    @Test
+    public void encodedLength() {
+        for (int len : new int[] { 0, 1, 127, 128, 255, 256, 16383, 16384, 65535 }) {
+            assertEquals(ShortvecEncoding.encodeLength(len).length, ShortvecEncoding.encodedLength(len));
+        }
+    }
 }
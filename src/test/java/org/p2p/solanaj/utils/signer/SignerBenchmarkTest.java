@@ -0,0 +1,52 @@
+package org.p2p.solanaj.utils.signer;
+
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Performance benchmark for the Ed25519 signers.
+ * This test is disabled by default as it's a benchmark, not a unit test.
+ * Run it manually to compare signing throughput.
+ */
+@Disabled("This is a benchmark test, run manually")
+public class SignerBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 5000;
+    private static final int BENCHMARK_ITERATIONS = 20000;
+
+    @Test
+    public void benchmarkSigners() {
+        Account account = new Account();
+        // A typical transaction message
+        byte[] message = new byte[400];
+        new Random(42).nextBytes(message);
+        byte[] signature = new byte[Signer.SIGNATURE_LENGTH];
+
+        List<Signer> signers = new ArrayList<>(List.of(Signers.tweetNacl(), Signers.eddsa()));
+        if (Signers.isJdkAvailable()) {
+            signers.add(Signers.jdk());
+        }
+
+        for (Signer signer : signers) {
+            Signer.SigningKey key = signer.createSigningKey(account.getSecretKey());
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                key.sign(message, 0, message.length, signature, 0);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+                key.sign(message, 0, message.length, signature, 0);
+            }
+            long time = System.nanoTime() - start;
+
+            System.out.printf("%-10s %.2f µs/op (%.0f signatures/s)\n", signer.getName(),
+                    time / 1000.0 / BENCHMARK_ITERATIONS, BENCHMARK_ITERATIONS * 1e9 / time);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.p2p.solanaj.utils.signer;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SignersTest {
+
+    private static List<Signer> signers() {
+        List<Signer> signers = new ArrayList<>(List.of(Signers.eddsa(), Signers.tweetNacl()));
+        if (Signers.isJdkAvailable()) {
+            signers.add(Signers.jdk());
+        }
+        return signers;
+    }
+
+    @Test
+    public void signersProduceTheReferenceSignature() {
+        Account account = new Account();
+        byte[] message = new byte[300];
+        new Random(42).nextBytes(message);
+        byte[] expected = new TweetNaclFast.Signature(null, account.getSecretKey()).detached(message);
+
+        for (Signer signer : signers()) {
+            Signer.SigningKey key = signer.createSigningKey(account.getSecretKey());
+            assertArrayEquals(expected, key.sign(message), signer.getName());
+
+            // The message and signature may share an array
+            byte[] buffer = new byte[10 + Signer.SIGNATURE_LENGTH + message.length];
+            System.arraycopy(message, 0, buffer, 10 + Signer.SIGNATURE_LENGTH, message.length);
+            key.sign(buffer, 10 + Signer.SIGNATURE_LENGTH, message.length, buffer, 10);
+            assertArrayEquals(expected, Arrays.copyOfRange(buffer, 10, 10 + Signer.SIGNATURE_LENGTH), signer.getName());
+        }
+    }
+
+    @Test
+    public void signingKeysAreThreadSafe() {
+        Account account = new Account();
+        Signer.SigningKey key = Signers.getDefault().createSigningKey(account.getSecretKey());
+        TweetNaclFast.Signature reference = new TweetNaclFast.Signature(null, account.getSecretKey());
+
+        IntStream.range(0, 200).parallel().forEach(i -> {
+            byte[] message = new byte[i + 1];
+            Arrays.fill(message, (byte) i);
+            assertArrayEquals(reference.detached(message), key.sign(message));
+        });
+    }
+
+    @Test
+    public void rejectsMalformedSecretKeys() {
+        Account account = new Account();
+        byte[] mismatched = account.getSecretKey().clone();
+        mismatched[40] ^= 1;
+
+        for (Signer signer : signers()) {
+            assertThrows(IllegalArgumentException.class, () -> signer.createSigningKey(new byte[32]), signer.getName());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Signers.eddsa().createSigningKey(mismatched));
+    }
+
+    @Test
+    public void defaultsToEdDSA() {
+        assertEquals("eddsa", Signers.getDefault().getName());
+    }
+
+    @Test
+    public void accountSignsWithChosenSigner() {
+        Account account = new Account();
+        byte[] message = "message".getBytes();
+        byte[] expected = account.sign(message);
+
+        account.setSigner(Signers.tweetNacl());
+        assertArrayEquals(expected, account.sign(message));
+        assertTrue(new TweetNaclFast.Signature(account.getPublicKey().toByteArray(), new byte[0])
+                .detached_verify(message, expected));
+    }
+}
@@ -0,0 +1,112 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.types.MultipleAccounts;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AccountMirrorTest {
+
+    private static final PublicKey KEY = new PublicKey("EPjFWdd5AufqSSqeM2qN1xzybapC8G4wEGGkZwyTDt1v");
+
+    private AccountMirror mirror;
+
+    @BeforeEach
+    public void setUp() {
+        mirror = new AccountMirror(mock(RpcClient.class), mock(SubscriptionWebSocketClient.class));
+    }
+
+    /**
+     * Updates from older slots must never replace newer state.
+     */
+    @Test
+    public void testOutOfOrderUpdatesAreDiscarded() {
+        assertTrue(mirror.apply(view(100, 1)));
+        assertTrue(mirror.apply(view(105, 2)));
+        assertFalse(mirror.apply(view(101, 3)));
+
+        assertEquals(105, mirror.get(KEY).getSlot());
+        assertEquals(2, mirror.get(KEY).getLamports());
+    }
+
+    @Test
+    public void testListenersSeePreviousAndCurrent() {
+        List<AccountView[]> changes = new ArrayList<>();
+        mirror.addListener((previous, current) -> changes.add(new AccountView[]{previous, current}));
+
+        mirror.apply(view(10, 1));
+        mirror.apply(view(9, 2));
+        mirror.apply(view(11, 3));
+
+        assertEquals(2, changes.size());
+        assertNull(changes.get(0)[0]);
+        assertEquals(1, changes.get(1)[0].getLamports());
+        assertEquals(3, changes.get(1)[1].getLamports());
+    }
+
+    @Test
+    public void testFromNotificationDecodesBase64Data() {
+        byte[] data = new byte[]{1, 2, 3};
+        Map<String, Object> value = Map.of(
+                "lamports", 5000,
+                "owner", "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA",
+                "executable", false,
+                "rentEpoch", 361,
+                "data", List.of(Base64.getEncoder().encodeToString(data), "base64")
+        );
+
+        AccountView view = AccountView.fromNotification(KEY, 42, value);
+
+        assertEquals(42, view.getSlot());
+        assertEquals(5000, view.getLamports());
+        assertEquals("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA", view.getOwner());
+        assertArrayEquals(data, view.getData());
+    }
+
+    @Test
+    public void testUntrackDropsNotificationsInFlight() throws Exception {
+        RpcClient rpcClient = mock(RpcClient.class);
+        RpcApi api = mock(RpcApi.class);
+        MultipleAccounts accounts = mock(MultipleAccounts.class);
+        when(rpcClient.getApi()).thenReturn(api);
+        when(api.getMultipleAccountsInfo(anyList(), anyMap())).thenReturn(accounts);
+        when(accounts.getValue()).thenReturn(List.of());
+        SubscriptionWebSocketClient wsClient = mock(SubscriptionWebSocketClient.class);
+        when(wsClient.accountSubscribe(anyString(), any(), any(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(3L));
+        AccountMirror tracking = new AccountMirror(rpcClient, wsClient);
+
+        tracking.track(List.of(KEY));
+        tracking.track(List.of(KEY));
+        ArgumentCaptor<NotificationEventListener> listener = ArgumentCaptor.forClass(NotificationEventListener.class);
+        verify(wsClient, times(1)).accountSubscribe(eq(KEY.toBase58()), listener.capture(), eq(Commitment.CONFIRMED), eq("base64"));
+
+        Map<String, Object> value = Map.of("lamports", 5000, "owner", "owner", "executable", false,
+                "rentEpoch", 0, "data", List.of("AQ==", "base64"));
+        listener.getValue().onNotificationEvent(value, 10);
+        assertNotNull(tracking.get(KEY));
+
+        tracking.untrack(KEY);
+        listener.getValue().onNotificationEvent(value, 11);
+        assertNull(tracking.get(KEY));
+    }
+
+    private static AccountView view(long slot, long lamports) {
+        return new AccountView(KEY, slot, lamports, null, false, 0, null);
+    }
+}
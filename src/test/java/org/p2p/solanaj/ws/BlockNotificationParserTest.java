@@ -0,0 +1,95 @@
+package org.p2p.solanaj.ws;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockNotificationParserTest {
+
+    private static final String PROGRAM = "PhoeNiXZ8ByJGLkxNfZRnkUfjvmuYqLR89jjFHGqdXY";
+    private static final String SYSTEM = "11111111111111111111111111111111";
+    private static final String VOTE = "Vote111111111111111111111111111111111111111";
+
+    private final BlockNotificationParser parser = new BlockNotificationParser(new ObjectMapper());
+
+    private static String transaction(String signature, String... keys) {
+        StringBuilder accountKeys = new StringBuilder();
+        for (String key : keys) {
+            accountKeys.append(accountKeys.length() == 0 ? "" : ",").append('"').append(key).append('"');
+        }
+        return "{\"transaction\":{\"signatures\":[\"" + signature + "\"],\"message\":{\"header\":{\"numRequiredSignatures\":1},"
+                + "\"accountKeys\":[" + accountKeys + "],\"instructions\":[{\"programIdIndex\":1,\"data\":\"3Bxs\"}]}},"
+                + "\"meta\":{\"err\":null,\"fee\":5000,\"logMessages\":[\"Program log: ok\"]},\"version\":0}";
+    }
+
+    private static String frame(boolean subscriptionFirst, String... transactions) {
+        String result = "\"result\":{\"context\":{\"slot\":100},\"value\":{\"slot\":100,\"block\":{\"blockhash\":\"abc\","
+                + "\"parentSlot\":99,\"transactions\":[" + String.join(",", transactions) + "],\"blockTime\":null},\"err\":null}}";
+        String params = subscriptionFirst ? "\"subscription\":7," + result : result + ",\"subscription\":7";
+        return "{\"jsonrpc\":\"2.0\",\"method\":\"blockNotification\",\"params\":{" + params + "}}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> transactions(BlockNotificationParser.Notification notification) {
+        Map<String, Object> block = (Map<String, Object>) notification.value.get("block");
+        return (List<Map<String, Object>>) block.get("transactions");
+    }
+
+    @Test
+    public void testRejectedTransactionsAreSkipped() throws Exception {
+        String message = frame(false, transaction("a", VOTE, SYSTEM), transaction("b", PROGRAM, SYSTEM), transaction("c", VOTE));
+
+        BlockNotificationParser.Notification notification = parser.parse(message, id -> BlockNotificationParser.mentions(PROGRAM));
+
+        assertEquals(7, notification.subscription);
+        assertEquals(100, notification.slot);
+        List<Map<String, Object>> transactions = transactions(notification);
+        assertEquals(1, transactions.size());
+        Map<?, ?> kept = transactions.get(0);
+        assertEquals(List.of("b"), ((Map<?, ?>) kept.get("transaction")).get("signatures"));
+        assertEquals(5000, ((Map<?, ?>) kept.get("meta")).get("fee"));
+        assertEquals(0, kept.get("version"));
+
+        Map<?, ?> block = (Map<?, ?>) notification.value.get("block");
+        assertEquals("abc", block.get("blockhash"));
+        assertEquals(99, block.get("parentSlot"));
+        assertTrue(block.containsKey("blockTime"));
+    }
+
+    @Test
+    public void testAllTransactionsWithSubscriptionFirst() throws Exception {
+        String message = frame(true, transaction("a", VOTE), transaction("b", PROGRAM));
+
+        BlockNotificationParser.Notification notification = parser.parse(message, id -> BlockNotificationParser.ALL_TRANSACTIONS);
+
+        assertEquals(2, transactions(notification).size());
+    }
+
+    @Test
+    public void testParsedAccountKeys() throws Exception {
+        String transaction = "{\"transaction\":{\"accountKeys\":[{\"pubkey\":\"" + PROGRAM + "\",\"signer\":false,"
+                + "\"source\":\"transaction\",\"writable\":false}],\"signatures\":[\"a\"]},\"meta\":null}";
+
+        BlockNotificationParser.Notification notification = parser.parse(frame(false, transaction),
+                id -> BlockNotificationParser.mentions(PROGRAM));
+
+        Map<String, Object> kept = transactions(notification).get(0);
+        List<?> keys = (List<?>) ((Map<?, ?>) kept.get("transaction")).get("accountKeys");
+        assertEquals(PROGRAM, ((Map<?, ?>) keys.get(0)).get("pubkey"));
+        assertNull(kept.get("meta"));
+    }
+
+    @Test
+    public void testUnknownSubscriptionAndOtherMessages() throws Exception {
+        BlockNotificationParser.Notification notification = parser.parse(frame(false, transaction("a", VOTE)), id -> null);
+        assertEquals(7, notification.subscription);
+        assertNull(notification.value);
+
+        assertNull(parser.parse("{\"jsonrpc\":\"2.0\",\"result\":5,\"id\":\"1\"}", id -> null));
+        assertNull(parser.parse("{\"jsonrpc\":\"2.0\",\"method\":\"slotNotification\",\"params\":{}}", id -> null));
+    }
+}
@@ -0,0 +1,113 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FanInSubscriptionClientTest {
+
+    private static final String ACCOUNT = "SysvarC1ock11111111111111111111111111111111";
+
+    private SubscriptionWebSocketClient first;
+    private SubscriptionWebSocketClient second;
+    private FanInSubscriptionClient fanIn;
+
+    @BeforeEach
+    public void setUp() {
+        first = mock(SubscriptionWebSocketClient.class);
+        second = mock(SubscriptionWebSocketClient.class);
+        when(first.getEndpoint()).thenReturn("wss://first");
+        when(second.getEndpoint()).thenReturn("wss://second");
+        when(first.accountSubscribe(anyString(), any(), any(), anyString())).thenReturn(CompletableFuture.completedFuture(11L));
+        when(second.accountSubscribe(anyString(), any(), any(), anyString())).thenReturn(new CompletableFuture<>());
+        fanIn = new FanInSubscriptionClient(List.of(first, second));
+    }
+
+    @Test
+    public void testDuplicateNotificationsAreDeliveredOnce() throws Exception {
+        List<Object> delivered = new ArrayList<>();
+        CompletableFuture<Long> handle = fanIn.accountSubscribe(ACCOUNT, delivered::add, Commitment.PROCESSED, "base64");
+        assertTrue(handle.isDone());
+
+        NotificationEventListener fromFirst = capture(first);
+        NotificationEventListener fromSecond = capture(second);
+
+        Map<String, Object> update = Map.of("lamports", 5, "owner", "owner", "data", List.of("AQ==", "base64"), "executable", false);
+        Map<String, Object> sameUpdate = Map.of("lamports", 5L, "owner", "owner", "data", List.of("AQ==", "base64"), "executable", false, "space", 1);
+        Map<String, Object> nextUpdate = Map.of("lamports", 6, "owner", "owner", "data", List.of("AQ==", "base64"), "executable", false);
+
+        fromSecond.onNotificationEvent(update, 100);
+        fromFirst.onNotificationEvent(sameUpdate, 100);
+        fromFirst.onNotificationEvent(nextUpdate, 100);
+        fromSecond.onNotificationEvent(nextUpdate, 100);
+
+        assertEquals(List.of(update, nextUpdate), delivered);
+        assertEquals(2, fanIn.getDeliveredCount());
+
+        FanInSubscriptionClient.ProviderStats firstStats = fanIn.getProviderStats().get(0);
+        FanInSubscriptionClient.ProviderStats secondStats = fanIn.getProviderStats().get(1);
+        assertEquals("wss://first", firstStats.getEndpoint());
+        assertEquals(2, firstStats.getNotifications());
+        assertEquals(1, firstStats.getFirstArrivals());
+        assertEquals(1, secondStats.getFirstArrivals());
+        assertEquals(0.5, secondStats.getWinRate(fanIn.getDeliveredCount()));
+    }
+
+    @Test
+    public void testUnsubscribeReachesEveryProvider() {
+        CompletableFuture<Long> handle = fanIn.accountSubscribe(ACCOUNT, data -> { }, Commitment.PROCESSED, "base64");
+        fanIn.unsubscribe(handle.join());
+
+        verify(first).unsubscribe(11L);
+        verify(second, never()).unsubscribe(anyLong());
+    }
+
+    @Test
+    public void testUpdatesWithCollidingHashCodesAreBothDelivered() {
+        List<Object> delivered = new ArrayList<>();
+        fanIn.accountSubscribe(ACCOUNT, delivered::add, Commitment.PROCESSED, "base64");
+        NotificationEventListener fromFirst = capture(first);
+
+        // "Aa" and "BB" have the same String hash code
+        Map<String, Object> update = Map.of("lamports", 5, "owner", "owner", "data", List.of("Aa", "base64"), "executable", false);
+        Map<String, Object> otherUpdate = Map.of("lamports", 5, "owner", "owner", "data", List.of("BB", "base64"), "executable", false);
+        assertEquals(update.hashCode(), otherUpdate.hashCode());
+
+        fromFirst.onNotificationEvent(update, 100);
+        fromFirst.onNotificationEvent(otherUpdate, 100);
+
+        assertEquals(List.of(update, otherUpdate), delivered);
+    }
+
+    @Test
+    public void testSubscribeFailsWhenEveryProviderFails() {
+        CompletableFuture<Long> failedFirst = new CompletableFuture<>();
+        CompletableFuture<Long> failedSecond = new CompletableFuture<>();
+        when(first.accountSubscribe(anyString(), any(), any(), anyString())).thenReturn(failedFirst);
+        when(second.accountSubscribe(anyString(), any(), any(), anyString())).thenReturn(failedSecond);
+
+        CompletableFuture<Long> handle = fanIn.accountSubscribe(ACCOUNT, data -> { }, Commitment.PROCESSED, "base64");
+        failedFirst.completeExceptionally(new IllegalStateException("first"));
+        assertFalse(handle.isDone());
+        failedSecond.completeExceptionally(new IllegalStateException("second"));
+
+        assertTrue(handle.isCompletedExceptionally());
+    }
+
+    private static NotificationEventListener capture(SubscriptionWebSocketClient client) {
+        ArgumentCaptor<NotificationEventListener> listener = ArgumentCaptor.forClass(NotificationEventListener.class);
+        verify(client).accountSubscribe(eq(ACCOUNT), listener.capture(), eq(Commitment.PROCESSED), eq("base64"));
+        return listener.getValue();
+    }
+}
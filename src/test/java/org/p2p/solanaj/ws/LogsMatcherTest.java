@@ -0,0 +1,115 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.ws.listeners.LogsEventListener;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogsMatcherTest {
+
+    private static final String SIGNATURE = "5wHu1qwD4kLwYvKNyZzjuoMYpGHSreYitBUJb7TQx3hngzs7jq6hBwZWwGcRQK3H9rw7Fxgb3zBYLXqjrDkDvnqf";
+    private static final String PROGRAM = "PhoeNiXZ8ByJGLkxNfZRnkUfjvmuYqLR89jjFHGqdXY";
+    private static final String SYSTEM = "11111111111111111111111111111111";
+
+    private static String eventData(String eventName, long amount) {
+        ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(LogsMatcher.anchorEventDiscriminator(eventName));
+        buffer.putLong(amount);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    private static List<String> logs() {
+        return List.of(
+                "Program " + PROGRAM + " invoke [1]",
+                "Program log: Instruction: Swap",
+                "Program " + SYSTEM + " invoke [2]",
+                "Program " + SYSTEM + " success",
+                "Program data: " + eventData("TradeEvent", 42),
+                "Program data: AQI= AwQ=",
+                "Program " + PROGRAM + " consumed 12345 of 200000 compute units",
+                "Program " + PROGRAM + " success");
+    }
+
+    @Test
+    public void testTypedEventsInLogOrder() {
+        LogsMatcher matcher = LogsMatcher.builder()
+                .invocations(null)
+                .results(PROGRAM)
+                .computeUnits(PROGRAM)
+                .programData(PROGRAM)
+                .anchorEvent(PROGRAM, "TradeEvent", ByteBuffer::getLong)
+                .build();
+
+        List<LogEvent> events = matcher.parse(SIGNATURE, logs());
+        assertEquals(7, events.size());
+
+        LogEvent.Invoke invoke = (LogEvent.Invoke) events.get(0);
+        assertEquals(PROGRAM, invoke.getProgramId());
+        assertEquals(1, invoke.getDepth());
+        assertEquals(SIGNATURE, invoke.getSignature());
+
+        LogEvent.Invoke inner = (LogEvent.Invoke) events.get(1);
+        assertEquals(SYSTEM, inner.getProgramId());
+        assertEquals(2, inner.getDepth());
+
+        LogEvent.AnchorEvent trade = (LogEvent.AnchorEvent) events.get(2);
+        assertEquals(PROGRAM, trade.getProgramId());
+        assertEquals("TradeEvent", trade.getName());
+        assertEquals(42L, (Long) trade.getDecoded());
+        assertEquals(42L, trade.getPayload().getLong());
+
+        assertInstanceOf(LogEvent.Data.class, events.get(3));
+        LogEvent.Data multi = (LogEvent.Data) events.get(4);
+        assertEquals(2, multi.getFields().size());
+        assertArrayEquals(new byte[]{3, 4}, multi.getFields().get(1));
+
+        LogEvent.ComputeUnits units = (LogEvent.ComputeUnits) events.get(5);
+        assertEquals(12345, units.getConsumed());
+        assertEquals(200000, units.getLimit());
+
+        LogEvent.Result result = (LogEvent.Result) events.get(6);
+        assertTrue(result.isSuccess());
+        assertEquals(7, result.getLineIndex());
+    }
+
+    @Test
+    public void testUnregisteredProgramsAndEventsAreIgnored() {
+        LogsMatcher matcher = LogsMatcher.builder()
+                .anchorEvent(SYSTEM, "TradeEvent")
+                .anchorEvent(PROGRAM, "OtherEvent")
+                .build();
+
+        assertTrue(matcher.parse(SIGNATURE, logs()).isEmpty());
+    }
+
+    @Test
+    public void testFailedResult() {
+        LogsMatcher matcher = LogsMatcher.builder().results(PROGRAM).build();
+        List<LogEvent> events = matcher.parse(SIGNATURE, List.of(
+                "Program " + PROGRAM + " invoke [1]",
+                "Program " + PROGRAM + " failed: custom program error: 0x1"));
+
+        LogEvent.Result result = (LogEvent.Result) events.get(0);
+        assertFalse(result.isSuccess());
+        assertEquals("custom program error: 0x1", result.getError());
+    }
+
+    @Test
+    public void testListenerScansNotification() {
+        LogsMatcher matcher = LogsMatcher.builder().computeUnits(PROGRAM).build();
+        List<LogEvent> events = new ArrayList<>();
+        LogsEventListener listener = new LogsEventListener(matcher, events::add, true);
+
+        listener.onNotificationEvent(Map.of("signature", SIGNATURE, "logs", logs()));
+        listener.onNotificationEvent(Map.of("signature", SIGNATURE, "logs", logs(), "err", Map.of("InstructionError", 0)));
+
+        assertEquals(1, events.size());
+    }
+}
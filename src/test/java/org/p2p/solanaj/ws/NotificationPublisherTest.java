@@ -0,0 +1,153 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class NotificationPublisherTest {
+
+    /**
+     * Records signals and leaves demand to the test.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<NotificationPublisher.Notification> {
+        final List<NotificationPublisher.Notification> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(NotificationPublisher.Notification item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        List<Long> slots() {
+            List<Long> slots = new ArrayList<>();
+            items.forEach(item -> slots.add(item.getSlot()));
+            return slots;
+        }
+    }
+
+    private SubscriptionWebSocketClient client;
+    private NotificationEventListener listener;
+
+    @BeforeEach
+    public void setUp() {
+        client = mock(SubscriptionWebSocketClient.class);
+    }
+
+    private NotificationPublisher publisher(int bufferSize, NotificationPublisher.Overflow overflow) {
+        return new NotificationPublisher(client, notificationListener -> {
+            listener = notificationListener;
+            return CompletableFuture.completedFuture(42L);
+        }, bufferSize, overflow, data -> ((Map<?, ?>) data).get("pubkey"));
+    }
+
+    @Test
+    public void testDemandIsHonoured() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(8, NotificationPublisher.Overflow.ERROR).subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        for (long slot = 1; slot <= 3; slot++) {
+            listener.onNotificationEvent(Map.of("pubkey", "a"), slot);
+        }
+        assertEquals(List.of(1L), subscriber.slots());
+
+        subscriber.subscription.request(5);
+        assertEquals(List.of(1L, 2L, 3L), subscriber.slots());
+
+        listener.onNotificationEvent(Map.of("pubkey", "a"), 4);
+        assertEquals(List.of(1L, 2L, 3L, 4L), subscriber.slots());
+    }
+
+    @Test
+    public void testConflationKeepsLatestPerKey() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(1, NotificationPublisher.Overflow.CONFLATE).subscribe(subscriber);
+
+        listener.onNotificationEvent(Map.of("pubkey", "a"), 1);
+        listener.onNotificationEvent(Map.of("pubkey", "b"), 2);
+        listener.onNotificationEvent(Map.of("pubkey", "a"), 3);
+
+        subscriber.subscription.request(10);
+        assertEquals(List.of(3L, 2L), subscriber.slots());
+    }
+
+    @Test
+    public void testDropOldest() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(2, NotificationPublisher.Overflow.DROP_OLDEST).subscribe(subscriber);
+
+        for (long slot = 1; slot <= 3; slot++) {
+            listener.onNotificationEvent(Map.of("pubkey", "a"), slot);
+        }
+        subscriber.subscription.request(10);
+        assertEquals(List.of(2L, 3L), subscriber.slots());
+    }
+
+    @Test
+    public void testOverflowSignalsErrorAndUnsubscribes() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(1, NotificationPublisher.Overflow.ERROR).subscribe(subscriber);
+
+        listener.onNotificationEvent(Map.of("pubkey", "a"), 1);
+        listener.onNotificationEvent(Map.of("pubkey", "a"), 2);
+
+        assertInstanceOf(IllegalStateException.class, subscriber.error);
+        verify(client).unsubscribe(42L);
+    }
+
+    @Test
+    public void testCancelUnsubscribes() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        publisher(1, NotificationPublisher.Overflow.ERROR).subscribe(subscriber);
+
+        subscriber.subscription.cancel();
+        listener.onNotificationEvent(Map.of("pubkey", "a"), 1);
+        subscriber.subscription.request(1);
+
+        verify(client, times(1)).unsubscribe(42L);
+        assertTrue(subscriber.items.isEmpty());
+    }
+
+    @Test
+    public void testCancelRacingConfirmationUnsubscribesOnce() {
+        // The server confirms the subscription just as cancel() checks it, so both paths see it confirmed
+        CompletableFuture<Long> confirmation = new CompletableFuture<>() {
+            @Override
+            public boolean isDone() {
+                complete(42L);
+                return super.isDone();
+            }
+        };
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        new NotificationPublisher(client, notificationListener -> confirmation, 1, NotificationPublisher.Overflow.ERROR,
+                data -> data).subscribe(subscriber);
+
+        subscriber.subscription.cancel();
+
+        verify(client, times(1)).unsubscribe(42L);
+    }
+}
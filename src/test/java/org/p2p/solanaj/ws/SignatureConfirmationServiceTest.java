@@ -0,0 +1,92 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.types.SignatureStatuses;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class SignatureConfirmationServiceTest {
+
+    private static final String SIGNATURE = "5wHu1qwD4kLwYvKNyZzjuoMYpGHSreYitBUJb7TQx3hngzs7jq6hBwZWwGcRQK3H9rw7Fxgb3zBYLXqjrDkDvnqf";
+
+    private RpcApi api;
+    private SubscriptionWebSocketClient socket;
+    private SignatureConfirmationService service;
+
+    @BeforeEach
+    public void setUp() {
+        RpcClient rpcClient = mock(RpcClient.class);
+        api = mock(RpcApi.class);
+        when(rpcClient.getApi()).thenReturn(api);
+
+        socket = mock(SubscriptionWebSocketClient.class);
+        when(socket.signatureSubscribe(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(7L));
+
+        service = new SignatureConfirmationService(rpcClient, List.of(socket), Commitment.CONFIRMED);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.close();
+    }
+
+    /**
+     * A notification completes the future; the server already dropped the subscription, so no unsubscribe is sent.
+     */
+    @Test
+    public void testNotificationCompletesFuture() throws Exception {
+        CompletableFuture<SignatureNotification> future = service.confirm(SIGNATURE, 1000);
+        assertSame(future, service.confirm(SIGNATURE, 1000));
+
+        ArgumentCaptor<NotificationEventListener> listener = ArgumentCaptor.forClass(NotificationEventListener.class);
+        verify(socket).signatureSubscribe(eq(SIGNATURE), listener.capture(), eq(Commitment.CONFIRMED));
+        listener.getValue().onNotificationEvent(new SignatureNotification(null));
+
+        assertFalse(future.get().hasError());
+        assertEquals(0, service.getPendingCount());
+        verify(socket, never()).unsubscribe(anyLong());
+    }
+
+    @Test
+    public void testExpiredSignatureFailsAndUnsubscribes() throws Exception {
+        SignatureStatuses statuses = mock(SignatureStatuses.class);
+        when(statuses.getValue()).thenReturn(Collections.singletonList(null));
+        when(api.getBlockHeight(Commitment.CONFIRMED)).thenReturn(1001L);
+        when(api.getSignatureStatuses(List.of(SIGNATURE), false)).thenReturn(statuses);
+
+        CompletableFuture<SignatureNotification> future = service.confirm(SIGNATURE, 1000);
+        service.expire();
+
+        ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        assertEquals(0, service.getPendingCount());
+        verify(socket).unsubscribe(7L);
+    }
+
+    @Test
+    public void testFailedSubscriptionFailsFuture() {
+        IllegalStateException error = new IllegalStateException("Subscription rejected");
+        when(socket.signatureSubscribe(anyString(), any(), any())).thenReturn(CompletableFuture.failedFuture(error));
+
+        CompletableFuture<SignatureNotification> future = service.confirm(SIGNATURE);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+        assertSame(error, ex.getCause());
+        assertEquals(0, service.getPendingCount());
+    }
+}
@@ -0,0 +1,66 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class SlotClockTest {
+
+    private final SlotClock clock = new SlotClock(mock(SubscriptionWebSocketClient.class), null);
+
+    @Test
+    public void testSlotsAreMonotonic() {
+        clock.onProcessedSlot(100, 0, 0);
+        clock.onProcessedSlot(99, 1, 1);
+        clock.onConfirmedSlot(98);
+        clock.onConfirmedSlot(97);
+        clock.onFinalizedSlot(60);
+
+        assertEquals(100, clock.getProcessedSlot());
+        assertEquals(98, clock.getSlot(Commitment.CONFIRMED));
+        assertEquals(60, clock.getSlot(Commitment.FINALIZED));
+    }
+
+    /**
+     * The measured duration converges towards the observed slot spacing.
+     */
+    @Test
+    public void testSlotDurationIsMeasured() {
+        long step = TimeUnit.MILLISECONDS.toNanos(500);
+        for (int i = 0; i < 500; i++) {
+            clock.onProcessedSlot(1000 + i, i * step, i * 500L);
+        }
+
+        assertEquals(500, TimeUnit.NANOSECONDS.toMillis(clock.getSlotDurationNanos()), 5);
+    }
+
+    /**
+     * Slots reported concurrently never move the anchor back, and its slot and time stay paired.
+     */
+    @Test
+    public void testConcurrentSlotsKeepTheLatestAnchor() {
+        long step = TimeUnit.MILLISECONDS.toNanos(400);
+        LongStream.rangeClosed(1, 20_000).parallel()
+                .forEach(slot -> clock.onProcessedSlot(slot, slot * step, slot * 400));
+
+        assertEquals(20_000, clock.getProcessedSlot());
+        assertEquals(20_000, clock.estimateSlotAt(Instant.ofEpochMilli(20_000 * 400L)));
+    }
+
+    @Test
+    public void testEstimateSlotAt() {
+        assertEquals(-1, clock.estimateSlotAt(Instant.now()));
+
+        clock.onProcessedSlot(1000, 0, 10_000);
+
+        assertEquals(1000, clock.estimateSlotAt(Instant.ofEpochMilli(10_000)));
+        assertEquals(1005, clock.estimateSlotAt(Instant.ofEpochMilli(12_000)));
+        assertEquals(997, clock.estimateSlotAt(Instant.ofEpochMilli(8_800)));
+    }
+}
@@ -0,0 +1,353 @@
+package org.p2p.solanaj.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.p2p.solanaj.rpc.types.DataSize;
+import org.p2p.solanaj.rpc.types.DataSlice;
+import org.p2p.solanaj.rpc.types.Filter;
+import org.p2p.solanaj.rpc.types.Memcmp;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Exercises reconnect and failover of SubscriptionWebSocketClient against scripted connections.
+ */
+public class SubscriptionWebSocketClientFailoverTest {
+
+    private static final String ACCOUNT = "SysvarC1ock11111111111111111111111111111111";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Hands out mock sockets and keeps the listener of each.
+     */
+    private static class ScriptedFactory implements WebSocket.Factory {
+        final List<WebSocket> sockets = new ArrayList<>();
+        final List<WebSocketListener> listeners = new ArrayList<>();
+
+        @Override
+        public synchronized WebSocket newWebSocket(Request request, WebSocketListener listener) {
+            WebSocket socket = mock(WebSocket.class);
+            when(socket.send(anyString())).thenReturn(true);
+            sockets.add(socket);
+            listeners.add(listener);
+            return socket;
+        }
+
+        void open(int index) {
+            listeners.get(index).onOpen(sockets.get(index), null);
+        }
+
+        void receive(int index, String message) {
+            listeners.get(index).onMessage(sockets.get(index), message);
+        }
+
+        void receiveBinary(int index, String message) {
+            listeners.get(index).onMessage(sockets.get(index), ByteString.encodeUtf8(message));
+        }
+
+        /**
+         * Confirms the most recent subscribe request sent on a socket with the given server ID.
+         */
+        void confirmLast(int index, long serverId) throws Exception {
+            ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+            verify(sockets.get(index), atLeastOnce()).send(sent.capture());
+            JsonNode request = MAPPER.readTree(sent.getValue());
+            receive(index, "{\"jsonrpc\":\"2.0\",\"result\":" + serverId + ",\"id\":\"" + request.get("id").asText() + "\"}");
+        }
+
+        void notify(int index, long serverId, long lamports) {
+            receive(index, "{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\",\"params\":{\"subscription\":" + serverId
+                    + ",\"result\":{\"context\":{\"slot\":" + lamports + "},\"value\":{\"lamports\":" + lamports + "}}}}");
+        }
+    }
+
+    private SubscriptionWebSocketClient client;
+
+    @AfterEach
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void testFailoverMovesSubscriptionsBeforeDroppingStaleConnection() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, null);
+        List<Long> slots = new ArrayList<>();
+
+        CompletableFuture<Long> handle = client.accountSubscribe(ACCOUNT, new NotificationEventListener() {
+            @Override
+            public void onNotificationEvent(Object data) {
+            }
+
+            @Override
+            public void onNotificationEvent(Object data, long slot) {
+                slots.add(slot);
+            }
+        }, Commitment.PROCESSED, "base64");
+
+        factory.open(0);
+        factory.confirmLast(0, 555);
+        assertEquals(1L, handle.get(1, TimeUnit.SECONDS));
+        factory.notify(0, 555, 10);
+
+        client.failover();
+        assertEquals(2, factory.sockets.size());
+        factory.open(1);
+
+        // The old connection keeps delivering until the new one confirms
+        factory.notify(0, 555, 11);
+        factory.confirmLast(1, 777);
+        factory.notify(0, 555, 12);
+        factory.notify(1, 777, 12);
+
+        assertEquals(List.of(10L, 11L, 12L), slots);
+        verify(factory.sockets.get(0), timeout(1000)).cancel();
+        assertTrue(client.isOpen());
+        assertEquals(1, client.getFailoverCount());
+        assertEquals(1L, client.getSubscriptionId(ACCOUNT));
+
+        client.unsubscribe(1L);
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        verify(factory.sockets.get(1), atLeastOnce()).send(sent.capture());
+        JsonNode unsubscribe = MAPPER.readTree(sent.getValue());
+        assertEquals("accountUnsubscribe", unsubscribe.get("method").asText());
+        assertEquals(777, unsubscribe.get("params").get(0).asLong());
+    }
+
+    @Test
+    public void testWatchdogFailsOverSilentConnection() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, Duration.ofMillis(1));
+        factory.open(0);
+
+        Thread.sleep(5);
+        client.checkLiveness();
+
+        assertEquals(2, factory.sockets.size());
+        assertEquals(1, client.getFailoverCount());
+    }
+
+    @Test
+    public void testResubscriptionIsPacedAndOrderedByPriority() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, null);
+        client.setResubscribeRate(0);
+        client.setMaxInFlightSubscribeRequests(2);
+
+        List<CompletableFuture<Long>> handles = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            handles.add(client.accountSubscribe("account" + i, data -> { }, Commitment.PROCESSED, "base64"));
+        }
+        client.setSubscriptionPriority(3L, 10);
+
+        factory.open(0);
+        List<JsonNode> sent = sent(factory.sockets.get(0));
+        assertEquals(2, sent.size());
+        assertEquals("account2", sent.get(0).get("params").get(0).asText());
+        assertEquals("account0", sent.get(1).get("params").get(0).asText());
+
+        // A rate-limited request is queued again instead of failing the subscription
+        factory.receive(0, "{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32429,\"message\":\"rate limited\"},\"id\":\""
+                + sent.get(0).get("id").asText() + "\"}");
+        factory.receive(0, "{\"jsonrpc\":\"2.0\",\"result\":100,\"id\":\"" + sent.get(1).get("id").asText() + "\"}");
+        assertNull(client.getLastResubscribeDuration());
+
+        // In flight now: the retried account2 and account1; account3 waits for a free slot
+        for (int response = 2; response < 5; response++) {
+            JsonNode request = sent(factory.sockets.get(0)).get(response);
+            factory.receive(0, "{\"jsonrpc\":\"2.0\",\"result\":" + (100 + response) + ",\"id\":\""
+                    + request.get("id").asText() + "\"}");
+        }
+
+        List<JsonNode> requests = sent(factory.sockets.get(0));
+        assertEquals(5, requests.size());
+        assertEquals("account2", requests.get(2).get("params").get(0).asText());
+        for (CompletableFuture<Long> handle : handles) {
+            assertTrue(handle.isDone());
+            assertFalse(handle.isCompletedExceptionally());
+        }
+        assertNotNull(client.getLastResubscribeDuration());
+    }
+
+    private static List<JsonNode> sent(WebSocket socket) throws Exception {
+        ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
+        verify(socket, atLeast(0)).send(sent.capture());
+        List<JsonNode> requests = new ArrayList<>();
+        for (String json : sent.getAllValues()) {
+            requests.add(MAPPER.readTree(json));
+        }
+        return requests;
+    }
+
+    @Test
+    public void testIdenticalSubscriptionsShareOneServerSubscription() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, null);
+        factory.open(0);
+
+        List<Long> first = new ArrayList<>();
+        List<Long> second = new ArrayList<>();
+        CompletableFuture<Long> firstHandle = client.accountSubscribe(ACCOUNT, recordSlots(first), Commitment.PROCESSED, "base64");
+        CompletableFuture<Long> secondHandle = client.accountSubscribe(ACCOUNT, recordSlots(second), Commitment.PROCESSED, "base64");
+        client.accountSubscribe(ACCOUNT, data -> { }, Commitment.CONFIRMED, "base64");
+
+        assertEquals(2, sent(factory.sockets.get(0)).size());
+        assertEquals(2, client.getServerSubscriptionCount());
+        receiveResult(factory, sent(factory.sockets.get(0)).get(0), 555);
+        assertNotEquals(firstHandle.get(1, TimeUnit.SECONDS), secondHandle.get(1, TimeUnit.SECONDS));
+
+        factory.notify(0, 555, 10);
+        assertEquals(List.of(10L), first);
+        assertEquals(List.of(10L), second);
+
+        client.unsubscribe(firstHandle.get());
+        factory.notify(0, 555, 11);
+        assertEquals(List.of(10L), first);
+        assertEquals(List.of(10L, 11L), second);
+        verify(factory.sockets.get(0), never()).send(contains("accountUnsubscribe"));
+
+        client.unsubscribe(secondHandle.get());
+        verify(factory.sockets.get(0)).send(contains("accountUnsubscribe"));
+        assertEquals(1, client.getServerSubscriptionCount());
+
+        // A later subscriber opens a fresh server subscription
+        client.accountSubscribe(ACCOUNT, data -> { }, Commitment.PROCESSED, "base64");
+        assertEquals(2, client.getServerSubscriptionCount());
+    }
+
+    private static NotificationEventListener recordSlots(List<Long> slots) {
+        return new NotificationEventListener() {
+            @Override
+            public void onNotificationEvent(Object data) {
+            }
+
+            @Override
+            public void onNotificationEvent(Object data, long slot) {
+                slots.add(slot);
+            }
+        };
+    }
+
+    private static void receiveResult(ScriptedFactory factory, JsonNode request, long serverId) {
+        factory.receive(0, "{\"jsonrpc\":\"2.0\",\"result\":" + serverId + ",\"id\":\"" + request.get("id").asText() + "\"}");
+    }
+
+    @Test
+    public void testSubscriptionSentOncePerConnection() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, null);
+        factory.open(0);
+
+        client.accountSubscribe(ACCOUNT, data -> { }, Commitment.PROCESSED, "base64");
+        factory.listeners.get(0).onOpen(factory.sockets.get(0), null);
+
+        verify(factory.sockets.get(0), times(1)).send(contains("accountSubscribe"));
+    }
+
+    @Test
+    public void testFilteredProgramSubscribeDeliversAccountViews() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, null);
+        factory.open(0);
+
+        List<Object> filters = List.of(new Filter(new Memcmp(8, ACCOUNT)), new DataSize(165));
+        List<AccountView> views = new ArrayList<>();
+        client.programAccountSubscribe(ACCOUNT, filters, new DataSlice(0, 4), Commitment.CONFIRMED, views::add);
+
+        JsonNode config = sent(factory.sockets.get(0)).get(0).get("params").get(1);
+        assertEquals(8, config.get("filters").get(0).get("memcmp").get("offset").asLong());
+        assertEquals(165, config.get("filters").get(1).get("dataSize").asInt());
+        assertEquals(4, config.get("dataSlice").get("length").asInt());
+        assertEquals("base64", config.get("encoding").asText());
+
+        factory.confirmLast(0, 555);
+        factory.receive(0, "{\"jsonrpc\":\"2.0\",\"method\":\"programNotification\",\"params\":{\"subscription\":555,"
+                + "\"result\":{\"context\":{\"slot\":42},\"value\":{\"pubkey\":\"" + ACCOUNT + "\",\"account\":"
+                + "{\"lamports\":7,\"owner\":\"" + ACCOUNT + "\",\"executable\":false,\"rentEpoch\":0,"
+                + "\"data\":[\"AQIDBA==\",\"base64\"]}}}}}");
+
+        assertEquals(1, views.size());
+        assertEquals(ACCOUNT, views.get(0).getPublicKey().toBase58());
+        assertEquals(42, views.get(0).getSlot());
+        assertEquals(7, views.get(0).getLamports());
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, views.get(0).getData());
+    }
+
+    @Test
+    public void testFilteredBlockSubscribe() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, null);
+        factory.open(0);
+
+        List<Object> blocks = new ArrayList<>();
+        client.blockSubscribe(ACCOUNT, BlockNotificationParser.mentions(ACCOUNT), blocks::add,
+                Commitment.CONFIRMED, "json", "full", false);
+
+        JsonNode params = sent(factory.sockets.get(0)).get(0).get("params");
+        assertEquals(ACCOUNT, params.get(0).get("mentionsAccountOrProgram").asText());
+        assertEquals("full", params.get(1).get("transactionDetails").asText());
+        assertFalse(params.get(1).get("showRewards").asBoolean());
+
+        factory.confirmLast(0, 555);
+        factory.receive(0, "{\"jsonrpc\":\"2.0\",\"method\":\"blockNotification\",\"params\":{\"result\":{\"context\":"
+                + "{\"slot\":9},\"value\":{\"slot\":9,\"block\":{\"transactions\":[{\"transaction\":{\"message\":"
+                + "{\"accountKeys\":[\"" + ACCOUNT + "\"]}}},{\"transaction\":{\"message\":{\"accountKeys\":[\"other\"]}}}]},"
+                + "\"err\":null}},\"subscription\":555}}");
+
+        assertEquals(1, blocks.size());
+        List<?> transactions = (List<?>) ((Map<?, ?>) ((Map<?, ?>) blocks.get(0)).get("block")).get("transactions");
+        assertEquals(1, transactions.size());
+    }
+
+    @Test
+    public void testBinaryFramesAndSocketStats() throws Exception {
+        ScriptedFactory factory = new ScriptedFactory();
+        client = new SubscriptionWebSocketClient("wss://test", factory, null);
+        factory.open(0);
+
+        List<Long> slots = new ArrayList<>();
+        CompletableFuture<Long> handle = client.accountSubscribe(ACCOUNT, recordSlots(slots), Commitment.PROCESSED, "base64");
+        String id = sent(factory.sockets.get(0)).get(0).get("id").asText();
+        String confirmation = "{\"jsonrpc\":\"2.0\",\"result\":555,\"id\":\"" + id + "\"}";
+        String notification = "{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\",\"params\":{\"subscription\":555,"
+                + "\"result\":{\"context\":{\"slot\":10},\"value\":{\"lamports\":1}}}}";
+        // Multi-byte characters count by their UTF-8 length
+        String textNotification = notification.replace("\"lamports\":1", "\"lamports\":1,\"memo\":\"\u00e9\u20ac\"");
+        factory.receiveBinary(0, confirmation);
+        factory.receiveBinary(0, notification);
+        factory.receive(0, textNotification);
+
+        assertEquals(1L, handle.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of(10L, 10L), slots);
+
+        List<SocketStats> stats = client.getSocketStats();
+        assertEquals(1, stats.size());
+        assertEquals(3, stats.get(0).getFrames());
+        assertEquals(confirmation.length() + notification.length()
+                + textNotification.getBytes(StandardCharsets.UTF_8).length, stats.get(0).getBytes());
+        assertEquals(textNotification.length() + 3, textNotification.getBytes(StandardCharsets.UTF_8).length);
+        assertTrue(stats.get(0).getFramesPerSecond() > 0);
+        assertFalse(stats.get(0).isStandby());
+
+        assertEquals(0, client.getSocketStats().get(0).getFramesPerSecond(), 1e-9);
+    }
+}